@@ -0,0 +1,130 @@
+package io.miscellanea.etcd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the keys served by an {@code EtcdConfigSource} and persists them to a local file, one key
+ * per line, so that the next run can prefetch exactly those keys. Lines that are blank or begin
+ * with '#' are ignored.
+ */
+class AccessProfile {
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(AccessProfile.class);
+
+  private final Path file;
+  private final Set<String> servedKeys = ConcurrentHashMap.newKeySet();
+
+  // Constructors
+  public AccessProfile(Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("file must not be null.");
+    }
+
+    this.file = file;
+  }
+
+  // Properties
+
+  /**
+   * Gets the file backing this profile.
+   *
+   * @return The profile's path.
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  // Public methods
+
+  /**
+   * Reads the keys recorded by a previous run.
+   *
+   * @return The recorded keys, or an empty set if the profile does not exist or cannot be read.
+   */
+  public Set<String> load() {
+    Set<String> keys = new LinkedHashSet<>();
+
+    if (Files.isRegularFile(this.file)) {
+      try {
+        for (String line : Files.readAllLines(this.file, StandardCharsets.UTF_8)) {
+          String key = line.trim();
+          if (!key.isEmpty() && !key.startsWith("#")) {
+            keys.add(key);
+          }
+        }
+        LOGGER.debug("Loaded {} key(s) from access profile {}.", keys.size(), this.file);
+      } catch (IOException e) {
+        LOGGER.warn("Unable to read access profile {}: {}", this.file, e.getMessage());
+      }
+    } else {
+      LOGGER.debug("Access profile {} does not exist; nothing to prefetch.", this.file);
+    }
+
+    return keys;
+  }
+
+  /**
+   * Records that {@code key} was served during this run.
+   *
+   * @param key The (unprefixed) key.
+   */
+  public void record(String key) {
+    this.servedKeys.add(key);
+  }
+
+  /**
+   * Gets the keys recorded during this run.
+   *
+   * @return An unmodifiable view of the recorded keys.
+   */
+  public Set<String> getServedKeys() {
+    return Collections.unmodifiableSet(this.servedKeys);
+  }
+
+  /**
+   * Writes the keys recorded during this run to the profile, replacing its previous contents. The
+   * file is written to a temporary sibling first and then moved into place so a crash never leaves
+   * a truncated profile behind.
+   */
+  public void save() {
+    Set<String> keys = new TreeSet<>(this.servedKeys);
+
+    try {
+      Path target = this.file.toAbsolutePath();
+      Files.createDirectories(target.getParent());
+
+      Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+      try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+        writer.write("# Keys served by EtcdConfigSource; prefetched on the next start.");
+        writer.newLine();
+        for (String key : keys) {
+          writer.write(key);
+          writer.newLine();
+        }
+      }
+
+      try {
+        Files.move(
+            temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+      LOGGER.debug("Saved {} key(s) to access profile {}.", keys.size(), this.file);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to write access profile {}: {}", this.file, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package io.miscellanea.etcd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Delivers changes for one {@code ConfigChangeListener} registration. Changes are queued per key
+ * and drained by at most one task per key at a time, so notifications for a key are never
+ * reordered or delivered concurrently, while different keys may be delivered in parallel if the
+ * executor allows it. Changes that arrive while a key is still queued are merged into the queued
+ * change.
+ */
+class ChangeSubscription implements ListenerRegistration {
+  // Inner classes
+  private static final class Change {
+    private final String oldValue;
+    private String newValue;
+
+    private Change(String oldValue, String newValue) {
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+    }
+  }
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChangeSubscription.class);
+
+  private final String pattern;
+  private final boolean prefix;
+  private final ConfigChangeListener listener;
+  private final Executor executor;
+  private final Consumer<ChangeSubscription> closeAction;
+
+  private final Map<String, Change> pending = new HashMap<>();
+  private final Set<String> draining = new HashSet<>();
+  private volatile boolean closed = false;
+
+  // Constructors
+  public ChangeSubscription(
+      String pattern,
+      boolean prefix,
+      ConfigChangeListener listener,
+      Executor executor,
+      Consumer<ChangeSubscription> closeAction) {
+    if (pattern == null) {
+      throw new IllegalArgumentException("pattern must not be null.");
+    }
+
+    if (listener == null) {
+      throw new IllegalArgumentException("listener must not be null.");
+    }
+
+    if (executor == null) {
+      throw new IllegalArgumentException("executor must not be null.");
+    }
+
+    this.pattern = pattern;
+    this.prefix = prefix;
+    this.listener = listener;
+    this.executor = executor;
+    this.closeAction = closeAction;
+  }
+
+  // Properties
+  public String getPattern() {
+    return pattern;
+  }
+
+  // Public methods
+
+  /**
+   * Queues a change for delivery. If a change for the same key is already queued, the two are
+   * merged.
+   *
+   * @param key The unprefixed key.
+   * @param oldValue The value before the change.
+   * @param newValue The value after the change.
+   */
+  public void offer(String key, String oldValue, String newValue) {
+    if (this.closed) {
+      return;
+    }
+
+    boolean schedule = false;
+    synchronized (this) {
+      Change change = this.pending.get(key);
+      if (change != null) {
+        change.newValue = newValue;
+      } else {
+        this.pending.put(key, new Change(oldValue, newValue));
+        schedule = this.draining.add(key);
+      }
+    }
+
+    if (schedule) {
+      try {
+        this.executor.execute(() -> this.drain(key));
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("Listener executor rejected change for key '{}'; dropping it.", key);
+        synchronized (this) {
+          this.pending.remove(key);
+          this.draining.remove(key);
+        }
+      }
+    }
+  }
+
+  // ListenerRegistration
+  @Override
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      synchronized (this) {
+        this.pending.clear();
+      }
+
+      if (this.closeAction != null) {
+        this.closeAction.accept(this);
+      }
+    }
+  }
+
+  // Private methods
+  private void drain(String key) {
+    while (true) {
+      Change change;
+      synchronized (this) {
+        change = this.pending.remove(key);
+        if (change == null || this.closed) {
+          this.draining.remove(key);
+          return;
+        }
+      }
+
+      if (!Objects.equals(change.oldValue, change.newValue)) {
+        try {
+          this.listener.onChange(key, change.oldValue, change.newValue);
+        } catch (Exception e) {
+          LOGGER.warn("Change listener for key '" + key + "' threw an exception.", e);
+        }
+      }
+    }
+  }
+}
@@ -192,4 +192,368 @@ class CompositeEtcdConfig implements EtcdConfig {
 
     return prefix;
   }
+
+  @Override
+  public String getAccessProfile() {
+    String accessProfile = null;
+
+    for (EtcdConfig config : this.configs) {
+      accessProfile = config.getAccessProfile();
+      if (accessProfile != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("access profile = {}", accessProfile);
+
+    return accessProfile;
+  }
+
+  @Override
+  public Boolean isSerializableReads() {
+    Boolean serializable = null;
+
+    for (EtcdConfig config : this.configs) {
+      serializable = config.isSerializableReads();
+      if (serializable != null) {
+        break;
+      }
+    }
+
+    if (serializable == null) {
+      serializable = Boolean.FALSE;
+    }
+
+    LOGGER.debug("serializable reads = {}", serializable);
+
+    return serializable;
+  }
+
+  @Override
+  public Integer getCacheMaxSize() {
+    Integer cacheMaxSize = null;
+
+    for (EtcdConfig config : this.configs) {
+      cacheMaxSize = config.getCacheMaxSize();
+      if (cacheMaxSize != null) {
+        break;
+      }
+    }
+
+    if (cacheMaxSize == null) {
+      cacheMaxSize = Constants.DEFAULT_CACHE_MAX_SIZE;
+    }
+
+    LOGGER.debug("cache max size = {}", cacheMaxSize);
+
+    return cacheMaxSize;
+  }
+
+  @Override
+  public Long getCacheIdleTimeout() {
+    Long cacheIdleTimeout = null;
+
+    for (EtcdConfig config : this.configs) {
+      cacheIdleTimeout = config.getCacheIdleTimeout();
+      if (cacheIdleTimeout != null) {
+        break;
+      }
+    }
+
+    if (cacheIdleTimeout == null) {
+      cacheIdleTimeout = Constants.DEFAULT_CACHE_IDLE_TIMEOUT;
+    }
+
+    LOGGER.debug("cache idle timeout = {}", cacheIdleTimeout);
+
+    return cacheIdleTimeout;
+  }
+
+  @Override
+  public Boolean isCachingMisses() {
+    Boolean cachingMisses = null;
+
+    for (EtcdConfig config : this.configs) {
+      cachingMisses = config.isCachingMisses();
+      if (cachingMisses != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("caching misses = {}", cachingMisses);
+
+    return cachingMisses;
+  }
+
+  @Override
+  public Boolean isJmxEnabled() {
+    Boolean jmxEnabled = null;
+
+    for (EtcdConfig config : this.configs) {
+      jmxEnabled = config.isJmxEnabled();
+      if (jmxEnabled != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("jmx enabled = {}", jmxEnabled);
+
+    return jmxEnabled;
+  }
+
+  @Override
+  public Long getSlowLookupThreshold() {
+    Long slowLookupThreshold = null;
+
+    for (EtcdConfig config : this.configs) {
+      slowLookupThreshold = config.getSlowLookupThreshold();
+      if (slowLookupThreshold != null) {
+        break;
+      }
+    }
+
+    if (slowLookupThreshold == null) {
+      slowLookupThreshold = Constants.DEFAULT_SLOW_LOOKUP_THRESHOLD;
+    }
+
+    LOGGER.debug("slow lookup threshold = {}", slowLookupThreshold);
+
+    return slowLookupThreshold;
+  }
+
+  @Override
+  public String getExecutor() {
+    String executor = null;
+
+    for (EtcdConfig config : this.configs) {
+      executor = config.getExecutor();
+      if (executor != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("executor = {}", executor);
+
+    return executor;
+  }
+
+  @Override
+  public Boolean isHedgingReads() {
+    Boolean hedgingReads = null;
+
+    for (EtcdConfig config : this.configs) {
+      hedgingReads = config.isHedgingReads();
+      if (hedgingReads != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("hedging reads = {}", hedgingReads);
+
+    return hedgingReads;
+  }
+
+  @Override
+  public Integer getHedgePercentile() {
+    Integer hedgePercentile = null;
+
+    for (EtcdConfig config : this.configs) {
+      hedgePercentile = config.getHedgePercentile();
+      if (hedgePercentile != null) {
+        break;
+      }
+    }
+
+    if (hedgePercentile == null) {
+      hedgePercentile = Constants.DEFAULT_HEDGE_PERCENTILE;
+    }
+
+    LOGGER.debug("hedge percentile = {}", hedgePercentile);
+
+    return hedgePercentile;
+  }
+
+  @Override
+  public Integer getHedgeBudget() {
+    Integer hedgeBudget = null;
+
+    for (EtcdConfig config : this.configs) {
+      hedgeBudget = config.getHedgeBudget();
+      if (hedgeBudget != null) {
+        break;
+      }
+    }
+
+    if (hedgeBudget == null) {
+      hedgeBudget = Constants.DEFAULT_HEDGE_BUDGET;
+    }
+
+    LOGGER.debug("hedge budget = {}", hedgeBudget);
+
+    return hedgeBudget;
+  }
+
+  @Override
+  public Boolean isPrefetchingVariants() {
+    Boolean prefetchingVariants = null;
+
+    for (EtcdConfig config : this.configs) {
+      prefetchingVariants = config.isPrefetchingVariants();
+      if (prefetchingVariants != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("prefetching variants = {}", prefetchingVariants);
+
+    return prefetchingVariants;
+  }
+
+  @Override
+  public String getEncryptionKeyFile() {
+    String encryptionKeyFile = null;
+
+    for (EtcdConfig config : this.configs) {
+      encryptionKeyFile = config.getEncryptionKeyFile();
+      if (encryptionKeyFile != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("encryption key file = {}", encryptionKeyFile);
+
+    return encryptionKeyFile;
+  }
+
+  @Override
+  public Boolean isInterpolating() {
+    Boolean interpolating = null;
+
+    for (EtcdConfig config : this.configs) {
+      interpolating = config.isInterpolating();
+      if (interpolating != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("interpolating = {}", interpolating);
+
+    return interpolating;
+  }
+
+  @Override
+  public Integer getScanPageSize() {
+    Integer scanPageSize = null;
+
+    for (EtcdConfig config : this.configs) {
+      scanPageSize = config.getScanPageSize();
+      if (scanPageSize != null) {
+        break;
+      }
+    }
+
+    if (scanPageSize == null) {
+      scanPageSize = Constants.DEFAULT_SCAN_PAGE_SIZE;
+    }
+
+    LOGGER.debug("scan page size = {}", scanPageSize);
+
+    return scanPageSize;
+  }
+
+  @Override
+  public Integer getReadRateLimit() {
+    Integer readRateLimit = null;
+
+    for (EtcdConfig config : this.configs) {
+      readRateLimit = config.getReadRateLimit();
+      if (readRateLimit != null) {
+        break;
+      }
+    }
+
+    if (readRateLimit == null) {
+      readRateLimit = Constants.DEFAULT_READ_RATE_LIMIT;
+    }
+
+    LOGGER.debug("read rate limit = {}", readRateLimit);
+
+    return readRateLimit;
+  }
+
+  @Override
+  public Integer getReadBurst() {
+    Integer readBurst = null;
+
+    for (EtcdConfig config : this.configs) {
+      readBurst = config.getReadBurst();
+      if (readBurst != null) {
+        break;
+      }
+    }
+
+    LOGGER.debug("read burst = {}", readBurst);
+
+    return readBurst;
+  }
+
+  @Override
+  public Long getPropagationProbeInterval() {
+    Long propagationProbeInterval = null;
+
+    for (EtcdConfig config : this.configs) {
+      propagationProbeInterval = config.getPropagationProbeInterval();
+      if (propagationProbeInterval != null) {
+        break;
+      }
+    }
+
+    if (propagationProbeInterval == null) {
+      propagationProbeInterval = Constants.DEFAULT_PROPAGATION_PROBE_INTERVAL;
+    }
+
+    LOGGER.debug("propagation probe interval = {}", propagationProbeInterval);
+
+    return propagationProbeInterval;
+  }
+
+  @Override
+  public String getPropagationProbeKey() {
+    String propagationProbeKey = null;
+
+    for (EtcdConfig config : this.configs) {
+      propagationProbeKey = config.getPropagationProbeKey();
+      if (propagationProbeKey != null) {
+        break;
+      }
+    }
+
+    if (propagationProbeKey == null) {
+      propagationProbeKey = Constants.DEFAULT_PROPAGATION_PROBE_KEY;
+    }
+
+    LOGGER.debug("propagation probe key = {}", propagationProbeKey);
+
+    return propagationProbeKey;
+  }
+
+  @Override
+  public Long getPollInterval() {
+    Long pollInterval = null;
+
+    for (EtcdConfig config : this.configs) {
+      pollInterval = config.getPollInterval();
+      if (pollInterval != null) {
+        break;
+      }
+    }
+
+    if (pollInterval == null) {
+      pollInterval = Constants.DEFAULT_POLL_INTERVAL;
+    }
+
+    LOGGER.debug("poll interval = {}", pollInterval);
+
+    return pollInterval;
+  }
 }
@@ -0,0 +1,21 @@
+package io.miscellanea.etcd;
+
+/**
+ * Receives notifications when etcd keys observed by an {@code EtcdConfigSource} change.
+ *
+ * <p>Notifications for the same key are delivered one at a time and in the order the changes were
+ * made. If several changes to a key arrive while a notification for it is still pending, they are
+ * coalesced into a single call whose old value is the value before the first change and whose new
+ * value is the value after the last.
+ */
+@FunctionalInterface
+public interface ConfigChangeListener {
+  /**
+   * Invoked after a key changes.
+   *
+   * @param key The changed key, without the configuration source's key prefix.
+   * @param oldValue The key's previous value or {@code null} if it did not exist.
+   * @param newValue The key's new value or {@code null} if it was deleted.
+   */
+  void onChange(String key, String oldValue, String newValue);
+}
@@ -1,5 +1,9 @@
 package io.miscellanea.etcd;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 final class Constants {
   // Property names
   public static final String HOST_PROP = "etcd.endpoint.host";
@@ -11,9 +15,58 @@ final class Constants {
   public static final String WATCHING_PROP = "etcd.cs.watch";
   public static final String CONFIG_URL_PROP = "etcd.cs.configUrl";
   public static final String KEY_PREFIX = "etcd.cs.keyPrefix";
+  public static final String ACCESS_PROFILE_PROP = "etcd.cs.accessProfile";
+  public static final String SERIALIZABLE_READS_PROP = "etcd.cs.serializableReads";
+  public static final String CACHE_MAX_SIZE_PROP = "etcd.cs.cacheMaxSize";
+  public static final String CACHE_IDLE_TIMEOUT_PROP = "etcd.cs.cacheIdleTimeout";
+  public static final String CACHE_MISSES_PROP = "etcd.cs.cacheMisses";
+  public static final String JMX_PROP = "etcd.cs.jmx";
+  public static final String SLOW_LOOKUP_THRESHOLD_PROP = "etcd.cs.slowLookupThreshold";
+  public static final String EXECUTOR_PROP = "etcd.cs.executor";
+  public static final String HEDGE_READS_PROP = "etcd.cs.hedgeReads";
+  public static final String HEDGE_PERCENTILE_PROP = "etcd.cs.hedgePercentile";
+  public static final String HEDGE_BUDGET_PROP = "etcd.cs.hedgeBudget";
+  public static final String PREFETCH_VARIANTS_PROP = "etcd.cs.prefetchVariants";
+  public static final String ENCRYPTION_KEY_FILE_PROP = "etcd.cs.encryptionKeyFile";
+  public static final String INTERPOLATE_PROP = "etcd.cs.interpolate";
+  public static final String SCAN_PAGE_SIZE_PROP = "etcd.cs.scanPageSize";
+  public static final String READ_RATE_LIMIT_PROP = "etcd.cs.readRateLimit";
+  public static final String READ_BURST_PROP = "etcd.cs.readBurst";
+  public static final String PROPAGATION_PROBE_INTERVAL_PROP = "etcd.cs.propagationProbeInterval";
+  public static final String PROPAGATION_PROBE_KEY_PROP = "etcd.cs.propagationProbeKey";
+  public static final String POLL_INTERVAL_PROP = "etcd.cs.pollInterval";
 
   // Default values
   public static final Integer DEFAULT_PORT = 2379;
   public static final Integer DEFAULT_ORDINAL = 1000;
   public static final String DEFAULT_KEY_PREFIX = "";
+  public static final Integer DEFAULT_CACHE_MAX_SIZE = 0;
+  public static final Long DEFAULT_CACHE_IDLE_TIMEOUT = 0L;
+  public static final Long DEFAULT_SLOW_LOOKUP_THRESHOLD = 0L;
+  public static final Integer DEFAULT_HEDGE_PERCENTILE = 95;
+  public static final Integer DEFAULT_HEDGE_BUDGET = 5;
+  public static final Integer DEFAULT_SCAN_PAGE_SIZE = 500;
+  public static final Integer DEFAULT_READ_RATE_LIMIT = 0;
+  public static final Long DEFAULT_PROPAGATION_PROBE_INTERVAL = 0L;
+  public static final String DEFAULT_PROPAGATION_PROBE_KEY = "etcd-config-source.canary";
+  public static final Long DEFAULT_POLL_INTERVAL = 0L;
+
+  // Executor specifications
+  public static final String VIRTUAL_EXECUTOR = "virtual";
+
+  // DeltaSpike project stages, which DeltaSpike appends to a key when resolving it
+  public static final List<String> PROJECT_STAGES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              "UnitTest", "Development", "SystemTest", "IntegrationTest", "Staging", "Production"));
+
+  // Variant prefetch
+  public static final int MAX_PREFETCHED_VARIANTS = 32;
+
+  // etcd limits
+  public static final int MAX_TXN_OPS = 128;
+  public static final int MAX_TXN_BYTES = 1024 * 1024;
+
+  // Range scans
+  public static final int SCAN_PARTITIONS = 8;
 }
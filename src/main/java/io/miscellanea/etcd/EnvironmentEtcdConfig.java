@@ -23,6 +23,26 @@ class EnvironmentEtcdConfig implements EtcdConfig {
   private final Integer ordinal;
   private final String keyPrefix;
   private final List<String> members;
+  private final String accessProfile;
+  private final Boolean serializableReads;
+  private final Integer cacheMaxSize;
+  private final Long cacheIdleTimeout;
+  private final Boolean cachingMisses;
+  private final Boolean jmxEnabled;
+  private final Long slowLookupThreshold;
+  private final String executor;
+  private final Boolean hedgingReads;
+  private final Integer hedgePercentile;
+  private final Integer hedgeBudget;
+  private final Boolean prefetchingVariants;
+  private final String encryptionKeyFile;
+  private final Boolean interpolating;
+  private final Integer scanPageSize;
+  private final Integer readRateLimit;
+  private final Integer readBurst;
+  private final Long propagationProbeInterval;
+  private final String propagationProbeKey;
+  private final Long pollInterval;
 
   // Constructors
   public EnvironmentEtcdConfig() {
@@ -37,6 +57,31 @@ class EnvironmentEtcdConfig implements EtcdConfig {
         !Strings.isNullOrEmpty(System.getProperty(Constants.KEY_PREFIX))
             ? System.getProperty(Constants.KEY_PREFIX)
             : Constants.DEFAULT_KEY_PREFIX;
+    this.accessProfile =
+        !Strings.isNullOrEmpty(System.getProperty(Constants.ACCESS_PROFILE_PROP))
+            ? System.getProperty(Constants.ACCESS_PROFILE_PROP)
+            : null;
+    this.serializableReads = this.resolveBoolean(Constants.SERIALIZABLE_READS_PROP);
+    this.cacheMaxSize = this.resolveInteger(Constants.CACHE_MAX_SIZE_PROP);
+    this.cacheIdleTimeout = this.resolveLong(Constants.CACHE_IDLE_TIMEOUT_PROP);
+    this.cachingMisses = this.resolveBoolean(Constants.CACHE_MISSES_PROP);
+    this.jmxEnabled = this.resolveBoolean(Constants.JMX_PROP);
+    this.slowLookupThreshold = this.resolveLong(Constants.SLOW_LOOKUP_THRESHOLD_PROP);
+    this.executor = Strings.emptyToNull(System.getProperty(Constants.EXECUTOR_PROP));
+    this.hedgingReads = this.resolveBoolean(Constants.HEDGE_READS_PROP);
+    this.hedgePercentile = this.resolveInteger(Constants.HEDGE_PERCENTILE_PROP);
+    this.hedgeBudget = this.resolveInteger(Constants.HEDGE_BUDGET_PROP);
+    this.prefetchingVariants = this.resolveBoolean(Constants.PREFETCH_VARIANTS_PROP);
+    this.encryptionKeyFile =
+        Strings.emptyToNull(System.getProperty(Constants.ENCRYPTION_KEY_FILE_PROP));
+    this.interpolating = this.resolveBoolean(Constants.INTERPOLATE_PROP);
+    this.scanPageSize = this.resolveInteger(Constants.SCAN_PAGE_SIZE_PROP);
+    this.readRateLimit = this.resolveInteger(Constants.READ_RATE_LIMIT_PROP);
+    this.readBurst = this.resolveInteger(Constants.READ_BURST_PROP);
+    this.propagationProbeInterval = this.resolveLong(Constants.PROPAGATION_PROBE_INTERVAL_PROP);
+    this.propagationProbeKey =
+        Strings.emptyToNull(System.getProperty(Constants.PROPAGATION_PROBE_KEY_PROP));
+    this.pollInterval = this.resolveLong(Constants.POLL_INTERVAL_PROP);
 
     LOGGER.debug(
         "etcd host = {}, etcd port = {}, etcd user = {}, etcd password = {}, members = {}, watching = {}, key prefix = {}, ordinal = {}",
@@ -48,6 +93,38 @@ class EnvironmentEtcdConfig implements EtcdConfig {
         this.watching,
         this.keyPrefix,
         this.ordinal);
+    LOGGER.debug(
+        "Cache: max size = {}, idle timeout = {}, caching misses = {}, access profile = {}, "
+            + "prefetching variants = {}",
+        this.cacheMaxSize,
+        this.cacheIdleTimeout,
+        this.cachingMisses,
+        this.accessProfile,
+        this.prefetchingVariants);
+    LOGGER.debug(
+        "Reads: serializable = {}, executor = {}, rate limit = {}, burst = {}, scan page size = {}",
+        this.serializableReads,
+        this.executor,
+        this.readRateLimit,
+        this.readBurst,
+        this.scanPageSize);
+    LOGGER.debug(
+        "Hedging: enabled = {}, percentile = {}, budget = {}",
+        this.hedgingReads,
+        this.hedgePercentile,
+        this.hedgeBudget);
+    LOGGER.debug(
+        "Values: encryption key file = {}, interpolating = {}",
+        this.encryptionKeyFile,
+        this.interpolating);
+    LOGGER.debug(
+        "Monitoring: jmx enabled = {}, slow lookup threshold = {}, "
+            + "propagation probe interval = {}, propagation probe key = {}, poll interval = {}",
+        this.jmxEnabled,
+        this.slowLookupThreshold,
+        this.propagationProbeInterval,
+        this.propagationProbeKey,
+        this.pollInterval);
   }
 
   // Properties
@@ -91,6 +168,106 @@ class EnvironmentEtcdConfig implements EtcdConfig {
     return keyPrefix;
   }
 
+  @Override
+  public String getAccessProfile() {
+    return accessProfile;
+  }
+
+  @Override
+  public Boolean isSerializableReads() {
+    return serializableReads;
+  }
+
+  @Override
+  public Integer getCacheMaxSize() {
+    return cacheMaxSize;
+  }
+
+  @Override
+  public Long getCacheIdleTimeout() {
+    return cacheIdleTimeout;
+  }
+
+  @Override
+  public Boolean isCachingMisses() {
+    return cachingMisses;
+  }
+
+  @Override
+  public Boolean isJmxEnabled() {
+    return jmxEnabled;
+  }
+
+  @Override
+  public Long getSlowLookupThreshold() {
+    return slowLookupThreshold;
+  }
+
+  @Override
+  public String getExecutor() {
+    return executor;
+  }
+
+  @Override
+  public Boolean isHedgingReads() {
+    return hedgingReads;
+  }
+
+  @Override
+  public Integer getHedgePercentile() {
+    return hedgePercentile;
+  }
+
+  @Override
+  public Integer getHedgeBudget() {
+    return hedgeBudget;
+  }
+
+  @Override
+  public Boolean isPrefetchingVariants() {
+    return prefetchingVariants;
+  }
+
+  @Override
+  public String getEncryptionKeyFile() {
+    return encryptionKeyFile;
+  }
+
+  @Override
+  public Boolean isInterpolating() {
+    return interpolating;
+  }
+
+  @Override
+  public Integer getScanPageSize() {
+    return scanPageSize;
+  }
+
+  @Override
+  public Integer getReadRateLimit() {
+    return readRateLimit;
+  }
+
+  @Override
+  public Integer getReadBurst() {
+    return readBurst;
+  }
+
+  @Override
+  public Long getPropagationProbeInterval() {
+    return propagationProbeInterval;
+  }
+
+  @Override
+  public String getPropagationProbeKey() {
+    return propagationProbeKey;
+  }
+
+  @Override
+  public Long getPollInterval() {
+    return pollInterval;
+  }
+
   // Private methods
   private Integer resolvePort() {
     Integer port = null;
@@ -143,6 +320,51 @@ class EnvironmentEtcdConfig implements EtcdConfig {
     return memberList;
   }
 
+  private Integer resolveInteger(String property) {
+    Long value = this.resolveLong(property);
+
+    if (value != null && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) {
+      LOGGER.warn(
+          "Configured value for {} is out of range ({}); using default value.", property, value);
+      value = null;
+    }
+
+    return value != null ? Integer.valueOf(value.intValue()) : null;
+  }
+
+  private Long resolveLong(String property) {
+    Long value = null;
+    String strValue = System.getProperty(property);
+
+    if (!Strings.isNullOrEmpty(strValue)) {
+      try {
+        value = Long.parseLong(strValue);
+      } catch (Exception e) {
+        LOGGER.warn(
+            "Unable to convert configured value for {} to a number ({}); using default value.",
+            property,
+            e.getMessage());
+      }
+    } else {
+      LOGGER.debug("Property {} is not defined.", property);
+    }
+
+    return value;
+  }
+
+  private Boolean resolveBoolean(String property) {
+    Boolean value = null;
+
+    String strValue = System.getProperty(property);
+    if (!Strings.isNullOrEmpty(strValue)) {
+      value = Boolean.parseBoolean(strValue);
+    } else {
+      LOGGER.debug("Property {} is not defined.", property);
+    }
+
+    return value;
+  }
+
   private Boolean resolveWatching() {
     Boolean doWatch = null;
 
@@ -66,4 +66,158 @@ interface EtcdConfig {
    * @return The key prefix or the empty string.
    */
   String getKeyPrefix();
+
+  /**
+   * Gets the path of the file used to record the keys served by the configuration source so they
+   * may be prefetched on the next start.
+   *
+   * @return The access profile's path or {@code null} if not defined.
+   */
+  String getAccessProfile();
+
+  /**
+   * If {@code true}, then the configuration source will issue serializable reads that any cluster
+   * member may answer locally instead of linearizable reads routed through the leader.
+   *
+   * @return The serializable read status or {@code null} if not defined.
+   */
+  Boolean isSerializableReads();
+
+  /**
+   * Gets the maximum number of values the configuration source will cache. When the limit is
+   * exceeded, the least recently read values are evicted and their watches cancelled.
+   *
+   * @return The maximum cache size, zero for no limit, or {@code null} if not defined.
+   */
+  Integer getCacheMaxSize();
+
+  /**
+   * Gets the time, in milliseconds, after which a cached value that has not been read is evicted
+   * and its watch cancelled.
+   *
+   * @return The idle timeout, zero to disable, or {@code null} if not defined.
+   */
+  Long getCacheIdleTimeout();
+
+  /**
+   * Indicates whether keys found to be absent from etcd are cached as such, so repeated lookups of
+   * them are answered locally.
+   *
+   * @return <code>true</code> if misses are cached, otherwise <code>false</code>.
+   */
+  Boolean isCachingMisses();
+
+  /**
+   * Indicates whether the configuration source registers a management bean with the platform MBean
+   * server.
+   *
+   * @return <code>true</code> if the bean is registered, otherwise <code>false</code>.
+   */
+  Boolean isJmxEnabled();
+
+  /**
+   * Gets the time, in milliseconds, above which a lookup is logged as slow.
+   *
+   * @return The slow lookup threshold, or zero to disable slow lookup logging.
+   */
+  Long getSlowLookupThreshold();
+
+  /**
+   * Gets the executor used to process watch events and complete etcd requests: "virtual" for a
+   * virtual thread per task (JDK 21 or later) or a thread count for a fixed pool.
+   *
+   * @return The executor specification, or <code>null</code> to use the etcd client's own threads.
+   */
+  String getExecutor();
+
+  /**
+   * Indicates whether slow reads of uncached keys are hedged with a duplicate serializable read
+   * sent to another cluster member.
+   *
+   * @return <code>true</code> if reads are hedged, otherwise <code>false</code>.
+   */
+  Boolean isHedgingReads();
+
+  /**
+   * Gets the latency percentile after which a read is hedged.
+   *
+   * @return The percentile, from 1 to 99.
+   */
+  Integer getHedgePercentile();
+
+  /**
+   * Gets the maximum number of hedged reads, as a percentage of all reads of uncached keys.
+   *
+   * @return The hedge budget percentage.
+   */
+  Integer getHedgeBudget();
+
+  /**
+   * Indicates whether the first miss for a key reads the key and all of its project stage and other
+   * dot-suffixed variants in one request.
+   *
+   * @return <code>true</code> if variants are prefetched, otherwise <code>false</code>.
+   */
+  Boolean isPrefetchingVariants();
+
+  /**
+   * Gets the path of a file containing the base64-encoded AES key used to decrypt tagged values.
+   *
+   * @return The key file path, or <code>null</code> if values are not decrypted.
+   */
+  String getEncryptionKeyFile();
+
+  /**
+   * Indicates whether ${...} references to other keys are expanded by the configuration source.
+   *
+   * @return <code>true</code> if references are expanded, otherwise <code>false</code>.
+   */
+  Boolean isInterpolating();
+
+  /**
+   * Gets the number of keys to request per page when scanning a prefix.
+   *
+   * @return The page size, or {@code null} if not set.
+   */
+  Integer getScanPageSize();
+
+  /**
+   * Returns the number of etcd reads per second the configuration source may make for keys that are
+   * not cached. Lookups beyond the limit are answered with no value, so they fall through to
+   * lower-ordinal configuration sources.
+   *
+   * @return The read rate limit, or zero for no limit.
+   */
+  Integer getReadRateLimit();
+
+  /**
+   * Returns the number of reads of uncached keys that may be made at once, after a quiet period,
+   * before the read rate limit applies.
+   *
+   * @return The read burst, or {@code null} to allow one second's worth of reads.
+   */
+  Integer getReadBurst();
+
+  /**
+   * Returns the interval, in milliseconds, at which the configuration source writes a canary key
+   * and times its delivery through the watch.
+   *
+   * @return The probe interval, or zero if the probe is disabled.
+   */
+  Long getPropagationProbeInterval();
+
+  /**
+   * Returns the key, relative to the key prefix, written by the propagation probe.
+   *
+   * @return The canary key.
+   */
+  String getPropagationProbeKey();
+
+  /**
+   * Returns the interval, in milliseconds, at which the configuration source polls its key prefix for
+   * changes when watching is disabled.
+   *
+   * @return The poll interval, or zero if polling is disabled.
+   */
+  Long getPollInterval();
 }
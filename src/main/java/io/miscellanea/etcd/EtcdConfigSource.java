@@ -1,9 +1,17 @@
 package io.miscellanea.etcd;
 
+import com.google.common.base.MoreObjects;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.ByteString;
 import com.ibm.etcd.api.Event;
 import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeRequest;
 import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.api.RequestOp;
+import com.ibm.etcd.api.ResponseOp;
+import com.ibm.etcd.api.TxnRequest;
+import com.ibm.etcd.api.TxnResponse;
 import com.ibm.etcd.client.KvStoreClient;
 import com.ibm.etcd.client.kv.KvClient;
 import com.ibm.etcd.client.kv.WatchUpdate;
@@ -13,9 +21,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * An Apache DeltaSpike <code>ConfigSource</code> implementation for etcd. It is configured in one
@@ -30,15 +60,86 @@ import java.util.Objects;
  * those from the file. This class recognizes the following properties:
  *
  * <ul>
+ *   <li><strong>etcd.cs.accessProfile</strong>: The path of a local file used to record the keys
+ *       served by the configuration source. When present, the recorded keys are written to the
+ *       file when the source is closed (or the JVM exits) and prefetched in a single batched
+ *       request on the next start.
+ *   <li><strong>etcd.cs.cacheIdleTimeout</strong>: The time, in milliseconds, after which a cached
+ *       value that has not been read is evicted and its watch cancelled. Defaults to 0 (never).
+ *   <li><strong>etcd.cs.cacheMaxSize</strong>: The maximum number of cached values. When exceeded,
+ *       the least recently read values are evicted and their watches cancelled. Defaults to 0 (no
+ *       limit).
+ *   <li><strong>etcd.cs.cacheMisses</strong>: If true, then keys found to be absent from etcd are
+ *       cached as such, and watched when <strong>etcd.cs.watch</strong> is true, so repeated
+ *       lookups of them do not call etcd. Defaults to false.
  *   <li><strong>etcd.cs.configUrl</strong>: The URL for a .properties file containing the other
  *       properties listed in this table. For example, to reference a file named myEtcd.properties
  *       in /var/lib/etcd/ you'd use the URL file://var/lib/etcd/myEtcd.properties.
+ *   <li><strong>etcd.cs.encryptionKeyFile</strong>: The path of a file containing a base64-encoded
+ *       AES key. When present, values of the form {@code {aes-gcm}<base64>} are decrypted once when
+ *       they are read or change and cached as plain text, and values are no longer written to the
+ *       debug log.
+ *   <li><strong>etcd.cs.executor</strong>: The executor used to process watch events and to
+ *       complete etcd requests for uncached keys, keeping that work off the etcd client's I/O
+ *       threads. Either "virtual", for a virtual thread per task (JDK 21 or later), or the size of
+ *       a fixed thread pool. Defaults to the etcd client's own threads.
+ *   <li><strong>etcd.cs.hedgeBudget</strong>: The maximum share of reads of uncached keys, as a
+ *       percentage, that may be hedged. Defaults to 5.
+ *   <li><strong>etcd.cs.hedgePercentile</strong>: The read latency percentile after which a read is
+ *       hedged. Defaults to 95.
+ *   <li><strong>etcd.cs.hedgeReads</strong>: If true, and at least two
+ *       <strong>etcd.endpoint.members</strong> are configured, then reads of uncached keys are sent
+ *       to each member in turn, and a read that is slower than <strong>etcd.cs.hedgePercentile
+ *       </strong> is duplicated as a serializable read to the next member, using whichever
+ *       response arrives first. Defaults to false.
+ *   <li><strong>etcd.cs.interpolate</strong>: If true, then {@code ${key}} references inside values
+ *       are expanded with the referenced keys' values. Expansions are remembered, and when a
+ *       watched key changes only the values that depend on it are expanded again. References that
+ *       cannot be resolved, or that form a cycle, are left as they are. Defaults to false.
+ *   <li><strong>etcd.cs.jmx</strong>: If true, then the configuration source registers an {@link
+ *       EtcdConfigSourceMXBean} with the platform MBean server, exposing its cache and watch state
+ *       (but never its values) and operations to refresh them. Defaults to false.
  *   <li><strong>etcd.cs.ordinal</strong>: The ordinal used to determine the configuration source's
  *       priority order. Defaults to 1000 if omitted. Please see the DeltaSpike configuration
  *       mechanism page for more information.
+ *   <li><strong>etcd.cs.pollInterval</strong>: The interval, in milliseconds, at which the key
+ *       prefix is polled for changes when <strong>etcd.cs.watch</strong> is disabled. Each poll is
+ *       one transaction that counts the prefix's keys and returns only those modified since the
+ *       previous poll. Defaults to 0 (disabled).
+ *   <li><strong>etcd.cs.prefetchVariants</strong>: If true, then the first miss for a key reads the
+ *       key's base name (the key without any trailing DeltaSpike project stage) together with every
+ *       "base." variant in one request. The variants found are cached, and the base name and its
+ *       project stage variants are cached as absent if they do not exist, so DeltaSpike's probes
+ *       for the other variants are answered locally. Defaults to false.
+ *   <li><strong>etcd.cs.propagationProbeInterval</strong>: The interval, in milliseconds, at which
+ *       a canary key is written under the key prefix and the time until the watch makes the new
+ *       value visible is recorded. Requires <strong>etcd.cs.watch</strong> or
+ *       <strong>etcd.cs.pollInterval</strong>, and write access to the canary. Defaults to 0
+ *       (disabled).
+ *   <li><strong>etcd.cs.propagationProbeKey</strong>: The canary key written by the propagation
+ *       probe, relative to the key prefix. Defaults to "etcd-config-source.canary".
+ *   <li><strong>etcd.cs.readBurst</strong>: The number of reads of uncached keys that may be made
+ *       at once, after a quiet period, before <strong>etcd.cs.readRateLimit</strong> applies.
+ *       Defaults to one second's worth of reads.
+ *   <li><strong>etcd.cs.readRateLimit</strong>: The number of etcd reads per second the source may
+ *       make for lookups of uncached keys. Lookups beyond the limit return no value, so they fall
+ *       through to lower-ordinal sources, and are counted and summarized in the log. Defaults to 0
+ *       (no limit).
+ *   <li><strong>etcd.cs.scanPageSize</strong>: The number of keys requested per page when a prefix
+ *       is refreshed or preloaded. Prefixes larger than a page are split into sub-ranges that are
+ *       paged concurrently at a single revision. Defaults to 500.
+ *   <li><strong>etcd.cs.serializableReads</strong>: If true, then keys are read with serializable
+ *       rather than linearizable requests, which any cluster member may answer from its local
+ *       store. Values may be slightly stale; when combined with <strong>etcd.cs.watch</strong> the
+ *       watch starts at the revision the value was read from, so the cache still converges.
+ *       Defaults to false.
+ *   <li><strong>etcd.cs.slowLookupThreshold</strong>: The time, in milliseconds, above which a
+ *       lookup that calls etcd is logged as slow, with its key, cache state and request duration
+ *       (but not its value). Defaults to 0 (disabled).
  *   <li><strong>etcd.cs.watch</strong>: If true, then the configuration source will dynamically
  *       reload previously read etcd keys should they change. If false (the default), then each
- *       key's value is only read once.
+ *       key's value is only read once. Keys attached to an etcd lease are never watched; they are
+ *       cached until their lease expires and then read again.
  *   <li><strong>etcd.endpoint.host</strong>: The etcd host's DNS name or IP address. This property
  *       does not support https endpoints.
  *   <li><strong>etcd.endpoint.members</strong>: A comma-separated list of etcd cluter members (e.g.
@@ -61,153 +162,1939 @@ import java.util.Objects;
 public class EtcdConfigSource implements ConfigSource, AutoCloseable {
   // Inner classes
 
-  /** A class for managing asynchronous watch updates from etcd. */
+  /**
+   * A class for managing asynchronous watch updates from etcd. Every update, including the progress
+   * notifications etcd sends while the watched key is quiet, confirms that the cache reflects the
+   * watched key or prefix as of the moment the update arrived.
+   */
   class WatchObserver implements StreamObserver<WatchUpdate> {
+    // Fields
+    private final ByteString etcdKey;
+
+    // Constructors
+    public WatchObserver(ByteString etcdKey) {
+      this.etcdKey = etcdKey;
+    }
+
+    // StreamObserver
+    @Override
+    public void onNext(WatchUpdate watchUpdate) {
+      recordWatchUpdate(watchUpdate);
+      confirmations.replace(this.etcdKey, System.currentTimeMillis());
+      if (watchUpdate.getEvents() != null) {
+        LOGGER.debug("Processing watch updates...");
+        applyEvents(watchUpdate.getEvents());
+        LOGGER.debug("Watch updates processed.");
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      LOGGER.error("WatchObserver received as error: ", throwable);
+    }
+
+    @Override
+    public void onCompleted() {
+      LOGGER.debug("onCompleted() invoked for WatchObserver.");
+    }
+  }
+
+  /** A class that routes watch updates for a key or prefix to a change listener. */
+  class SubscriptionObserver implements StreamObserver<WatchUpdate> {
+    // Fields
+    private final ChangeSubscription subscription;
+
+    // Constructors
+    public SubscriptionObserver(ChangeSubscription subscription) {
+      this.subscription = subscription;
+    }
+
+    // StreamObserver
+    @Override
+    public void onNext(WatchUpdate watchUpdate) {
+      // The cache's own watches apply these events; this watch only feeds the listener
+      if (watchUpdate.getEvents() != null) {
+        for (Event evt : watchUpdate.getEvents()) {
+          KeyValue kv = evt.getKv();
+          String key = relativeKey(kv.getKey());
+          String oldValue = evt.hasPrevKv() ? decode(evt.getPrevKv()) : null;
+          String newValue = evt.getType() != Event.EventType.DELETE ? decode(kv) : null;
+
+          LOGGER.debug("Queueing change notification for key '{}'.", key);
+          this.subscription.offer(key, oldValue, newValue);
+        }
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      LOGGER.error(
+          "SubscriptionObserver for '" + this.subscription.getPattern() + "' received an error: ",
+          throwable);
+    }
+
+    @Override
+    public void onCompleted() {
+      LOGGER.debug("onCompleted() invoked for SubscriptionObserver.");
+    }
+  }
+
+  /** A lookup tracer and the fraction of lookups it receives. */
+  private static final class TraceSampler {
+    // Fields
+    private final LookupTracer tracer;
+    private final double sampleRate;
+
     // Constructors
-    public WatchObserver() {}
+    private TraceSampler(LookupTracer tracer, double sampleRate) {
+      this.tracer = tracer;
+      this.sampleRate = sampleRate;
+    }
+
+    // Public methods
+    private boolean sample() {
+      return this.sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < this.sampleRate;
+    }
+  }
+
+  // Constants
+  private static final String SOURCE_NAME = "Etcd Config Source";
+  private static final ByteString TAG_BYTES = ByteString.copyFromUtf8(ValueCipher.TAG);
+  private static final long THROTTLE_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+  private static final int RECENT_PLAINTEXT_LIMIT = 256;
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(EtcdConfigSource.class);
+
+  private final ValueCache valueCache;
+  private final Map<ByteString, KvClient.Watch> activeWatches = new HashMap<>();
+  private final Map<ByteString, Long> confirmations = new ConcurrentHashMap<>();
+  private final Map<String, Integer> loading = new ConcurrentHashMap<>();
+  private final Map<String, Integer> scanning = new ConcurrentHashMap<>();
+  private final Set<String> trackedPrefixes = ConcurrentHashMap.newKeySet();
+  private final Set<String> loadedPrefixes = ConcurrentHashMap.newKeySet();
+  private final Map<ChangeSubscription, KvClient.Watch> subscriptions = new ConcurrentHashMap<>();
+  private final Set<Consumer<Set<String>>> attributeChangeConsumers = new CopyOnWriteArraySet<>();
+  private Consumer<Set<String>> onAttributeChange;
+  private volatile ExecutorService listenerExecutor;
+  private volatile LeaseTracker leaseTracker;
+
+  private final LongAdder cacheHits = new LongAdder();
+  private final LongAdder cacheMisses = new LongAdder();
+  private final LongAdder throttledReads = new LongAdder();
+  private final AtomicLong throttledSinceWarning = new AtomicLong();
+  private final AtomicLong nextThrottleWarning = new AtomicLong(System.nanoTime());
+  private volatile TraceSampler traceSampler;
+  private final AtomicLong lastAppliedRevision = new AtomicLong();
+  private volatile long lastWatchUpdateMillis;
+
+  private final int ordinal = 0;
+  private final EtcdConfig etcdConfig;
+  private final KvStoreClient kvStoreClient;
+  private final String keyPrefix;
+  private final boolean serializableReads;
+  private final boolean cachingMisses;
+  private final boolean prefetchingVariants;
+  private final ValueCipher valueCipher;
+  private final Map<ByteString, String> recentPlaintext = new LinkedHashMap<>(16, 0.75f, true);
+  private final Interpolator interpolator;
+  private final long slowLookupThresholdNanos;
+  private final AccessProfile accessProfile;
+  private final Thread accessProfileSaver;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+  private final List<KvStoreClient> memberClients;
+  private final HedgedReader hedgedReader;
+  private final ReadRateLimiter readLimiter;
+  private final RangeScanner rangeScanner;
+  private final RevisionPoller revisionPoller;
+  private final String probeKey;
+  private final PropagationProbe propagationProbe;
+  private final boolean watchingRoot;
+  private final ByteString rootKey;
+  private volatile EtcdConfigSourceManagement management;
+
+  // Constructors
+
+  /**
+   * Default constructor for use by frameworks and Java Service Loader. This constructor relies on
+   * two properties to initialize the etd connection:
+   *
+   * <ul>
+   *   <li><strong>etcd.endpoint.host</strong> - the DNS name of a machine hosting an etcd cluster
+   *       member
+   *   <li><strong>etc.endpoint.port</strong> - the etcd cluster member's TCP port
+   * </ul>
+   */
+  public EtcdConfigSource() {
+    this(new CompositeEtcdConfig());
+  }
+
+  private EtcdConfigSource(EtcdConfig etcdConfig) {
+    this(etcdConfig, Utils.buildKvStoreClient(etcdConfig), null, false);
+  }
+
+  /**
+   * Constructor for unit testing or non-framework usage.
+   *
+   * @param etcdConfig An initialized configuration loader.
+   * @param kvClient An intialized <code>KvStoreClient</code> instance.
+   */
+  public EtcdConfigSource(EtcdConfig etcdConfig, KvStoreClient kvClient) {
+    this(etcdConfig, kvClient, null, true);
+  }
+
+  /**
+   * Constructor for non-framework usage that supplies the executor used to process watch events
+   * and complete etcd requests. The executor is not shut down when the source is closed.
+   *
+   * @param etcdConfig An initialized configuration loader.
+   * @param kvClient An intialized <code>KvStoreClient</code> instance.
+   * @param executor The executor, or {@code null} to use the one described by {@code etcdConfig}.
+   */
+  public EtcdConfigSource(EtcdConfig etcdConfig, KvStoreClient kvClient, Executor executor) {
+    this(etcdConfig, kvClient, executor, true);
+  }
+
+  private EtcdConfigSource(
+      EtcdConfig etcdConfig, KvStoreClient kvClient, Executor executor, boolean requireClient) {
+    this(etcdConfig, kvClient, executor, requireClient, false);
+  }
+
+  /**
+   * Constructor for sources shared by several views, such as those created by {@link
+   * TenantConfigSources}. When {@code watchingRoot} is set and watching is enabled, the source
+   * replaces its per-key watches with a single prefix watch over its key prefix.
+   */
+  EtcdConfigSource(
+      EtcdConfig etcdConfig,
+      KvStoreClient kvClient,
+      Executor executor,
+      boolean requireClient,
+      boolean watchingRoot) {
+    if (etcdConfig == null) {
+      throw new IllegalArgumentException("configurationLoader must not be null.");
+    }
+
+    if (kvClient == null && requireClient) {
+      throw new IllegalArgumentException("kvClient must not be null.");
+    }
+
+    LOGGER.info("Initializing EtcdConfigSource");
+    this.etcdConfig = etcdConfig;
+    this.kvStoreClient = kvClient;
+    this.keyPrefix =
+        MoreObjects.firstNonNull(etcdConfig.getKeyPrefix(), Constants.DEFAULT_KEY_PREFIX);
+    this.watchingRoot =
+        watchingRoot && kvClient != null && Boolean.TRUE.equals(etcdConfig.isWatching());
+    this.rootKey =
+        this.keyPrefix.isEmpty() ? KvClient.ALL_KEYS : ByteString.copyFromUtf8(this.keyPrefix);
+    this.serializableReads = Boolean.TRUE.equals(etcdConfig.isSerializableReads());
+    this.cachingMisses = Boolean.TRUE.equals(etcdConfig.isCachingMisses());
+    this.prefetchingVariants = Boolean.TRUE.equals(etcdConfig.isPrefetchingVariants());
+    this.valueCipher = this.createValueCipher();
+    this.interpolator =
+        Boolean.TRUE.equals(etcdConfig.isInterpolating()) ? new Interpolator() : null;
+    this.slowLookupThresholdNanos =
+        TimeUnit.MILLISECONDS.toNanos(
+            MoreObjects.firstNonNull(
+                etcdConfig.getSlowLookupThreshold(), Constants.DEFAULT_SLOW_LOOKUP_THRESHOLD));
+    this.valueCache =
+        new ValueCache(
+            MoreObjects.firstNonNull(
+                etcdConfig.getCacheMaxSize(), Constants.DEFAULT_CACHE_MAX_SIZE),
+            MoreObjects.firstNonNull(
+                etcdConfig.getCacheIdleTimeout(), Constants.DEFAULT_CACHE_IDLE_TIMEOUT),
+            this::onCacheEviction);
+    this.ownedExecutor =
+        executor == null && kvClient != null ? Utils.buildExecutor(etcdConfig.getExecutor()) : null;
+    this.executor = executor != null ? executor : this.ownedExecutor;
+    this.memberClients =
+        Boolean.TRUE.equals(etcdConfig.isHedgingReads()) && kvClient != null
+            ? Utils.buildMemberClients(etcdConfig)
+            : new ArrayList<>();
+    this.hedgedReader = this.createHedgedReader();
+    this.readLimiter = this.createReadLimiter();
+    this.rangeScanner = kvClient != null ? this.createRangeScanner() : null;
+    this.accessProfile = this.createAccessProfile();
+    this.accessProfileSaver = this.registerAccessProfileSaver();
+    this.revisionPoller = this.createRevisionPoller();
+    this.probeKey =
+        MoreObjects.firstNonNull(
+            etcdConfig.getPropagationProbeKey(), Constants.DEFAULT_PROPAGATION_PROBE_KEY);
+    this.propagationProbe = this.createPropagationProbe();
+
+    // Nothing may see this source until every field above is assigned
+    this.start();
+    LOGGER.info("EtcdConfigSource successfully initialized");
+  }
+
+  // Properties
+
+  /**
+   * Gets the etcd server's host name.
+   *
+   * @return The host name.
+   */
+  public String getHost() {
+    return this.etcdConfig.getHost();
+  }
+
+  /**
+   * Gets the etcd server's TCP port.
+   *
+   * @return The TCP port.
+   */
+  public int getPort() {
+    return this.etcdConfig.getPort();
+  }
+
+  /**
+   * Gets the number of keys currently cached, including those cached as absent.
+   *
+   * @return The cache's size.
+   */
+  public int getCacheSize() {
+    return this.valueCache.size();
+  }
+
+  /**
+   * Estimates the heap retained by cached values. Keys are stored relative to the key prefix and
+   * values as UTF-8 bytes, with identical short values shared, so the estimate is typically well
+   * below the size of the equivalent {@code Map<String, String>}.
+   *
+   * @return The approximate footprint in bytes.
+   */
+  public long getCacheFootprint() {
+    return this.valueCache.footprint();
+  }
+
+  /**
+   * Gets the number of keys cached as absent from etcd.
+   *
+   * @return The number of negative cache entries.
+   */
+  int getNegativeEntryCount() {
+    return this.valueCache.absentCount();
+  }
+
+  /**
+   * Gets the number of lookups answered from the cache, including those answered by a negative
+   * entry.
+   *
+   * @return The cache hit count.
+   */
+  long getHitCount() {
+    return this.cacheHits.sum();
+  }
+
+  /**
+   * Gets the number of lookups that had to call etcd.
+   *
+   * @return The cache miss count.
+   */
+  long getMissCount() {
+    return this.cacheMisses.sum();
+  }
+
+  /**
+   * Gets the etcd revision of the most recent watch update received.
+   *
+   * @return The revision, or zero if no update has been received.
+   */
+  long getLastAppliedRevision() {
+    return this.lastAppliedRevision.get();
+  }
+
+  /**
+   * Gets the time elapsed since the most recent watch update or poll was received.
+   *
+   * @return The elapsed time in milliseconds, or -1 if no update has been received.
+   */
+  long getMillisSinceLastUpdate() {
+    long last = this.lastWatchUpdateMillis;
+    return last == 0 ? -1 : System.currentTimeMillis() - last;
+  }
+
+  /**
+   * Gets the time since the least recently confirmed watch last heard from etcd. Watches request
+   * progress notifications, so a figure well beyond the server's progress notification interval
+   * points to a stalled watch rather than a quiet key.
+   *
+   * @return The age in milliseconds, or -1 if there are no watches.
+   */
+  long getOldestConfirmationAgeMillis() {
+    long oldest = Long.MAX_VALUE;
+
+    synchronized (this.activeWatches) {
+      for (ByteString etcdKey : this.activeWatches.keySet()) {
+        Long confirmed = this.confirmations.get(etcdKey);
+        if (confirmed != null) {
+          oldest = Math.min(oldest, confirmed);
+        }
+      }
+    }
+
+    return oldest == Long.MAX_VALUE ? -1 : System.currentTimeMillis() - oldest;
+  }
+
+  /**
+   * Estimates a percentile of the time taken for a canary write to become visible through this
+   * source, over recent probes.
+   *
+   * @param percentile The percentile, from 0 to 100.
+   * @return The latency in milliseconds, or -1 if the probe is disabled or no canary has been
+   *     delivered.
+   */
+  double getPropagationLatencyMillis(double percentile) {
+    PropagationProbe probe = this.propagationProbe;
+    if (probe == null || probe.getDeliveredCount() == 0) {
+      return -1;
+    }
+
+    return probe.percentile(percentile) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Gets the number of canary writes whose propagation was timed.
+   *
+   * @return The number of delivered canaries, or zero if the probe is disabled.
+   */
+  long getPropagationProbeCount() {
+    return this.propagationProbe != null ? this.propagationProbe.getDeliveredCount() : 0;
+  }
+
+  /**
+   * Gets the number of canary writes that were not delivered within {@link
+   * PropagationProbe#DELIVERY_TIMEOUT_NANOS}.
+   *
+   * @return The number of lost canaries, or zero if the probe is disabled.
+   */
+  long getLostProbeCount() {
+    return this.propagationProbe != null ? this.propagationProbe.getLostCount() : 0;
+  }
+
+  /**
+   * Gets the number of lookups of uncached keys that were refused by the read rate limit.
+   *
+   * @return The throttled read count.
+   */
+  long getThrottledReadCount() {
+    return this.throttledReads.sum();
+  }
+
+  /**
+   * Gets the number of reads of uncached keys that were hedged to a second cluster member.
+   *
+   * @return The hedged read count.
+   */
+  long getHedgedReadCount() {
+    return this.hedgedReader != null ? this.hedgedReader.getHedgeCount() : 0;
+  }
+
+  /**
+   * Gets the number of polls for changes completed.
+   *
+   * @return The poll count, or zero if polling is disabled.
+   */
+  long getPollCount() {
+    return this.revisionPoller != null ? this.revisionPoller.getPollCount() : 0;
+  }
+
+  /**
+   * Gets the number of changed keys transferred by polls.
+   *
+   * @return The polled key count, or zero if polling is disabled.
+   */
+  long getPolledKeyCount() {
+    return this.revisionPoller != null ? this.revisionPoller.getFetchedCount() : 0;
+  }
+
+  /**
+   * Gets the number of open watches, counting both cached keys and change listeners.
+   *
+   * @return The active watch count.
+   */
+  int getActiveWatchCount() {
+    synchronized (this.activeWatches) {
+      return this.activeWatches.size() + this.subscriptions.size();
+    }
+  }
+
+  // Public methods
+
+  /**
+   * Gets a property's value, ensuring it is no staler than {@code maxStalenessMillis}. The cached
+   * value is used if its watch, or an earlier read, confirmed it within that bound; otherwise the
+   * key is read from etcd with a linearizable request and the cache is updated before the value is
+   * returned. Values referenced through interpolation are not revalidated.
+   *
+   * <p>etcd sends watch progress notifications at a server-defined interval (ten minutes by
+   * default), so bounds shorter than that interval are usually met by reading the key.
+   *
+   * @param key The property's key.
+   * @param maxStalenessMillis The greatest acceptable age, in milliseconds, of the value.
+   * @return The value, or {@code null} if the key does not exist.
+   */
+  public String getPropertyValue(String key, long maxStalenessMillis) {
+    if (maxStalenessMillis < 0) {
+      throw new IllegalArgumentException("maxStalenessMillis must not be negative.");
+    }
+
+    if (this.kvStoreClient != null && !this.isConfirmedWithin(key, maxStalenessMillis)) {
+      try {
+        this.revalidate(key);
+      } catch (Exception e) {
+        LOGGER.error("Unable to revalidate key '" + this.keyPrefix + key + "'.", e);
+        return null;
+      }
+    }
+
+    return this.getPropertyValue(key);
+  }
+
+  /**
+   * Gets every property whose key begins with {@code prefix}, in key order. The first query for a
+   * prefix reads it from etcd with one range scan and caches every key under it. From then on the
+   * prefix is answered locally, with a single scan of the cache's sorted key index, and is kept
+   * complete as keys are created and deleted under it: by a prefix watch when watching, or by the
+   * root watch or poller when one is running. A prefix nested inside one already loaded is never
+   * read from etcd. References in the values are expanded, as they are for {@link
+   * #getPropertyValue(String)}.
+   *
+   * <p>If a key under a loaded prefix is evicted from the cache, the prefix is no longer complete;
+   * its keys are dropped from the cache and the prefix is read again when next queried.
+   *
+   * @param prefix The prefix, without the configuration source's own key prefix.
+   * @return A read-only map of the matching properties, keyed without the key prefix; empty if the
+   *     prefix could not be read.
+   */
+  public SortedMap<String, String> getPropertiesWithPrefix(String prefix) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("prefix must not be null.");
+    }
+
+    if (this.kvStoreClient == null) {
+      LOGGER.info("Ignoring request; configuration source is disabled.");
+      return Collections.emptySortedMap();
+    }
+
+    try {
+      if (!hasPrefixIn(this.loadedPrefixes, prefix)) {
+        this.loadPrefix(prefix);
+      }
+
+      SortedMap<String, String> values = this.valueCache.getWithPrefix(prefix);
+      if (this.interpolator != null) {
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+          entry.setValue(this.interpolate(entry.getKey(), entry.getValue(), new ArrayDeque<>()));
+        }
+      }
+
+      return Collections.unmodifiableSortedMap(values);
+    } catch (Exception e) {
+      LOGGER.error("Unable to retrieve keys under prefix '" + this.keyPrefix + prefix + "'.", e);
+      return Collections.emptySortedMap();
+    }
+  }
+
+  /**
+   * Registers a listener that is notified when {@code key} changes in etcd. Notifications are
+   * delivered on a single daemon thread owned by this source.
+   *
+   * @param key The key to observe, without the key prefix.
+   * @param listener The listener to notify.
+   * @return A registration that removes the listener when closed.
+   */
+  public ListenerRegistration addChangeListener(String key, ConfigChangeListener listener) {
+    return this.subscribe(key, false, listener, this.getListenerExecutor());
+  }
+
+  /**
+   * Registers a listener that is notified on {@code executor} when {@code key} changes in etcd.
+   *
+   * @param key The key to observe, without the key prefix.
+   * @param listener The listener to notify.
+   * @param executor The executor used to deliver notifications.
+   * @return A registration that removes the listener when closed.
+   */
+  public ListenerRegistration addChangeListener(
+      String key, ConfigChangeListener listener, Executor executor) {
+    return this.subscribe(key, false, listener, executor);
+  }
+
+  /**
+   * Registers a listener that is notified when any key beginning with {@code prefix} changes in
+   * etcd. Notifications are delivered on a single daemon thread owned by this source.
+   *
+   * @param prefix The key prefix to observe, without the configuration source's own key prefix.
+   * @param listener The listener to notify.
+   * @return A registration that removes the listener when closed.
+   */
+  public ListenerRegistration addPrefixChangeListener(
+      String prefix, ConfigChangeListener listener) {
+    return this.subscribe(prefix, true, listener, this.getListenerExecutor());
+  }
+
+  /**
+   * Registers a listener that is notified on {@code executor} when any key beginning with {@code
+   * prefix} changes in etcd.
+   *
+   * @param prefix The key prefix to observe, without the configuration source's own key prefix.
+   * @param listener The listener to notify.
+   * @param executor The executor used to deliver notifications.
+   * @return A registration that removes the listener when closed.
+   */
+  public ListenerRegistration addPrefixChangeListener(
+      String prefix, ConfigChangeListener listener, Executor executor) {
+    return this.subscribe(prefix, true, listener, executor);
+  }
+
+  /**
+   * Installs a tracer that receives a sample of this source's lookups. When no tracer is installed
+   * a lookup pays for a single volatile read; otherwise only sampled lookups are timed.
+   *
+   * @param tracer The tracer, or {@code null} to stop tracing.
+   * @param sampleRate The fraction of lookups to trace, from 0.0 (none) to 1.0 (all).
+   */
+  public void setLookupTracer(LookupTracer tracer, double sampleRate) {
+    if (sampleRate < 0.0 || sampleRate > 1.0) {
+      throw new IllegalArgumentException("sampleRate must be between 0.0 and 1.0.");
+    }
+
+    this.traceSampler =
+        tracer != null && sampleRate > 0.0 ? new TraceSampler(tracer, sampleRate) : null;
+    LOGGER.info(
+        "Lookup tracing {}.",
+        this.traceSampler != null ? "enabled at rate " + sampleRate : "disabled");
+  }
+
+  /**
+   * Discards the cached state of {@code key} and reads it again from etcd, reporting the key if its
+   * value changed.
+   *
+   * @param key The key to refresh, without the key prefix.
+   * @return {@code true} if the key exists in etcd.
+   */
+  boolean refreshKey(String key) {
+    String before = this.valueCache.peek(key);
+    this.valueCache.remove(key);
+    this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + key));
+
+    boolean found = this.loadValue(key, null) != null;
+    if (!sameValue(before, this.valueCache.peek(key))) {
+      this.reportChangedKeys(Collections.singleton(key));
+    }
+
+    return found;
+  }
+
+  /**
+   * Re-reads every cached key beginning with {@code prefix}, scanning the prefix page by page at a
+   * single revision. Keys that no longer exist are dropped from the cache; keys that are not cached
+   * are left alone. Keys whose values changed are reported.
+   *
+   * @param prefix The prefix to refresh, without the configuration source's own key prefix.
+   * @return The number of cached keys that were refreshed or dropped.
+   */
+  int refreshPrefix(String prefix) {
+    KvClient client = this.kvStoreClient.getKvClient();
+    Map<String, String> cached = new HashMap<>();
+    for (String key : this.valueCache.keys()) {
+      if (key.startsWith(prefix)) {
+        cached.put(key, this.valueCache.peek(key));
+      }
+    }
+
+    Set<String> found = ConcurrentHashMap.newKeySet();
+    this.scanning.merge(prefix, 1, Integer::sum);
+    try {
+      this.rangeScanner.scan(
+          ByteString.copyFromUtf8(this.keyPrefix + prefix),
+          (kv, revision) -> {
+            String key = this.relativeKey(kv.getKey());
+            if (cached.containsKey(key)) {
+              found.add(key);
+              this.cacheKeyValue(client, kv, revision);
+            }
+          });
+    } finally {
+      this.endScan(prefix);
+    }
+
+    List<String> changed = new ArrayList<>();
+    for (Map.Entry<String, String> entry : cached.entrySet()) {
+      String key = entry.getKey();
+      if (!found.contains(key)) {
+        this.valueCache.remove(key);
+        this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + key));
+      }
+      if (!sameValue(entry.getValue(), this.valueCache.peek(key))) {
+        changed.add(key);
+      }
+    }
+    this.reportChangedKeys(changed);
+
+    LOGGER.info("Refreshed {} cached key(s) under prefix '{}'.", cached.size(), prefix);
+    return cached.size();
+  }
+
+  /**
+   * Reads every key beginning with {@code prefix} into the cache, scanning the prefix page by page
+   * at a single revision so that memory use stays bounded however many keys it holds. Keys whose
+   * cached values changed are reported.
+   *
+   * @param prefix The prefix to load, without the configuration source's own key prefix.
+   * @return The number of keys cached.
+   */
+  int preloadPrefix(String prefix) {
+    KvClient client = this.kvStoreClient.getKvClient();
+    LongAdder loaded = new LongAdder();
+    Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    this.scanning.merge(prefix, 1, Integer::sum);
+    try {
+      this.rangeScanner.scan(
+          ByteString.copyFromUtf8(this.keyPrefix + prefix),
+          (kv, revision) -> {
+            String key = this.relativeKey(kv.getKey());
+            String before = this.valueCache.peek(key);
+            if (this.cacheKeyValue(client, kv, revision) != null) {
+              loaded.increment();
+            }
+            if (!sameValue(before, this.valueCache.peek(key))) {
+              changed.add(key);
+            }
+          });
+    } finally {
+      this.endScan(prefix);
+    }
+    this.reportChangedKeys(changed);
+
+    LOGGER.info(
+        "Preloaded {} key(s) under prefix '{}'; cache footprint is approximately {} byte(s).",
+        loaded.sum(),
+        prefix,
+        this.valueCache.footprint());
+    return loaded.intValue();
+  }
+
+  /**
+   * Drops every negative cache entry, so the affected keys are looked up in etcd again.
+   *
+   * @return The number of entries dropped.
+   */
+  int resetNegativeEntries() {
+    int removed = this.valueCache.removeAbsent();
+    LOGGER.info("Removed {} negative cache entr(ies).", removed);
+
+    return removed;
+  }
+
+  /**
+   * Registers a consumer that is told which keys changed each time a watch or poll changes the
+   * cache. Used by tenant views to pass changes on to DeltaSpike.
+   *
+   * @param consumer The consumer to add.
+   */
+  void addAttributeChangeConsumer(Consumer<Set<String>> consumer) {
+    if (consumer == null) {
+      throw new IllegalArgumentException("consumer must not be null.");
+    }
+
+    this.attributeChangeConsumers.add(consumer);
+  }
+
+  /**
+   * Removes a consumer registered with {@link #addAttributeChangeConsumer(Consumer)}.
+   *
+   * @param consumer The consumer to remove.
+   */
+  void removeAttributeChangeConsumer(Consumer<Set<String>> consumer) {
+    this.attributeChangeConsumers.remove(consumer);
+  }
+
+  /**
+   * Gets the cached properties whose keys begin with {@code prefix}, as {@link #getProperties()}
+   * does. The keys are found with one scan of the cache's sorted key index, so tenant views pay
+   * for their own keys rather than the whole cache.
+   *
+   * @param prefix The prefix, without the key prefix; empty for every property.
+   * @return A read-only snapshot of the matching properties, keyed without the key prefix.
+   */
+  Map<String, String> getProperties(String prefix) {
+    if (this.kvStoreClient == null) {
+      LOGGER.info("Ignoring request; configuration source is disabled.");
+      return Collections.emptyMap();
+    }
+
+    return prefix.isEmpty() ? this.valueCache.snapshot() : this.valueCache.snapshot(prefix);
+  }
+
+  // Private methods
+  /**
+   * Starts everything that hands this source to other threads or to JMX: the root watch, the
+   * access profile warm-up, the propagation probe, the poller and the MXBean. It is the last step
+   * of construction, so each of them sees a fully initialized source.
+   */
+  private void start() {
+    this.startRootWatch();
+    this.warmUp();
+    if (this.propagationProbe != null) {
+      this.propagationProbe.start();
+    }
+    if (this.revisionPoller != null) {
+      this.revisionPoller.start(this.etcdConfig.getPollInterval());
+    }
+    if (Boolean.TRUE.equals(this.etcdConfig.isJmxEnabled()) && this.kvStoreClient != null) {
+      this.management = EtcdConfigSourceManagement.register(this, this.keyPrefix);
+    }
+  }
+
+  private ListenerRegistration subscribe(
+      String pattern, boolean prefix, ConfigChangeListener listener, Executor executor) {
+    ChangeSubscription subscription =
+        new ChangeSubscription(pattern, prefix, listener, executor, this::unsubscribe);
+
+    if (this.kvStoreClient != null) {
+      KvClient.FluentWatchRequest request =
+          this.kvStoreClient
+              .getKvClient()
+              .watch(ByteString.copyFromUtf8(this.keyPrefix + pattern))
+              .prevKv();
+      if (prefix) {
+        request = request.asPrefix();
+      }
+      request = this.withExecutor(request);
+
+      this.subscriptions.put(subscription, request.start(new SubscriptionObserver(subscription)));
+      LOGGER.debug("Added change listener for {} '{}'.", prefix ? "prefix" : "key", pattern);
+    } else {
+      LOGGER.info("Ignoring listener; configuration source is disabled.");
+    }
+
+    return subscription;
+  }
+
+  private void unsubscribe(ChangeSubscription subscription) {
+    KvClient.Watch watch = this.subscriptions.remove(subscription);
+    if (watch != null) {
+      watch.close();
+      LOGGER.debug("Removed change listener for '{}'.", subscription.getPattern());
+    }
+  }
+
+  private Executor getListenerExecutor() {
+    if (this.listenerExecutor == null) {
+      synchronized (this.subscriptions) {
+        if (this.listenerExecutor == null) {
+          this.listenerExecutor =
+              Executors.newSingleThreadExecutor(
+                  runnable -> {
+                    Thread thread = new Thread(runnable, "etcd-config-listener");
+                    thread.setDaemon(true);
+                    return thread;
+                  });
+        }
+      }
+    }
+
+    return this.listenerExecutor;
+  }
+
+  private AccessProfile createAccessProfile() {
+    AccessProfile profile = null;
+
+    String path = this.etcdConfig.getAccessProfile();
+    if (path != null && this.kvStoreClient != null) {
+      try {
+        profile = new AccessProfile(Paths.get(path));
+        LOGGER.info("Recording served keys to access profile {}.", profile.getFile());
+      } catch (Exception e) {
+        LOGGER.warn("Invalid access profile path '{}'; access profile is disabled.", path);
+      }
+    }
+
+    return profile;
+  }
+
+  private ValueCipher createValueCipher() {
+    ValueCipher cipher = null;
+
+    String path = this.etcdConfig.getEncryptionKeyFile();
+    if (path != null) {
+      try {
+        cipher = ValueCipher.fromKeyFile(Paths.get(path));
+        LOGGER.info("Decrypting tagged values with the key in {}.", path);
+      } catch (Exception e) {
+        LOGGER.error("Unable to load encryption key from {}: {}", path, e.getMessage());
+      }
+    }
+
+    return cipher;
+  }
+
+  private HedgedReader createHedgedReader() {
+    HedgedReader reader = null;
+
+    if (Boolean.TRUE.equals(this.etcdConfig.isHedgingReads())) {
+      if (this.memberClients.size() >= 2) {
+        List<KvClient> clients = new ArrayList<>();
+        for (KvStoreClient member : this.memberClients) {
+          clients.add(member.getKvClient());
+        }
+
+        int percentile =
+            MoreObjects.firstNonNull(
+                this.etcdConfig.getHedgePercentile(), Constants.DEFAULT_HEDGE_PERCENTILE);
+        if (percentile < 1 || percentile > 99) {
+          LOGGER.warn(
+              "Invalid hedge percentile {}; using {}.",
+              percentile,
+              Constants.DEFAULT_HEDGE_PERCENTILE);
+          percentile = Constants.DEFAULT_HEDGE_PERCENTILE;
+        }
+
+        int budget =
+            MoreObjects.firstNonNull(
+                this.etcdConfig.getHedgeBudget(), Constants.DEFAULT_HEDGE_BUDGET);
+        if (budget < 0 || budget > 100) {
+          LOGGER.warn("Invalid hedge budget {}; using {}.", budget, Constants.DEFAULT_HEDGE_BUDGET);
+          budget = Constants.DEFAULT_HEDGE_BUDGET;
+        }
+
+        reader = new HedgedReader(clients, percentile, budget, this.executor);
+        LOGGER.info("Hedging reads across {} cluster members.", clients.size());
+      } else {
+        LOGGER.warn("Hedged reads require at least two cluster members; hedging is disabled.");
+      }
+    }
+
+    return reader;
+  }
+
+  private ReadRateLimiter createReadLimiter() {
+    ReadRateLimiter limiter = null;
+
+    int rate =
+        MoreObjects.firstNonNull(
+            this.etcdConfig.getReadRateLimit(), Constants.DEFAULT_READ_RATE_LIMIT);
+    if (rate > 0) {
+      int burst = MoreObjects.firstNonNull(this.etcdConfig.getReadBurst(), rate);
+      if (burst < 1) {
+        LOGGER.warn("Invalid read burst {}; allowing one second's worth of reads.", burst);
+        burst = rate;
+      }
+
+      limiter = new ReadRateLimiter(rate, burst);
+      LOGGER.info("Limiting reads of uncached keys to {} per second (burst {}).", rate, burst);
+    }
+
+    return limiter;
+  }
+
+  /**
+   * Creates the poller used in place of watches when polling is enabled, and takes its baseline
+   * before any key is read, so every change made after a key's value was read is found.
+   */
+  private RevisionPoller createRevisionPoller() {
+    RevisionPoller poller = null;
+
+    long interval =
+        MoreObjects.firstNonNull(
+            this.etcdConfig.getPollInterval(), Constants.DEFAULT_POLL_INTERVAL);
+    if (interval > 0 && this.kvStoreClient != null) {
+      if (Boolean.TRUE.equals(this.etcdConfig.isWatching())) {
+        LOGGER.warn("etcd.cs.pollInterval is ignored while etcd.cs.watch is enabled.");
+      } else {
+        poller =
+            new RevisionPoller(
+                this.kvStoreClient.getKvClient(),
+                ByteString.copyFromUtf8(this.keyPrefix),
+                this::pollTrackedKeys,
+                this::applyPolledEvents);
+        long revision = poller.baseline();
+        LOGGER.info("Polling for changes after revision {}.", revision);
+      }
+    }
+
+    return poller;
+  }
+
+  private PropagationProbe createPropagationProbe() {
+    PropagationProbe probe = null;
+
+    long interval =
+        MoreObjects.firstNonNull(
+            this.etcdConfig.getPropagationProbeInterval(),
+            Constants.DEFAULT_PROPAGATION_PROBE_INTERVAL);
+    if (interval > 0 && this.kvStoreClient != null) {
+      if (Boolean.TRUE.equals(this.etcdConfig.isWatching()) || this.revisionPoller != null) {
+        probe =
+            new PropagationProbe(
+                this.kvStoreClient.getKvClient(),
+                ByteString.copyFromUtf8(this.keyPrefix + this.probeKey),
+                this::touchCanary,
+                interval);
+      } else {
+        LOGGER.warn(
+            "The propagation probe requires etcd.cs.watch or etcd.cs.pollInterval; probing is "
+                + "disabled.");
+      }
+    }
+
+    return probe;
+  }
+
+  private RangeScanner createRangeScanner() {
+    // The main client comes first: it fixes the scan revision and retries pages members fail
+    List<KvClient> clients = new ArrayList<>();
+    clients.add(this.kvStoreClient.getKvClient());
+    for (KvStoreClient member : this.memberClients) {
+      clients.add(member.getKvClient());
+    }
+
+    int pageSize =
+        MoreObjects.firstNonNull(
+            this.etcdConfig.getScanPageSize(), Constants.DEFAULT_SCAN_PAGE_SIZE);
+    if (pageSize < 1) {
+      pageSize = Constants.DEFAULT_SCAN_PAGE_SIZE;
+    }
+
+    return new RangeScanner(
+        clients, this.executor, pageSize, Constants.SCAN_PARTITIONS, this.serializableReads);
+  }
+
+  private Thread registerAccessProfileSaver() {
+    Thread saver = null;
+
+    if (this.accessProfile != null) {
+      saver = new Thread(this.accessProfile::save, "etcd-access-profile-saver");
+      Runtime.getRuntime().addShutdownHook(saver);
+    }
+
+    return saver;
+  }
+
+  /**
+   * Prefetches the keys recorded in the access profile by a previous run. Keys are requested as
+   * range operations inside a single transaction; profiles larger than etcd's per-transaction
+   * operation limit are split into as few transactions as that limit allows.
+   */
+  private void warmUp() {
+    if (this.accessProfile == null) {
+      return;
+    }
+
+    List<String> keys = new ArrayList<>(this.accessProfile.load());
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    LOGGER.info("Prefetching {} key(s) from access profile.", keys.size());
+    KvClient client = this.kvStoreClient.getKvClient();
+    int found = 0;
+
+    try {
+      for (int start = 0; start < keys.size(); start += Constants.MAX_TXN_OPS) {
+        TxnRequest.Builder txn = TxnRequest.newBuilder();
+        for (String key : keys.subList(start, Math.min(keys.size(), start + Constants.MAX_TXN_OPS))) {
+          RangeRequest range =
+              RangeRequest.newBuilder()
+                  .setKey(ByteString.copyFromUtf8(this.keyPrefix + key))
+                  .setSerializable(this.serializableReads)
+                  .build();
+          txn.addSuccess(RequestOp.newBuilder().setRequestRange(range).build());
+        }
+
+        TxnResponse response = client.txn(txn.build()).get();
+        long revision = response.getHeader().getRevision();
+        for (ResponseOp op : response.getResponsesList()) {
+          RangeResponse range = op.getResponseRange();
+          if (range.getCount() > 0
+              && this.cacheKeyValue(client, range.getKvs(0), revision) != null) {
+            found++;
+          }
+        }
+      }
+
+      LOGGER.info(
+          "Prefetched {} of {} profiled key(s); cache footprint is approximately {} byte(s).",
+          found,
+          keys.size(),
+          this.valueCache.footprint());
+    } catch (Exception e) {
+      LOGGER.warn("Unable to prefetch keys from access profile: {}", e.getMessage());
+    }
+  }
+
+  private String relativeKey(ByteString etcdKey) {
+    String key = etcdKey.toStringUtf8();
+    return key.startsWith(this.keyPrefix) ? key.substring(this.keyPrefix.length()) : key;
+  }
+
+  /**
+   * Tests whether {@code key}'s cached state was confirmed, by its watch or by a read, within the
+   * last {@code maxStalenessMillis}.
+   */
+  private boolean isConfirmedWithin(String key, long maxStalenessMillis) {
+    long confirmed =
+        this.confirmations.getOrDefault(ByteString.copyFromUtf8(this.keyPrefix + key), 0L);
+    if (this.prefetchingVariants) {
+      ByteString variants = ByteString.copyFromUtf8(this.keyPrefix + baseKey(key) + ".");
+      confirmed = Math.max(confirmed, this.confirmations.getOrDefault(variants, 0L));
+    }
+    if (this.watchingRoot || this.revisionPoller != null) {
+      confirmed = Math.max(confirmed, this.confirmations.getOrDefault(this.rootKey, 0L));
+    }
+
+    return confirmed != 0
+        && this.valueCache.get(key) != null
+        && System.currentTimeMillis() - confirmed <= maxStalenessMillis;
+  }
+
+  /**
+   * Reads {@code key} from etcd with a linearizable request and brings the cache up to date with
+   * it. An existing watch is left in place, so the key's watch is not churned.
+   */
+  private void revalidate(String key) {
+    String inFlight = this.beginLoad(key);
+    try {
+      this.revalidateKey(key);
+    } finally {
+      this.endLoad(inFlight);
+    }
+  }
+
+  private void revalidateKey(String key) {
+    KvClient client = this.kvStoreClient.getKvClient();
+    ByteString etcdKey = ByteString.copyFromUtf8(this.keyPrefix + key);
+    long readAt = System.currentTimeMillis();
+
+    RangeResponse response = client.get(etcdKey).sync();
+    long revision = response.getHeader().getRevision();
+    boolean cached = this.valueCache.get(key) != null;
+    String before = this.valueCache.peek(key);
+
+    if (response.getCount() > 0) {
+      KeyValue kv = response.getKvs(0);
+      if (!cached) {
+        this.cacheKeyValue(client, kv, revision);
+      } else {
+        this.storeKeyValue(kv);
+      }
+    } else if (this.cachingMisses) {
+      if (!cached) {
+        this.cacheAbsentKey(client, key, etcdKey, revision);
+      } else {
+        this.valueCache.putAbsent(key, revision);
+      }
+    } else if (cached) {
+      this.valueCache.remove(key);
+    }
+
+    if (!sameValue(before, this.valueCache.peek(key))) {
+      this.reportChangedKeys(Collections.singleton(key));
+    }
+
+    if (this.valueCache.get(key) != null) {
+      this.confirmations.merge(etcdKey, readAt, Math::max);
+    }
+    LOGGER.debug("Revalidated key '{}' at revision {}.", key, revision);
+  }
+
+  private void onCacheEviction(String key) {
+    LOGGER.debug("Evicted key '{}' from cache; releasing its watch.", key);
+    this.invalidateExpansions(Collections.singleton(key));
+    this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + key));
+    if (this.prefetchingVariants) {
+      this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + key + "."));
+    }
+
+    for (String prefix : this.loadedPrefixes) {
+      if (key.startsWith(prefix)) {
+        this.unloadPrefix(prefix);
+      }
+    }
+  }
+
+  /**
+   * Reads every key beginning with {@code prefix} into the cache and keeps the prefix complete from
+   * then on. Changes under the prefix are applied from the moment the scan begins, so a key
+   * created or deleted while the scan is in progress is not missed; the scan's own values are
+   * versioned and never overwrite those changes. Keys under the prefix are not watched one by one,
+   * since the prefix watch covers them.
+   */
+  private void loadPrefix(String prefix) {
+    KvClient client = this.kvStoreClient.getKvClient();
+    ByteString etcdPrefix = ByteString.copyFromUtf8(this.keyPrefix + prefix);
+    LongAdder loaded = new LongAdder();
+
+    this.trackedPrefixes.add(prefix);
+    this.scanning.merge(prefix, 1, Integer::sum);
+    long revision;
+    try {
+      revision =
+          this.rangeScanner.scan(
+              etcdPrefix,
+              (kv, readRevision) -> {
+                this.invalidateExpansions(Collections.singleton(this.relativeKey(kv.getKey())));
+                if (this.storeKeyValue(kv) != null) {
+                  loaded.increment();
+                }
+              });
+      this.addWatch(client, etcdPrefix, revision, true);
+    } catch (RuntimeException e) {
+      this.trackedPrefixes.remove(prefix);
+      throw e;
+    } finally {
+      this.endScan(prefix);
+    }
+    this.loadedPrefixes.add(prefix);
+
+    LOGGER.info(
+        "Loaded {} key(s) under prefix '{}' at revision {}.", loaded.sum(), prefix, revision);
+  }
+
+  /** Stops keeping a loaded prefix complete, dropping its keys so they are read again. */
+  private void unloadPrefix(String prefix) {
+    if (!this.loadedPrefixes.remove(prefix)) {
+      return;
+    }
+    this.trackedPrefixes.remove(prefix);
+    this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + prefix));
+
+    List<String> dropped = new ArrayList<>();
+    for (String key : this.valueCache.keys()) {
+      if (key.startsWith(prefix)) {
+        dropped.add(key);
+      }
+    }
+    for (String key : dropped) {
+      this.valueCache.remove(key);
+      this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + key));
+    }
+    this.invalidateExpansions(dropped);
+
+    LOGGER.debug("Unloaded prefix '{}'; dropped {} cached key(s).", prefix, dropped.size());
+  }
+
+  private static boolean hasPrefixIn(Set<String> prefixes, String key) {
+    for (String prefix : prefixes) {
+      if (key.startsWith(prefix)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Caches a value read from etcd. Keys attached to a lease are cached only until the lease
+   * expires and are not watched: the lease bounds their staleness, and expiring them locally keeps
+   * them from being served after etcd has deleted them. Encrypted values are decrypted here, once
+   * per revision, and are cached as secrets. A value older than the cached entry,
+   * such as one read just before a watch delivered a change, is returned but not cached.
+   *
+   * @return The key's value, or {@code null} if it could not be decrypted.
+   */
+  private String cacheKeyValue(KvClient client, KeyValue kv, long readRevision) {
+    String value = this.decode(kv);
+    if (value != null && this.storeKeyValue(kv, value) == LeaseTracker.NEVER) {
+      this.addWatch(client, kv.getKey(), readRevision);
+    }
+
+    return value;
+  }
+
+  /**
+   * Stores a value read from etcd in the cache without watching it.
+   *
+   * @return The key's value if it was cached, otherwise {@code null}.
+   */
+  private String storeKeyValue(KeyValue kv) {
+    String value = this.decode(kv);
+    return value != null && this.storeKeyValue(kv, value) != LeaseTracker.EXPIRED ? value : null;
+  }
+
+  /**
+   * Stores a decoded value in the cache, unless its lease has expired.
+   *
+   * @return The value's expiry time, which is {@link LeaseTracker#EXPIRED} if it was not cached.
+   */
+  private long storeKeyValue(KeyValue kv, String value) {
+    String key = this.relativeKey(kv.getKey());
+    long expiresAt = kv.getLease() != 0 ? this.getLeaseTracker().deadline(kv.getLease()) : 0;
+
+    if (expiresAt == LeaseTracker.EXPIRED) {
+      LOGGER.debug("Not caching key '{}'; its lease has expired.", key);
+    } else {
+      this.cacheValue(key, value, expiresAt, this.isEncrypted(kv), kv.getModRevision());
+    }
+
+    return expiresAt;
+  }
+
+  /**
+   * Gets a key's value, decrypting it if it is tagged as encrypted and a key is configured. The
+   * plain text of the most recently decrypted values is kept, keyed by their cipher text, so a
+   * revision delivered to the cache's watch and to several listener watches, and later seen again
+   * as the previous value of the next change, is decrypted only once.
+   *
+   * @return The value, or {@code null} if it could not be decrypted.
+   */
+  private String decode(KeyValue kv) {
+    if (!this.isEncrypted(kv)) {
+      return kv.getValue().toStringUtf8();
+    }
+
+    synchronized (this.recentPlaintext) {
+      String value = this.recentPlaintext.get(kv.getValue());
+      if (value != null) {
+        return value;
+      }
+    }
+
+    String value;
+    try {
+      value = this.valueCipher.decrypt(kv.getValue().toStringUtf8());
+    } catch (Exception e) {
+      LOGGER.error(
+          "Unable to decrypt value of key '{}': {}", this.relativeKey(kv.getKey()), e.getMessage());
+      return null;
+    }
+
+    synchronized (this.recentPlaintext) {
+      this.recentPlaintext.put(kv.getValue(), value);
+      if (this.recentPlaintext.size() > RECENT_PLAINTEXT_LIMIT) {
+        this.recentPlaintext.remove(this.recentPlaintext.keySet().iterator().next());
+      }
+    }
+
+    return value;
+  }
+
+  private boolean isEncrypted(KeyValue kv) {
+    return this.valueCipher != null && kv.getValue().startsWith(TAG_BYTES);
+  }
+
+  /**
+   * Records that {@code key} does not exist in etcd as of {@code readRevision}. When watching is
+   * enabled the key is watched from that revision, so its creation replaces the negative entry.
+   */
+  private void cacheAbsentKey(KvClient client, String key, ByteString etcdKey, long readRevision) {
+    this.valueCache.putAbsent(key, readRevision);
+    this.addWatch(client, etcdKey, readRevision);
+    LOGGER.debug("Caching key '{}' as absent.", key);
+  }
+
+  private void recordWatchUpdate(WatchUpdate watchUpdate) {
+    this.lastWatchUpdateMillis = System.currentTimeMillis();
+    if (watchUpdate.getHeader() != null) {
+      this.lastAppliedRevision.accumulateAndGet(watchUpdate.getHeader().getRevision(), Math::max);
+    }
+  }
+
+  private LeaseTracker getLeaseTracker() {
+    if (this.leaseTracker == null) {
+      synchronized (this.valueCache) {
+        if (this.leaseTracker == null) {
+          this.leaseTracker = new LeaseTracker(this.kvStoreClient.getLeaseClient());
+        }
+      }
+    }
+
+    return this.leaseTracker;
+  }
+
+  private void cacheValue(
+      String key, String value, long expiresAt, boolean secret, long modRevision) {
+    if (!this.valueCache.put(key, value, expiresAt, secret, modRevision)) {
+      LOGGER.debug("Not caching key '{}'; the cache is newer than revision {}.", key, modRevision);
+    } else if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Caching value '{}' for key '{}'.", this.loggable(value), key);
+    }
+  }
+
+  private String readCachedValue(String key) {
+    String value = this.valueCache.get(key);
+
+    if (value != null && LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Read value '{}' for key '{}' from cache.", this.loggable(value), key);
+    }
+
+    return value;
+  }
+
+  /**
+   * Loads {@code key} from etcd for a lookup, unless doing so would exceed the read rate limit. A
+   * throttled lookup is answered with no value and caches nothing, so the lookup falls through to
+   * lower-ordinal sources and the key is read normally once the rate allows.
+   *
+   * @return The key's value, or {@code null} if it does not exist or the read was throttled.
+   */
+  private String loadIfPermitted(String key, LookupEvent event) {
+    if (this.readLimiter != null && !this.readLimiter.tryAcquire()) {
+      this.throttledReads.increment();
+      this.throttledSinceWarning.incrementAndGet();
+      LOGGER.debug("Read rate limit exceeded; not reading key '{}'.", this.keyPrefix + key);
+      this.warnIfThrottling();
+      return null;
+    }
+
+    return this.loadValue(key, event);
+  }
+
+  /** Summarizes throttled reads at most once per warning interval. */
+  private void warnIfThrottling() {
+    long now = System.nanoTime();
+    long next = this.nextThrottleWarning.get();
+    if (now - next >= 0
+        && this.nextThrottleWarning.compareAndSet(next, now + THROTTLE_WARNING_INTERVAL_NANOS)) {
+      LOGGER.warn(
+          "Read rate limit exceeded; {} lookup(s) of uncached keys were not sent to etcd since the "
+              + "last warning.",
+          this.throttledSinceWarning.getAndSet(0));
+    }
+  }
 
-    // StreamObserver
-    @Override
-    public void onNext(WatchUpdate watchUpdate) {
-      if (watchUpdate.getEvents() != null) {
-        LOGGER.debug("Processing watch updates...");
+  /**
+   * Loads {@code key} from etcd, registering it as in flight while it does. Watch events for keys
+   * that are neither cached nor in flight are ignored, so only in-flight loads need the tombstone
+   * that fences out a value read before the event.
+   */
+  private String loadValue(String key, LookupEvent event) {
+    String inFlight = this.beginLoad(key);
+    try {
+      return this.loadKey(key, event);
+    } finally {
+      this.endLoad(inFlight);
+    }
+  }
 
-        for (Event evt : watchUpdate.getEvents()) {
-          KeyValue kv = evt.getKv();
-          String key = kv.getKey().toStringUtf8();
+  /**
+   * Registers a read of {@code key} in {@link #loading}, so that changes to it are applied, and
+   * fence out the read's result if it is older, while the read is in flight.
+   *
+   * @return The name under which the read was registered, to be passed to {@link #endLoad}.
+   */
+  private String beginLoad(String key) {
+    String inFlight = this.prefetchingVariants ? baseKey(key) : key;
+    this.loading.merge(inFlight, 1, Integer::sum);
+    return inFlight;
+  }
 
-          LOGGER.debug("Processing event for key '{}'.", key);
-          removeCachedValue(key);
+  /**
+   * Ends a read registered in {@link #loading}. Once no read of the key remains in flight, the
+   * tombstones fencing it out are no longer needed and are dropped.
+   */
+  private void endLoad(String inFlight) {
+    if (this.loading.computeIfPresent(inFlight, (k, count) -> count > 1 ? count - 1 : null)
+        == null) {
+      this.releaseTombstone(inFlight);
+      if (this.prefetchingVariants) {
+        for (String variant : this.valueCache.tombstonesWithPrefix(inFlight + ".")) {
+          this.releaseTombstone(variant);
         }
-
-        LOGGER.debug("Watch updates processed.");
       }
     }
+  }
 
-    @Override
-    public void onError(Throwable throwable) {
-      LOGGER.error("WatchObserver received as error: ", throwable);
+  /** Ends a scan registered in {@link #scanning}, dropping tombstones it no longer needs. */
+  private void endScan(String prefix) {
+    if (this.scanning.computeIfPresent(prefix, (k, count) -> count > 1 ? count - 1 : null)
+        == null) {
+      for (String key : this.valueCache.tombstonesWithPrefix(prefix)) {
+        this.releaseTombstone(key);
+      }
     }
+  }
 
-    @Override
-    public void onCompleted() {
-      LOGGER.debug("onCompleted() invoked for WatchObserver.");
+  /**
+   * Drops {@code key}'s tombstone, and with it the key's watch, unless a read that may predate the
+   * change it records is still in flight.
+   */
+  private void releaseTombstone(String key) {
+    if (!this.isLoading(key) && this.valueCache.removeTombstone(key)) {
+      if (!hasPrefixIn(this.loadedPrefixes, key)) {
+        this.removeWatch(ByteString.copyFromUtf8(this.keyPrefix + key));
+      }
+      LOGGER.debug("Dropped tombstone of key '{}'.", key);
     }
   }
 
-  // Constants
-  private static final String SOURCE_NAME = "Etcd Config Source";
+  /** Tests whether a read that may cache {@code key} is in flight. */
+  private boolean isLoading(String key) {
+    return this.loading.containsKey(key)
+        || (this.prefetchingVariants && this.loading.containsKey(baseKey(key)))
+        || hasPrefixIn(this.scanning.keySet(), key);
+  }
 
-  // Fields
-  private static final Logger LOGGER = LoggerFactory.getLogger(EtcdConfigSource.class);
+  /**
+   * Reads {@code key} from etcd and caches the result.
+   *
+   * @return The key's value, or {@code null} if it does not exist.
+   */
+  private String loadKey(String key, LookupEvent event) {
+    String value = null;
+    String prefixedKey = this.keyPrefix + key;
+    if (LOGGER.isDebugEnabled() && !Objects.equals(prefixedKey, key)) {
+      LOGGER.debug("Modified key '{}' to prefixed value '{}'.", key, prefixedKey);
+    }
 
-  private final Map<String, String> valueCache = new HashMap<>();
-  private final Map<ByteString, KvClient.Watch> activeWatches = new HashMap<>();
-  private final WatchObserver watchObserver = new WatchObserver();
+    LOGGER.debug("The value for key '{}' is not cached; calling etcd.", prefixedKey);
+    KvClient client = this.kvStoreClient.getKvClient();
+    ByteString etcdKey = ByteString.copyFromUtf8(prefixedKey);
 
-  private final int ordinal = 0;
-  private EtcdConfig etcdConfig = new CompositeEtcdConfig();
-  private final KvStoreClient kvStoreClient;
+    if (this.prefetchingVariants) {
+      return this.loadVariants(client, key, event);
+    }
 
-  // Constructors
+    long rpcStart = event != null ? System.nanoTime() : 0;
+    RangeResponse response = this.readKey(client, etcdKey);
+    if (event != null) {
+      event.rpcCompleted(rpcStart);
+    }
+
+    if (response.getCount() > 0) {
+      value = this.cacheKeyValue(client, response.getKvs(0), response.getHeader().getRevision());
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "etcd returned value '{}' for key '{}'", this.loggable(value), prefixedKey);
+      }
+    } else {
+      LOGGER.debug("'{}' does not have a value in the key space.", prefixedKey);
+      if (this.cachingMisses) {
+        this.cacheAbsentKey(client, key, etcdKey, response.getHeader().getRevision());
+      }
+    }
+
+    return value;
+  }
 
   /**
-   * Default constructor for use by frameworks and Java Service Loader. This constructor relies on
-   * two properties to initialize the etd connection:
+   * Reads {@code key}'s base name and all of its "base." variants with one transaction and caches
+   * them together. DeltaSpike probes a key's project stage variant before the key itself, so a
+   * trailing project stage is stripped to find the base. Every variant found is cached; the base
+   * and its project stage variants are cached as absent when they do not exist, provided the
+   * variant range was read in full. A single prefix watch on "base." keeps those negative entries
+   * honest when watching is enabled.
    *
-   * <ul>
-   *   <li><strong>etcd.endpoint.host</strong> - the DNS name of a machine hosting an etcd cluster
-   *       member
-   *   <li><strong>etc.endpoint.port</strong> - the etcd cluster member's TCP port
-   * </ul>
+   * @return The value of {@code key}, or {@code null} if it does not exist.
    */
-  public EtcdConfigSource() {
-    LOGGER.info("Initializing EtcdConfigSource");
-    this.kvStoreClient = Utils.buildKvStoreClient(this.etcdConfig);
-    LOGGER.info("EtcdConfigSource successfully initialized");
+  private String loadVariants(KvClient client, String key, LookupEvent event) {
+    String base = baseKey(key);
+    ByteString baseKey = ByteString.copyFromUtf8(this.keyPrefix + base);
+    ByteString variantPrefix = ByteString.copyFromUtf8(this.keyPrefix + base + ".");
+
+    TxnRequest txn =
+        TxnRequest.newBuilder()
+            .addSuccess(
+                RequestOp.newBuilder()
+                    .setRequestRange(
+                        RangeRequest.newBuilder()
+                            .setKey(baseKey)
+                            .setSerializable(this.serializableReads)
+                            .build())
+                    .build())
+            .addSuccess(
+                RequestOp.newBuilder()
+                    .setRequestRange(
+                        RangeRequest.newBuilder()
+                            .setKey(variantPrefix)
+                            .setRangeEnd(ByteString.copyFromUtf8(this.keyPrefix + base + "/"))
+                            .setLimit(Constants.MAX_PREFETCHED_VARIANTS)
+                            .setSerializable(this.serializableReads)
+                            .build())
+                    .build())
+            .build();
+
+    long rpcStart = event != null ? System.nanoTime() : 0;
+    TxnResponse response = Futures.getUnchecked(client.txn(txn));
+    if (event != null) {
+      event.rpcCompleted(rpcStart);
+    }
+
+    long revision = response.getHeader().getRevision();
+    Map<String, String> found = new HashMap<>();
+    boolean complete = true;
+    for (ResponseOp op : response.getResponsesList()) {
+      RangeResponse range = op.getResponseRange();
+      complete &= !range.getMore();
+      for (KeyValue kv : range.getKvsList()) {
+        String value = this.cacheKeyValue(client, kv, revision);
+        if (value != null) {
+          found.put(this.relativeKey(kv.getKey()), value);
+        }
+      }
+    }
+
+    if (!found.containsKey(base)) {
+      this.cacheAbsentKey(client, base, baseKey, revision);
+    }
+
+    if (complete) {
+      boolean anyAbsent = false;
+      for (String stage : Constants.PROJECT_STAGES) {
+        String variant = base + "." + stage;
+        if (!found.containsKey(variant)) {
+          this.valueCache.putAbsent(variant, revision);
+          anyAbsent = true;
+        }
+      }
+
+      if (anyAbsent) {
+        this.addWatch(client, variantPrefix, revision, true);
+      }
+    }
+
+    LOGGER.debug("Prefetched {} variant(s) of base key '{}' in one request.", found.size(), base);
+    return found.get(key);
+  }
+
+  private static String baseKey(String key) {
+    int dot = key.lastIndexOf('.');
+    if (dot > 0 && Constants.PROJECT_STAGES.contains(key.substring(dot + 1))) {
+      return key.substring(0, dot);
+    }
+
+    return key;
+  }
+
+  private RangeResponse readKey(KvClient client, ByteString etcdKey) {
+    if (this.hedgedReader != null) {
+      return this.hedgedReader.read(etcdKey, this.serializableReads);
+    }
+
+    KvClient.FluentRangeRequest request = client.get(etcdKey);
+    if (this.serializableReads) {
+      request = request.serializable(true);
+    }
+
+    return this.executor != null
+        ? Futures.getUnchecked(request.async(this.executor))
+        : request.sync();
   }
 
   /**
-   * Constructor for unit testing or non-framework usage.
-   *
-   * @param etcdConfig An initialized configuration loader.
-   * @param kvClient An intialized <code>KvStoreClient</code> instance.
+   * Expands the references in {@code key}'s raw value. The expansion is remembered only if every
+   * value it was built from is cached without a lease, so that any change to them reaches the
+   * cache, and through it the dependency graph. {@code path} holds the keys being expanded further
+   * up the stack and is used to detect cycles.
    */
-  public EtcdConfigSource(EtcdConfig etcdConfig, KvStoreClient kvClient) {
-    if (etcdConfig == null) {
-      throw new IllegalArgumentException("configurationLoader must not be null.");
+  private String interpolate(String key, String raw, Deque<String> path) {
+    if (!Interpolator.hasReferences(raw)) {
+      return raw;
     }
 
-    if (kvClient == null) {
-      throw new IllegalArgumentException("kvClient must not be null.");
+    String expanded = this.interpolator.get(key);
+    if (expanded != null) {
+      return expanded;
     }
 
-    this.etcdConfig = etcdConfig;
-    this.kvStoreClient = kvClient;
+    if (path.contains(key)) {
+      LOGGER.warn("Reference cycle through key '{}'; leaving it unexpanded.", key);
+      return raw;
+    }
+
+    long generation = this.interpolator.generation();
+    Set<String> references = new LinkedHashSet<>();
+    path.push(key);
+    try {
+      expanded =
+          Interpolator.expand(
+              raw,
+              reference -> {
+                String value = this.readRawValue(reference);
+                return value != null ? this.interpolate(reference, value, path) : null;
+              },
+              references);
+    } finally {
+      path.pop();
+    }
+
+    boolean memoizable = !this.valueCache.isExpiring(key);
+    for (String reference : references) {
+      memoizable &=
+          this.valueCache.contains(reference) && !this.valueCache.isExpiring(reference);
+    }
+
+    if (memoizable) {
+      this.interpolator.put(key, expanded, references, generation);
+    }
+    LOGGER.debug("Expanded {} reference(s) in key '{}'.", references.size(), key);
+
+    return expanded;
   }
 
-  // Properties
+  /** Reads a key's raw value from the cache, or from etcd if it is not cached. */
+  private String readRawValue(String key) {
+    String value = this.valueCache.get(key);
+    if (value == null) {
+      value = this.loadIfPermitted(key, null);
+    }
+
+    return value != ValueCache.ABSENT ? value : null;
+  }
+
+  private void invalidateExpansions(Collection<String> keys) {
+    this.invalidateExpansions(keys, null);
+  }
+
+  /** Invalidates expansions, adding every key that depends on {@code keys} to {@code affected}. */
+  private void invalidateExpansions(Collection<String> keys, Set<String> affected) {
+    if (this.interpolator != null && !keys.isEmpty()) {
+      int discarded = this.interpolator.invalidate(keys, affected);
+      if (discarded > 0) {
+        LOGGER.debug("Discarded {} expansion(s) affected by changed keys.", discarded);
+      }
+    }
+  }
+
+  /** Values may be secrets once decryption is enabled, so they are only logged without it. */
+  private String loggable(String value) {
+    return this.valueCipher == null ? value : "<redacted>";
+  }
+
+  /** Logs a lookup if it was slow and hands it to the tracer, if it was sampled. */
+  private void reportLookup(LookupEvent event, LookupTracer tracer) {
+    if (this.slowLookupThresholdNanos > 0
+        && event.getDurationNanos() > this.slowLookupThresholdNanos) {
+      LOGGER.warn(
+          "Slow lookup of key '{}': {} ms total, {} ms in etcd (cache {}, found {}, failed {}).",
+          event.getKey(),
+          TimeUnit.NANOSECONDS.toMillis(event.getDurationNanos()),
+          TimeUnit.NANOSECONDS.toMillis(event.getRpcNanos()),
+          event.getCacheState(),
+          event.isFound(),
+          event.isFailed());
+    }
+
+    if (tracer != null) {
+      try {
+        tracer.onLookup(event);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Lookup tracer failed: {}", e.getMessage());
+      }
+    }
+  }
 
   /**
-   * Gets the etcd server's host name.
-   *
-   * @return The host name.
+   * Applies the events from one watch update to the cache as a single atomic change. When a key
+   * appears more than once, its last event wins. Leased keys are evicted rather than updated so
+   * their next read picks up the new lease's deadline.
    */
-  public String getHost() {
-    return this.etcdConfig.getHost();
+  private void applyEvents(List<Event> events) {
+    Map<String, String> changes = new LinkedHashMap<>();
+    Map<String, Long> revisions = new HashMap<>();
+    Set<String> secrets = new HashSet<>();
+    Set<String> admitted = new HashSet<>();
+
+    for (Event evt : events) {
+      KeyValue kv = evt.getKv();
+      String key = this.relativeKey(kv.getKey());
+
+      if (!this.isTracked(key)) {
+        continue;
+      }
+
+      LOGGER.debug("Processing event for key '{}'.", key);
+      revisions.put(key, kv.getModRevision());
+      if (evt.getType() == Event.EventType.DELETE || kv.getLease() != 0) {
+        changes.put(key, null);
+      } else {
+        changes.put(key, this.decode(kv));
+        if (this.isEncrypted(kv)) {
+          secrets.add(key);
+        }
+        if (hasPrefixIn(this.trackedPrefixes, key)) {
+          admitted.add(key);
+        }
+      }
+    }
+
+    this.valueCache.applyChanges(changes, secrets, revisions, admitted);
+    this.reportChangedKeys(changes.keySet());
+
+    for (String key : changes.keySet()) {
+      this.releaseTombstone(key);
+    }
+
+    PropagationProbe probe = this.propagationProbe;
+    if (probe != null) {
+      String canary = changes.get(this.probeKey);
+      if (canary != null) {
+        probe.onDelivered(canary);
+      }
+    }
   }
 
   /**
-   * Gets the etcd server's TCP port.
-   *
-   * @return The TCP port.
+   * Invalidates the expansions of keys whose cached values changed, and reports the keys to
+   * DeltaSpike along with every key whose expansion depended on them.
    */
-  public int getPort() {
-    return this.etcdConfig.getPort();
+  private void reportChangedKeys(Collection<String> keys) {
+    Set<String> affected = this.attributeChangeConsumers.isEmpty() ? null : new HashSet<>(keys);
+    this.invalidateExpansions(keys, affected);
+    if (affected != null) {
+      this.reportAttributeChange(affected);
+    }
   }
 
-  // Private methods
-  private void cacheValue(String key, String value) {
-    synchronized (this.valueCache) {
-      this.valueCache.put(key, value);
+  /** Compares two cached values, telling a key cached as absent from one with a value. */
+  private static boolean sameValue(String before, String after) {
+    if (before == ValueCache.ABSENT || after == ValueCache.ABSENT) {
+      return before == after;
     }
-    LOGGER.debug("Caching value '{}' for key '{}'.", value, key);
+
+    return Objects.equals(before, after);
   }
 
-  private String readCachedValue(String key) {
-    String value = null;
+  /**
+   * Tells DeltaSpike, and any tenant views, which keys changed. DeltaSpike reacts by discarding the
+   * values its typed resolvers have cached, so resolvers may cache for as long as they like and
+   * still see changes as soon as they reach this source's cache. Consumers run on the thread that
+   * applied the change, after the cache has been updated.
+   */
+  private void reportAttributeChange(Set<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    Set<String> changed = Collections.unmodifiableSet(keys);
+    for (Consumer<Set<String>> consumer : this.attributeChangeConsumers) {
+      try {
+        consumer.accept(changed);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Unable to report {} changed key(s): {}", changed.size(), e.getMessage());
+      }
+    }
+    LOGGER.debug("Reported {} changed key(s).", changed.size());
+  }
+
+  /** Applies the changes found by a poll, which confirms every cached value as of the poll. */
+  private void applyPolledEvents(List<Event> events, long revision) {
+    long now = System.currentTimeMillis();
+    this.lastWatchUpdateMillis = now;
+    this.lastAppliedRevision.accumulateAndGet(revision, Math::max);
+    this.confirmations.put(this.rootKey, now);
 
-    synchronized (this.valueCache) {
-      value = this.valueCache.get(key);
+    if (!events.isEmpty()) {
+      this.applyEvents(events);
     }
+  }
 
-    if (value != null && LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Read value '{}' for key '{}' from cache.", value, key);
+  /** Gets the keys, with the key prefix, whose deletion a poll must report. */
+  private Collection<ByteString> pollTrackedKeys() {
+    List<ByteString> keys = new ArrayList<>();
+    // Secrets are left out of snapshots, but their deletion must be detected all the same
+    for (String key : this.valueCache.keysWithValues()) {
+      keys.add(ByteString.copyFromUtf8(this.keyPrefix + key));
     }
 
-    return value;
+    return keys;
+  }
+
+  /**
+   * Reads the propagation probe's canary, loading it if it is not cached, so that it stays cached
+   * and watched. The read bypasses the lookup statistics, the read rate limit and the access
+   * profile.
+   *
+   * @return {@code true} if the canary is cached with a value, and so will receive its changes.
+   */
+  private boolean touchCanary() {
+    try {
+      String value = this.valueCache.get(this.probeKey);
+      if (value == null) {
+        value = this.loadValue(this.probeKey, null);
+      }
+      return value != null && value != ValueCache.ABSENT;
+    } catch (Exception e) {
+      LOGGER.warn("Unable to read canary '{}': {}", this.keyPrefix + this.probeKey, e.getMessage());
+      return false;
+    }
   }
 
-  private void removeCachedValue(String key) {
-    LOGGER.debug("Removing value for key ''{}'' from cache.");
+  /** Tests whether watch events for {@code key} should reach the cache. */
+  private boolean isTracked(String key) {
+    return this.valueCache.contains(key)
+        || this.isLoading(key)
+        || hasPrefixIn(this.trackedPrefixes, key);
+  }
 
-    synchronized (this.valueCache) {
-      this.valueCache.remove(key);
+  /**
+   * Starts the single prefix watch used in place of per-key watches when watching the root. The
+   * watch starts just after the revision current at startup, so any change a later load might miss
+   * is delivered.
+   */
+  private void startRootWatch() {
+    if (!this.watchingRoot) {
+      return;
     }
+
+    KvClient client = this.kvStoreClient.getKvClient();
+    KvClient.FluentRangeRequest request = client.get(this.rootKey).countOnly();
+    if (!this.keyPrefix.isEmpty()) {
+      request = request.asPrefix();
+    }
+
+    long revision = request.sync().getHeader().getRevision();
+    this.addWatch(client, this.rootKey, revision, !this.keyPrefix.isEmpty());
+    LOGGER.info("Watching every key under '{}' with a single watch.", this.keyPrefix);
+  }
+
+  /**
+   * Watches {@code etcdKey} for changes made after {@code readRevision}, the revision at which its
+   * cached value was read. Starting the watch there, rather than at the member's current revision,
+   * means a change that lands between the read and the watch (or a stale serializable read) is
+   * still delivered.
+   */
+  private void addWatch(KvClient client, ByteString etcdKey, long readRevision) {
+    this.addWatch(client, etcdKey, readRevision, false);
   }
 
-  private void addWatch(KvClient client, ByteString etcdKey) {
+  private void addWatch(KvClient client, ByteString etcdKey, long readRevision, boolean prefix) {
+    if (this.watchingRoot && !this.rootKey.equals(etcdKey)) {
+      return;
+    }
+
+    // A loaded prefix's watch already covers every key under it
+    if (!prefix && hasPrefixIn(this.loadedPrefixes, this.relativeKey(etcdKey))) {
+      return;
+    }
+
     if (this.etcdConfig.isWatching()) {
       this.removeWatch(etcdKey);
       synchronized (this.activeWatches) {
-        KvClient.Watch watch = client.watch(etcdKey).start(watchObserver);
+        KvClient.FluentWatchRequest request =
+            this.withExecutor(client.watch(etcdKey)).progressNotify();
+        if (prefix) {
+          request = request.asPrefix();
+        }
+        if (readRevision > 0) {
+          request = request.startRevision(readRevision + 1);
+        }
+        KvClient.Watch watch = request.start(new WatchObserver(etcdKey));
         this.activeWatches.put(etcdKey, watch);
+        this.confirmations.put(etcdKey, System.currentTimeMillis());
       }
       LOGGER.debug("Added etcd watch for key '{}'.", etcdKey.toStringUtf8());
     }
   }
 
+  /**
+   * Routes a watch's callbacks to the configured executor. Each watch gets its own sequential view
+   * of the executor, so updates for one watch are still processed one at a time and in order even
+   * when the executor runs tasks concurrently.
+   */
+  private KvClient.FluentWatchRequest withExecutor(KvClient.FluentWatchRequest request) {
+    return this.executor != null
+        ? request.executor(MoreExecutors.newSequentialExecutor(this.executor))
+        : request;
+  }
+
   private void removeWatch(ByteString etcdKey) {
+    this.confirmations.remove(etcdKey);
     if (this.etcdConfig.isWatching()) {
       synchronized (this.activeWatches) {
         if (this.activeWatches.containsKey(etcdKey)) {
@@ -228,46 +2115,67 @@ public class EtcdConfigSource implements ConfigSource, AutoCloseable {
     return this.etcdConfig.getOrdinal();
   }
 
+  /**
+   * Gets the properties this source has cached. The map is a snapshot of the cache taken in
+   * constant time, without copying or locking, and it does not change once returned. Keys that have
+   * never been read (or preloaded) are not included, and values are returned as stored in etcd,
+   * before any references they contain are expanded. Keys whose values were decrypted are left
+   * out, so that secrets are never exposed to callers that list or dump every property; they can
+   * only be read by key.
+   *
+   * @return A read-only snapshot of the cached properties.
+   */
   @Override
   public Map<String, String> getProperties() {
-    LOGGER.warn("Request made for properties list: this feature is not supported.");
-    return new HashMap<>();
+    return this.getProperties("");
   }
 
   @Override
   public String getPropertyValue(String key) {
     String value = null;
 
-    String prefixedKey = this.etcdConfig.getKeyPrefix() + key;
-    if (LOGGER.isDebugEnabled() && !Objects.equals(prefixedKey, key)) {
-      LOGGER.debug("Modified key '{}' to prefixed value '{}'.", key, prefixedKey);
-    }
-
     if (this.kvStoreClient != null) {
+      TraceSampler sampler = this.traceSampler;
+      boolean sampled = sampler != null && sampler.sample();
+      LookupEvent event = sampled ? new LookupEvent(key) : null;
+      boolean failed = false;
+
       try {
-        value = this.readCachedValue(prefixedKey);
-        if (value == null) {
-          LOGGER.debug("The value for key '{}' is not cached; calling etcd.", prefixedKey);
-          KvClient client = this.kvStoreClient.getKvClient();
-          ByteString etcdKey = ByteString.copyFromUtf8(prefixedKey);
-
-          RangeResponse response = client.get(etcdKey).sync();
-          if (response.getCount() > 0) {
-            value = response.getKvs(0).getValue().toStringUtf8();
-            LOGGER.debug("etcd returned value '{}' for key '{}'", value, prefixedKey);
-
-            if (value != null) {
-              this.cacheValue(prefixedKey, value);
-              this.addWatch(client, etcdKey);
-            }
-          } else {
-            LOGGER.debug("'{}' does not have a value in the key space.", prefixedKey);
+        String cached = this.readCachedValue(key);
+        if (cached != null) {
+          this.cacheHits.increment();
+          if (cached != ValueCache.ABSENT) {
+            value = cached;
+          } else if (event != null) {
+            event.negativeHit();
           }
-        } else {
           LOGGER.debug("Read value from cache.");
+        } else {
+          this.cacheMisses.increment();
+          if (event == null && this.slowLookupThresholdNanos > 0) {
+            event = new LookupEvent(key);
+          }
+          if (event != null) {
+            event.miss();
+          }
+          value = this.loadIfPermitted(key, event);
+        }
+
+        if (value != null && this.interpolator != null) {
+          value = this.interpolate(key, value, new ArrayDeque<>());
+        }
+
+        if (value != null && this.accessProfile != null) {
+          this.accessProfile.record(key);
         }
       } catch (Exception e) {
-        LOGGER.error("Unable to retrieve value for key '" + prefixedKey + "'.", e);
+        failed = true;
+        LOGGER.error("Unable to retrieve value for key '" + this.keyPrefix + key + "'.", e);
+      }
+
+      if (event != null) {
+        event.complete(value != null, failed);
+        this.reportLookup(event, sampled ? sampler.tracer : null);
       }
     } else {
       LOGGER.info("Ignoring request; configuration source is disabled.");
@@ -287,15 +2195,57 @@ public class EtcdConfigSource implements ConfigSource, AutoCloseable {
     return false;
   }
 
+  /**
+   * Receives DeltaSpike's change callback, which is told the keys changed by each watch event or
+   * poll, along with every key whose expanded value references them. DeltaSpike responds by
+   * discarding the values cached by its typed resolvers, including those built with {@code
+   * cacheFor(...)}, so they pick up the change on their next read.
+   *
+   * @param reportAttributeChange The callback, or {@code null} to stop reporting changes.
+   */
+  @Override
+  public synchronized void setOnAttributeChange(Consumer<Set<String>> reportAttributeChange) {
+    if (this.onAttributeChange != null) {
+      this.attributeChangeConsumers.remove(this.onAttributeChange);
+    }
+
+    this.onAttributeChange = reportAttributeChange;
+    if (reportAttributeChange != null) {
+      this.attributeChangeConsumers.add(reportAttributeChange);
+    }
+  }
+
   // AutoCloseable
 
   /**
-   * Closes the encapsulated KV store client.
+   * Closes the encapsulated KV store client. If an access profile is configured, the keys served by
+   * this source are saved before the client is closed.
    *
    * @throws IOException If the client connection cannot be closed.
    */
   @Override
   public void close() throws IOException {
+    if (this.propagationProbe != null) {
+      this.propagationProbe.close();
+    }
+
+    if (this.revisionPoller != null) {
+      this.revisionPoller.close();
+    }
+
+    if (this.management != null) {
+      this.management.unregister();
+    }
+
+    if (this.accessProfile != null) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(this.accessProfileSaver);
+      } catch (IllegalStateException e) {
+        LOGGER.debug("JVM is shutting down; access profile will be saved by the shutdown hook.");
+      }
+      this.accessProfile.save();
+    }
+
     if (this.etcdConfig.isWatching() && this.activeWatches.size() > 0) {
       LOGGER.debug("Closing all active watches.");
       for (KvClient.Watch watch : this.activeWatches.values()) {
@@ -307,6 +2257,30 @@ public class EtcdConfigSource implements ConfigSource, AutoCloseable {
       }
     }
 
+    for (ChangeSubscription subscription : this.subscriptions.keySet()) {
+      subscription.close();
+    }
+
+    if (this.listenerExecutor != null) {
+      this.listenerExecutor.shutdown();
+    }
+
+    if (this.ownedExecutor != null) {
+      this.ownedExecutor.shutdown();
+    }
+
+    synchronized (this.recentPlaintext) {
+      this.recentPlaintext.clear();
+    }
+
+    for (KvStoreClient member : this.memberClients) {
+      try {
+        member.close();
+      } catch (Exception e) {
+        LOGGER.info("Error closing member client: {}", e.getMessage());
+      }
+    }
+
     LOGGER.debug("Closing KV store client.");
     try {
       this.kvStoreClient.close();
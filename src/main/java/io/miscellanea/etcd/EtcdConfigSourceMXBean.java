@@ -0,0 +1,178 @@
+package io.miscellanea.etcd;
+
+/**
+ * The management interface of an {@code EtcdConfigSource}. It exposes the state of the source's
+ * cache and watches, but never the cached values themselves, so it is safe to use on sources that
+ * hold secrets.
+ *
+ * @author Jason Hallford
+ */
+public interface EtcdConfigSourceMXBean {
+  /**
+   * Gets the key prefix prepended to every key read by the source.
+   *
+   * @return The key prefix.
+   */
+  String getKeyPrefix();
+
+  /**
+   * Gets the number of cached keys, including those cached as absent. Tombstones, which briefly
+   * record changes to keys whose reads are still in flight, are not counted.
+   *
+   * @return The cache's size.
+   */
+  int getCacheSize();
+
+  /**
+   * Gets the approximate heap retained by the cache.
+   *
+   * @return The cache footprint in bytes.
+   */
+  long getCacheFootprint();
+
+  /**
+   * Gets the number of keys cached as absent from etcd.
+   *
+   * @return The negative entry count.
+   */
+  int getNegativeEntryCount();
+
+  /**
+   * Gets the number of lookups answered from the cache.
+   *
+   * @return The hit count.
+   */
+  long getHitCount();
+
+  /**
+   * Gets the number of lookups that had to call etcd.
+   *
+   * @return The miss count.
+   */
+  long getMissCount();
+
+  /**
+   * Gets the etcd revision of the most recent watch update received.
+   *
+   * @return The revision, or zero if no update has been received.
+   */
+  long getLastAppliedRevision();
+
+  /**
+   * Gets the time since the most recent watch update, including progress notifications, or poll
+   * was received. This is not how far the cache lags etcd: while nothing changes it grows until the
+   * next progress notification or poll. A value that keeps growing while keys are known to be
+   * changing indicates a stalled watch.
+   *
+   * @return The elapsed time in milliseconds, or -1 if no update has been received.
+   */
+  long getMillisSinceLastUpdate();
+
+  /**
+   * Gets the median time, over recent probes, for a canary write to become visible through the
+   * source.
+   *
+   * @return The latency in milliseconds, or -1 if the probe is disabled or nothing was delivered.
+   */
+  double getPropagationLatencyP50Millis();
+
+  /**
+   * Gets the 99th percentile time, over recent probes, for a canary write to become visible
+   * through the source.
+   *
+   * @return The latency in milliseconds, or -1 if the probe is disabled or nothing was delivered.
+   */
+  double getPropagationLatencyP99Millis();
+
+  /**
+   * Gets the number of canary writes whose propagation was timed.
+   *
+   * @return The delivered canary count.
+   */
+  long getPropagationProbeCount();
+
+  /**
+   * Gets the number of canary writes that were not delivered within a minute. A growing figure
+   * points to a stalled watch.
+   *
+   * @return The lost canary count.
+   */
+  long getLostProbeCount();
+
+  /**
+   * Gets the number of lookups of uncached keys that were refused by the read rate limit and left
+   * to lower-ordinal sources.
+   *
+   * @return The throttled read count.
+   */
+  long getThrottledReadCount();
+
+  /**
+   * Gets the number of reads of uncached keys that were hedged to a second cluster member.
+   *
+   * @return The hedged read count.
+   */
+  long getHedgedReadCount();
+
+  /**
+   * Gets the number of polls for changes completed. A figure that stops growing while polling is
+   * enabled points to a failing poller.
+   *
+   * @return The poll count, or zero if polling is disabled.
+   */
+  long getPollCount();
+
+  /**
+   * Gets the number of changed keys transferred by polls.
+   *
+   * @return The polled key count, or zero if polling is disabled.
+   */
+  long getPolledKeyCount();
+
+  /**
+   * Gets the number of open etcd watches.
+   *
+   * @return The active watch count.
+   */
+  int getActiveWatchCount();
+
+  /**
+   * Gets the time since the least recently confirmed watch last heard from etcd, through an event
+   * or a progress notification. A figure well beyond the server's progress notification interval
+   * points to a stalled watch.
+   *
+   * @return The age in milliseconds, or -1 if there are no watches.
+   */
+  long getOldestConfirmationAgeMillis();
+
+  /**
+   * Discards the cached state of a key and reads it again from etcd.
+   *
+   * @param key The key, without the key prefix.
+   * @return {@code true} if the key exists in etcd.
+   */
+  boolean refreshKey(String key);
+
+  /**
+   * Re-reads every cached key beginning with a prefix, scanning the prefix in pages.
+   *
+   * @param prefix The prefix, without the source's key prefix.
+   * @return The number of cached keys refreshed or dropped.
+   */
+  int refreshPrefix(String prefix);
+
+  /**
+   * Reads every key beginning with a prefix into the cache, scanning the prefix in pages.
+   *
+   * @param prefix The prefix, without the source's key prefix.
+   * @return The number of keys cached.
+   */
+  int preloadPrefix(String prefix);
+
+  /**
+   * Drops every negative cache entry.
+   *
+   * @return The number of entries dropped.
+   */
+  int resetNegativeEntries();
+}
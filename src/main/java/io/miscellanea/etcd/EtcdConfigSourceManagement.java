@@ -0,0 +1,209 @@
+package io.miscellanea.etcd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes an {@code EtcdConfigSource} to JMX. Each source is registered under a distinct name of
+ * the form {@code io.miscellanea.etcd:type=EtcdConfigSource,id=<n>}.
+ */
+class EtcdConfigSourceManagement implements EtcdConfigSourceMXBean {
+  // Constants
+  private static final String DOMAIN = "io.miscellanea.etcd";
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(EtcdConfigSourceManagement.class);
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+  private final EtcdConfigSource source;
+  private final String keyPrefix;
+  private volatile ObjectName objectName;
+
+  // Constructors
+  public EtcdConfigSourceManagement(EtcdConfigSource source, String keyPrefix) {
+    if (source == null) {
+      throw new IllegalArgumentException("source must not be null.");
+    }
+
+    this.source = source;
+    this.keyPrefix = keyPrefix;
+  }
+
+  // Properties
+
+  /**
+   * Gets the name this bean is registered under.
+   *
+   * @return The object name, or {@code null} if the bean is not registered.
+   */
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+
+  // Public methods
+
+  /**
+   * Registers a management bean for {@code source} with the platform MBean server. Failure to
+   * register is logged and does not prevent the source from being used.
+   *
+   * @param source The configuration source.
+   * @param keyPrefix The source's key prefix.
+   * @return The registered bean, or {@code null} if registration failed.
+   */
+  public static EtcdConfigSourceManagement register(EtcdConfigSource source, String keyPrefix) {
+    EtcdConfigSourceManagement management = new EtcdConfigSourceManagement(source, keyPrefix);
+
+    try {
+      ObjectName name =
+          new ObjectName(DOMAIN + ":type=EtcdConfigSource,id=" + NEXT_ID.incrementAndGet());
+      ManagementFactory.getPlatformMBeanServer().registerMBean(management, name);
+      management.objectName = name;
+      LOGGER.info("Registered management bean {}.", name);
+    } catch (Exception e) {
+      LOGGER.warn("Unable to register management bean: {}", e.getMessage());
+      management = null;
+    }
+
+    return management;
+  }
+
+  /** Removes this bean from the platform MBean server. */
+  public void unregister() {
+    ObjectName name = this.objectName;
+    if (name == null) {
+      return;
+    }
+
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      LOGGER.debug("Unregistered management bean {}.", name);
+    } catch (Exception e) {
+      LOGGER.info("Error unregistering management bean {}: {}", name, e.getMessage());
+    } finally {
+      this.objectName = null;
+    }
+  }
+
+  // EtcdConfigSourceMXBean
+  @Override
+  public String getKeyPrefix() {
+    return this.keyPrefix;
+  }
+
+  @Override
+  public int getCacheSize() {
+    return this.source.getCacheSize();
+  }
+
+  @Override
+  public long getCacheFootprint() {
+    return this.source.getCacheFootprint();
+  }
+
+  @Override
+  public int getNegativeEntryCount() {
+    return this.source.getNegativeEntryCount();
+  }
+
+  @Override
+  public long getHitCount() {
+    return this.source.getHitCount();
+  }
+
+  @Override
+  public long getMissCount() {
+    return this.source.getMissCount();
+  }
+
+  @Override
+  public long getLastAppliedRevision() {
+    return this.source.getLastAppliedRevision();
+  }
+
+  @Override
+  public long getMillisSinceLastUpdate() {
+    return this.source.getMillisSinceLastUpdate();
+  }
+
+  @Override
+  public double getPropagationLatencyP50Millis() {
+    return this.source.getPropagationLatencyMillis(50);
+  }
+
+  @Override
+  public double getPropagationLatencyP99Millis() {
+    return this.source.getPropagationLatencyMillis(99);
+  }
+
+  @Override
+  public long getPropagationProbeCount() {
+    return this.source.getPropagationProbeCount();
+  }
+
+  @Override
+  public long getLostProbeCount() {
+    return this.source.getLostProbeCount();
+  }
+
+  @Override
+  public long getThrottledReadCount() {
+    return this.source.getThrottledReadCount();
+  }
+
+  @Override
+  public long getHedgedReadCount() {
+    return this.source.getHedgedReadCount();
+  }
+
+  @Override
+  public long getPollCount() {
+    return this.source.getPollCount();
+  }
+
+  @Override
+  public long getPolledKeyCount() {
+    return this.source.getPolledKeyCount();
+  }
+
+  @Override
+  public int getActiveWatchCount() {
+    return this.source.getActiveWatchCount();
+  }
+
+  @Override
+  public long getOldestConfirmationAgeMillis() {
+    return this.source.getOldestConfirmationAgeMillis();
+  }
+
+  @Override
+  public boolean refreshKey(String key) {
+    LOGGER.info("Refreshing key '{}' at operator request.", key);
+    return this.source.refreshKey(key);
+  }
+
+  @Override
+  public int refreshPrefix(String prefix) {
+    LOGGER.info("Refreshing prefix '{}' at operator request.", prefix);
+    return this.source.refreshPrefix(prefix);
+  }
+
+  @Override
+  public int preloadPrefix(String prefix) {
+    LOGGER.info("Preloading prefix '{}' at operator request.", prefix);
+    return this.source.preloadPrefix(prefix);
+  }
+
+  @Override
+  public int resetNegativeEntries() {
+    LOGGER.info("Resetting negative cache entries at operator request.");
+    return this.source.resetNegativeEntries();
+  }
+}
@@ -0,0 +1,332 @@
+package io.miscellanea.etcd;
+
+import com.google.common.base.Strings;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.DeleteRangeRequest;
+import com.ibm.etcd.api.PutRequest;
+import com.ibm.etcd.api.RequestOp;
+import com.ibm.etcd.api.TxnRequest;
+import com.ibm.etcd.api.TxnResponse;
+import com.ibm.etcd.client.KvStoreClient;
+import com.ibm.etcd.client.kv.KvClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Command-line utility that loads a .properties file into etcd beneath the configured key prefix.
+ *
+ * <p>The file is diffed against the keys already stored under {@code etcd.cs.keyPrefix} and only
+ * new or changed values are written, using as few transactions as etcd's request limits allow.
+ * With {@code --delete}, keys under the prefix that are absent from the file are removed as well;
+ * with {@code --dry-run}, the changes are reported but not applied. Since an empty prefix covers
+ * the whole cluster, {@code --delete} is refused without one unless {@code --allow-empty-prefix}
+ * is also given. Connection settings are read from the same system properties and configuration
+ * URL as {@code EtcdConfigSource}.
+ *
+ * <p>The utility is packaged as the {@code import} JAR, whose dependencies must sit alongside it:
+ *
+ * <pre>
+ * java -Detcd.endpoint.host=localhost -Detcd.cs.keyPrefix=myapp/ \
+ *     -jar EtcdConfigSource-&lt;version&gt;-import.jar \
+ *     [--delete [--allow-empty-prefix]] [--dry-run] application.properties
+ * </pre>
+ *
+ * @author Jason Hallford
+ */
+public final class EtcdImport {
+  // Constants
+  private static final String USAGE =
+      "Usage: EtcdImport [--delete [--allow-empty-prefix]] [--dry-run] <file.properties>";
+
+  // Bytes allowed per operation for the RequestOp wrapper and field tags.
+  private static final int OP_OVERHEAD = 16;
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(EtcdImport.class);
+
+  private final KvClient kvClient;
+  private final String keyPrefix;
+
+  // Constructors
+  EtcdImport(KvClient kvClient, String keyPrefix) {
+    if (kvClient == null) {
+      throw new IllegalArgumentException("kvClient must not be null.");
+    }
+
+    this.kvClient = kvClient;
+    this.keyPrefix = Strings.nullToEmpty(keyPrefix);
+  }
+
+  // Entry point
+  public static void main(String[] args) {
+    boolean deleting = false;
+    boolean allowEmptyPrefix = false;
+    boolean dryRun = false;
+    Path file = null;
+
+    for (String arg : args) {
+      if ("--delete".equals(arg)) {
+        deleting = true;
+      } else if ("--allow-empty-prefix".equals(arg)) {
+        allowEmptyPrefix = true;
+      } else if ("--dry-run".equals(arg)) {
+        dryRun = true;
+      } else if (file == null && !arg.startsWith("--")) {
+        file = Paths.get(arg);
+      } else {
+        file = null;
+        break;
+      }
+    }
+
+    if (file == null) {
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+
+    System.exit(run(file, deleting, allowEmptyPrefix, dryRun));
+  }
+
+  // Package methods
+  /**
+   * Compares {@code properties} with the keys currently stored under the key prefix.
+   *
+   * @param properties The desired configuration, keyed without the prefix.
+   * @param deleting Whether keys missing from {@code properties} should be deleted.
+   * @param allowEmptyPrefix Whether to delete even though the key prefix is empty, and so every
+   *     key in the cluster that is missing from {@code properties} would be deleted.
+   * @return The changes needed to bring etcd in line with {@code properties}.
+   * @throws IllegalStateException If deleting with an empty key prefix without allowing it.
+   */
+  Plan plan(Properties properties, boolean deleting, boolean allowEmptyPrefix) {
+    if (properties == null) {
+      throw new IllegalArgumentException("properties must not be null.");
+    }
+
+    if (deleting && this.keyPrefix.isEmpty() && !allowEmptyPrefix) {
+      throw new IllegalStateException(
+          "Refusing to delete without a key prefix, which would remove every key in the cluster "
+              + "that is not in the file; pass --allow-empty-prefix to do so anyway.");
+    }
+
+    Map<String, String> current = this.readCurrent();
+    Plan plan = new Plan();
+
+    for (String name : properties.stringPropertyNames()) {
+      String value = properties.getProperty(name);
+      if (value.equals(current.remove(name))) {
+        plan.unchanged++;
+      } else {
+        plan.puts.put(name, value);
+      }
+    }
+
+    if (deleting) {
+      plan.deletes.addAll(current.keySet());
+    }
+
+    return plan;
+  }
+
+  /**
+   * Splits {@code plan} into transactions that stay within etcd's per-request operation count and
+   * size limits.
+   *
+   * @param plan The changes to write.
+   * @return The transactions, in the order they should be applied.
+   */
+  List<TxnRequest> batch(Plan plan) {
+    List<TxnRequest> batches = new ArrayList<>();
+    TxnRequest.Builder txn = TxnRequest.newBuilder();
+    int bytes = 0;
+
+    List<RequestOp> ops = new ArrayList<>();
+    List<Integer> sizes = new ArrayList<>();
+    for (Map.Entry<String, String> put : plan.puts.entrySet()) {
+      PutRequest request =
+          PutRequest.newBuilder()
+              .setKey(this.toKey(put.getKey()))
+              .setValue(ByteString.copyFromUtf8(put.getValue()))
+              .build();
+      ops.add(RequestOp.newBuilder().setRequestPut(request).build());
+      sizes.add(request.getSerializedSize() + OP_OVERHEAD);
+    }
+    for (String delete : plan.deletes) {
+      DeleteRangeRequest request =
+          DeleteRangeRequest.newBuilder().setKey(this.toKey(delete)).build();
+      ops.add(RequestOp.newBuilder().setRequestDeleteRange(request).build());
+      sizes.add(request.getSerializedSize() + OP_OVERHEAD);
+    }
+
+    for (int i = 0; i < ops.size(); i++) {
+      int size = sizes.get(i);
+      if (txn.getSuccessCount() > 0
+          && (txn.getSuccessCount() == Constants.MAX_TXN_OPS
+              || bytes + size > Constants.MAX_TXN_BYTES)) {
+        batches.add(txn.build());
+        txn = TxnRequest.newBuilder();
+        bytes = 0;
+      }
+
+      txn.addSuccess(ops.get(i));
+      bytes += size;
+    }
+    if (txn.getSuccessCount() > 0) {
+      batches.add(txn.build());
+    }
+
+    return batches;
+  }
+
+  /**
+   * Writes {@code plan} to etcd, one transaction at a time.
+   *
+   * @param plan The changes to write.
+   * @return The number of transactions committed.
+   * @throws IOException If a transaction fails.
+   */
+  int apply(Plan plan) throws IOException {
+    List<TxnRequest> batches = this.batch(plan);
+
+    for (int i = 0; i < batches.size(); i++) {
+      try {
+        TxnResponse response = this.kvClient.txn(batches.get(i)).get();
+        LOGGER.debug(
+            "Committed import batch {} of {} at revision {}.",
+            i + 1,
+            batches.size(),
+            response.getHeader().getRevision());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while importing batch " + (i + 1) + ".", e);
+      } catch (Exception e) {
+        throw new IOException(
+            "Import batch " + (i + 1) + " of " + batches.size() + " failed: " + e.getMessage(), e);
+      }
+    }
+
+    return batches.size();
+  }
+
+  // Private methods
+  private static int run(Path file, boolean deleting, boolean allowEmptyPrefix, boolean dryRun) {
+    Properties properties;
+    try {
+      properties = UrlEtcdConfig.loadProperties(() -> Files.newInputStream(file));
+    } catch (IOException e) {
+      System.err.println("Unable to read " + file + ": " + e.getMessage());
+      return 1;
+    }
+
+    EtcdConfig config = new CompositeEtcdConfig();
+    KvStoreClient client = Utils.buildKvStoreClient(config);
+    if (client == null) {
+      System.err.println("No etcd host or cluster members are configured.");
+      return 1;
+    }
+
+    try {
+      EtcdImport importer = new EtcdImport(client.getKvClient(), config.getKeyPrefix());
+      Plan plan = importer.plan(properties, deleting, allowEmptyPrefix);
+
+      // Values may hold secrets, so only key names are reported.
+      for (String key : plan.getPuts().keySet()) {
+        System.out.println("put    " + key);
+      }
+      for (String key : plan.getDeletes()) {
+        System.out.println("delete " + key);
+      }
+
+      if (dryRun || plan.isEmpty()) {
+        System.out.println(plan + "; nothing written");
+      } else {
+        int transactions = importer.apply(plan);
+        System.out.println(plan + " in " + transactions + " transaction(s)");
+      }
+      return 0;
+    } catch (Exception e) {
+      System.err.println("Import failed: " + e.getMessage());
+      return 1;
+    } finally {
+      try {
+        client.close();
+      } catch (IOException e) {
+        LOGGER.warn("Unable to close etcd client: {}", e.getMessage());
+      }
+    }
+  }
+
+  private Map<String, String> readCurrent() {
+    RangeScanner scanner =
+        new RangeScanner(
+            Collections.singletonList(this.kvClient),
+            null,
+            Constants.DEFAULT_SCAN_PAGE_SIZE,
+            Constants.SCAN_PARTITIONS,
+            false);
+
+    Map<String, String> current = new ConcurrentHashMap<>();
+    scanner.scan(
+        ByteString.copyFromUtf8(this.keyPrefix),
+        (kv, revision) ->
+            current.put(
+                kv.getKey().toStringUtf8().substring(this.keyPrefix.length()),
+                kv.getValue().toStringUtf8()));
+
+    LOGGER.debug("Read {} existing key(s) under prefix '{}'.", current.size(), this.keyPrefix);
+    return current;
+  }
+
+  private ByteString toKey(String name) {
+    return ByteString.copyFromUtf8(this.keyPrefix + name);
+  }
+
+  // Inner classes
+  /** The set of changes an import will make. */
+  static final class Plan {
+    private final SortedMap<String, String> puts = new TreeMap<>();
+    private final SortedSet<String> deletes = new TreeSet<>();
+    private int unchanged;
+
+    SortedMap<String, String> getPuts() {
+      return Collections.unmodifiableSortedMap(this.puts);
+    }
+
+    SortedSet<String> getDeletes() {
+      return Collections.unmodifiableSortedSet(this.deletes);
+    }
+
+    int getUnchanged() {
+      return this.unchanged;
+    }
+
+    boolean isEmpty() {
+      return this.puts.isEmpty() && this.deletes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return this.puts.size()
+          + " put(s), "
+          + this.deletes.size()
+          + " delete(s), "
+          + this.unchanged
+          + " unchanged";
+    }
+  }
+}
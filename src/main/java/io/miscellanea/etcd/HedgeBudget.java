@@ -0,0 +1,53 @@
+package io.miscellanea.etcd;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits hedged reads to a fixed fraction of all reads. Every read earns a fraction of a token and
+ * every hedge spends a whole one, so over time hedges can never exceed the configured percentage of
+ * reads. A small cap on saved tokens lets a burst of slow reads be hedged after a quiet period
+ * without letting a long quiet period bank an unbounded burst of extra load.
+ */
+class HedgeBudget {
+  // Constants
+  private static final long TOKEN = 100;
+  private static final long MAX_TOKENS = 10 * TOKEN;
+
+  // Fields
+  private final long earnedPerRead;
+  private final AtomicLong balance = new AtomicLong();
+
+  // Constructors
+  public HedgeBudget(int percent) {
+    if (percent < 0 || percent > 100) {
+      throw new IllegalArgumentException("percent must be between 0 and 100.");
+    }
+
+    this.earnedPerRead = percent;
+  }
+
+  // Public methods
+
+  /** Records a read, earning its share of a hedge. */
+  public void onRead() {
+    this.balance.accumulateAndGet(
+        this.earnedPerRead, (current, earned) -> Math.min(MAX_TOKENS, current + earned));
+  }
+
+  /**
+   * Spends a token to hedge a read, if one is available.
+   *
+   * @return {@code true} if the read may be hedged.
+   */
+  public boolean tryAcquire() {
+    long current;
+    do {
+      current = this.balance.get();
+      if (current < TOKEN) {
+        return false;
+      }
+    } while (!this.balance.compareAndSet(current, current - TOKEN));
+
+    return true;
+  }
+}
@@ -0,0 +1,209 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads keys from a set of etcd cluster members, hedging slow reads. Each read is sent to the next
+ * member in turn; if it has not completed within the configured latency percentile, a duplicate
+ * serializable read is sent to the following member and whichever response arrives first is used.
+ * Hedges are limited by a {@link HedgeBudget}, and no read is hedged until enough latencies have
+ * been observed to estimate the percentile.
+ *
+ * <p>Only the primary read's latency is recorded, so hedging does not drag the percentile, and
+ * with it the hedge delay, downwards.
+ */
+class HedgedReader {
+  // Constants
+  public static final long MIN_SAMPLES = 20;
+
+  private static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(HedgedReader.class);
+
+  private final List<KvClient> members;
+  private final int percentile;
+  private final HedgeBudget budget;
+  private final Executor executor;
+  private final LatencyHistogram histogram = new LatencyHistogram();
+  private final AtomicInteger next = new AtomicInteger();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+
+  // Constructors
+
+  /**
+   * Creates a reader.
+   *
+   * @param members The clients of the cluster members to read from; at least two.
+   * @param percentile The read latency percentile after which a read is hedged, from 1 to 99.
+   * @param budgetPercent The maximum share of reads, from 0 to 100, that may be hedged.
+   * @param executor The executor on which responses are completed, or {@code null} to complete
+   *     them on the etcd client's own threads.
+   */
+  public HedgedReader(
+      List<KvClient> members, int percentile, int budgetPercent, Executor executor) {
+    if (members == null || members.size() < 2) {
+      throw new IllegalArgumentException("members must contain at least two clients.");
+    }
+
+    if (percentile < 1 || percentile > 99) {
+      throw new IllegalArgumentException("percentile must be between 1 and 99.");
+    }
+
+    this.members = new ArrayList<>(members);
+    this.percentile = percentile;
+    this.budget = new HedgeBudget(budgetPercent);
+    this.executor = executor;
+  }
+
+  // Properties
+
+  /**
+   * Gets the number of reads that were hedged.
+   *
+   * @return The hedge count.
+   */
+  public long getHedgeCount() {
+    return this.hedges.sum();
+  }
+
+  /**
+   * Gets the number of hedged reads answered by the hedge rather than the primary read.
+   *
+   * @return The count of hedges that won.
+   */
+  public long getHedgeWinCount() {
+    return this.hedgeWins.sum();
+  }
+
+  /**
+   * Gets the delay after which a read is currently hedged.
+   *
+   * @return The delay in nanoseconds, or zero if too few reads have been observed to hedge.
+   */
+  public long getHedgeDelayNanos() {
+    if (this.histogram.count() < MIN_SAMPLES) {
+      return 0;
+    }
+
+    return Math.max(MIN_DELAY_NANOS, this.histogram.percentile(this.percentile));
+  }
+
+  // Public methods
+
+  /**
+   * Reads a single key.
+   *
+   * @param key The prefixed etcd key.
+   * @param serializable Whether the primary read may be served from a member's local store. Hedges
+   *     are always serializable.
+   * @return The range response from whichever read completed first.
+   * @throws IllegalStateException If every read failed or the calling thread was interrupted.
+   */
+  public RangeResponse read(ByteString key, boolean serializable) {
+    int index = Math.floorMod(this.next.getAndIncrement(), this.members.size());
+
+    KvClient.FluentRangeRequest request = this.members.get(index).get(key);
+    if (serializable) {
+      request = request.serializable(true);
+    }
+
+    long start = System.nanoTime();
+    ListenableFuture<RangeResponse> primary = this.send(request);
+    primary.addListener(
+        () -> this.recordLatency(primary, start), MoreExecutors.directExecutor());
+    this.budget.onRead();
+
+    try {
+      long delay = this.getHedgeDelayNanos();
+      if (delay > 0) {
+        try {
+          return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+          return this.hedge(key, index, primary);
+        }
+      }
+
+      return primary.get();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(
+          "Unable to read key '" + key.toStringUtf8() + "'.", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(
+          "Interrupted while reading key '" + key.toStringUtf8() + "'.", e);
+    }
+  }
+
+  // Private methods
+  private ListenableFuture<RangeResponse> send(KvClient.FluentRangeRequest request) {
+    return this.executor != null ? request.async(this.executor) : request.async();
+  }
+
+  private RangeResponse hedge(
+      ByteString key, int primaryIndex, ListenableFuture<RangeResponse> primary)
+      throws ExecutionException, InterruptedException {
+    if (!this.budget.tryAcquire()) {
+      LOGGER.debug("Hedge budget exhausted; waiting for the primary read.");
+      return primary.get();
+    }
+
+    this.hedges.increment();
+    KvClient member = this.members.get((primaryIndex + 1) % this.members.size());
+    ListenableFuture<RangeResponse> hedge = this.send(member.get(key).serializable(true));
+    LOGGER.debug("Hedged read of key '{}' to another member.", key.toStringUtf8());
+
+    CompletableFuture<RangeResponse> first = new CompletableFuture<>();
+    AtomicInteger failures = new AtomicInteger();
+    primary.addListener(
+        () -> this.settle(primary, false, first, failures), MoreExecutors.directExecutor());
+    hedge.addListener(
+        () -> this.settle(hedge, true, first, failures), MoreExecutors.directExecutor());
+
+    try {
+      return first.get();
+    } finally {
+      // The primary is left to finish so its latency is still recorded
+      hedge.cancel(true);
+    }
+  }
+
+  private void settle(
+      ListenableFuture<RangeResponse> source,
+      boolean isHedge,
+      CompletableFuture<RangeResponse> first,
+      AtomicInteger failures) {
+    try {
+      if (first.complete(source.get()) && isHedge) {
+        this.hedgeWins.increment();
+      }
+    } catch (Exception e) {
+      if (failures.incrementAndGet() == 2) {
+        first.completeExceptionally(e instanceof ExecutionException ? e.getCause() : e);
+      }
+    }
+  }
+
+  private void recordLatency(ListenableFuture<RangeResponse> primary, long start) {
+    if (!primary.isCancelled()) {
+      this.histogram.record(System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package io.miscellanea.etcd;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Expands {@code ${key}} references in values and remembers the results. A graph from each key to
+ * the keys whose values reference it is kept alongside, so when a key changes only the expansions
+ * that depend on it, directly or transitively, are discarded. A key's edges are recorded with its
+ * expansion and removed when the expansion is discarded, including when the key is evicted from
+ * the cache, so the graph only ever holds keys whose expansions may still be in use.
+ *
+ * <p>Expansion reads the referenced values outside any lock, so an invalidation can race with an
+ * expansion that is still in flight. Each expansion therefore captures a generation number before
+ * it starts and is only remembered if no invalidation has happened since.
+ */
+class Interpolator {
+  // Constants
+  private static final String OPEN = "${";
+  private static final char CLOSE = '}';
+
+  // Fields
+  private final Map<String, String> expansions = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> references = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  // Public methods
+
+  /**
+   * Tests whether a value contains references.
+   *
+   * @param value The raw value.
+   * @return <code>true</code> if the value must be expanded, otherwise <code>false</code>.
+   */
+  public static boolean hasReferences(String value) {
+    return value.contains(OPEN);
+  }
+
+  /**
+   * Replaces each {@code ${key}} reference in {@code value}. References that cannot be resolved
+   * are left as they are.
+   *
+   * @param value The raw value.
+   * @param resolver Resolves a referenced key to its expanded value, or {@code null} if it has
+   *     none.
+   * @param references Receives every key referenced by {@code value}.
+   * @return The expanded value.
+   */
+  public static String expand(
+      String value, Function<String, String> resolver, Set<String> references) {
+    StringBuilder expanded = new StringBuilder(value.length() + 16);
+
+    int from = 0;
+    int open;
+    while ((open = value.indexOf(OPEN, from)) >= 0) {
+      int close = value.indexOf(CLOSE, open + OPEN.length());
+      if (close < 0) {
+        break;
+      }
+
+      String reference = value.substring(open + OPEN.length(), close);
+      String resolved = reference.isEmpty() ? null : resolver.apply(reference);
+      if (!reference.isEmpty()) {
+        references.add(reference);
+      }
+
+      expanded.append(value, from, open);
+      expanded.append(resolved != null ? resolved : value.substring(open, close + 1));
+      from = close + 1;
+    }
+
+    return expanded.append(value, from, value.length()).toString();
+  }
+
+  /**
+   * Gets a remembered expansion.
+   *
+   * @param key The key.
+   * @return The expanded value, or {@code null} if it is not remembered.
+   */
+  public String get(String key) {
+    return this.expansions.get(key);
+  }
+
+  /**
+   * Gets the current generation, to be passed to {@link #put} once an expansion completes.
+   *
+   * @return The generation.
+   */
+  public long generation() {
+    return this.generation.get();
+  }
+
+  /**
+   * Remembers an expansion and the keys it depends on, unless an invalidation has happened since
+   * {@code generation} was read.
+   *
+   * @param key The key.
+   * @param value The expanded value.
+   * @param references The keys {@code value} references.
+   * @param generation The generation read before the expansion started.
+   */
+  public synchronized void put(String key, String value, Set<String> references, long generation) {
+    if (this.generation.get() != generation) {
+      return;
+    }
+
+    this.unlink(key);
+    if (!references.isEmpty()) {
+      this.references.put(key, new HashSet<>(references));
+    }
+    for (String reference : references) {
+      this.dependents.computeIfAbsent(reference, k -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+    this.expansions.put(key, value);
+  }
+
+  /**
+   * Discards the expansions of {@code keys} and of every key that depends on them.
+   *
+   * @param keys The keys that changed.
+   * @return The number of expansions discarded.
+   */
+  public int invalidate(Collection<String> keys) {
+    return this.invalidate(keys, null);
+  }
+
+  /**
+   * Discards the expansions of {@code keys} and of every key that depends on them, collecting the
+   * keys whose expanded values may have changed as a result. The discarded keys' own references
+   * are forgotten; they are recorded again when the keys are next expanded.
+   *
+   * @param keys The keys that changed.
+   * @param affected Receives {@code keys} and every key that depends on them; may be {@code null}.
+   * @return The number of expansions discarded.
+   */
+  public synchronized int invalidate(Collection<String> keys, Set<String> affected) {
+    this.generation.incrementAndGet();
+
+    int discarded = 0;
+    Set<String> visited = new HashSet<>();
+    Deque<String> pending = new ArrayDeque<>(keys);
+    while (!pending.isEmpty()) {
+      String key = pending.pop();
+      if (visited.add(key)) {
+        if (this.expansions.remove(key) != null) {
+          discarded++;
+        }
+
+        Set<String> dependentKeys = this.dependents.get(key);
+        if (dependentKeys != null) {
+          pending.addAll(dependentKeys);
+        }
+      }
+    }
+
+    for (String key : visited) {
+      this.unlink(key);
+    }
+
+    if (affected != null) {
+      affected.addAll(visited);
+    }
+    return discarded;
+  }
+
+  /**
+   * Gets the number of remembered expansions.
+   *
+   * @return The expansion count.
+   */
+  public int size() {
+    return this.expansions.size();
+  }
+
+  // Private methods
+  /** Removes the edges from each key {@code key} references to {@code key}. */
+  private void unlink(String key) {
+    Set<String> referenced = this.references.remove(key);
+
+    if (referenced != null) {
+      for (String reference : referenced) {
+        Set<String> dependentKeys = this.dependents.get(reference);
+        if (dependentKeys != null) {
+          dependentKeys.remove(key);
+          if (dependentKeys.isEmpty()) {
+            this.dependents.remove(reference);
+          }
+        }
+      }
+    }
+  }
+}
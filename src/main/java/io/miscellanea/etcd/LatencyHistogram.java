@@ -0,0 +1,113 @@
+package io.miscellanea.etcd;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of request latencies. Latencies are counted in buckets that grow
+ * geometrically by 25% from {@link #MIN_LATENCY_NANOS}, which bounds the error of any percentile to
+ * one bucket while keeping the histogram to a few dozen counters. Once {@link #DECAY_THRESHOLD}
+ * samples have been recorded every count is halved, so percentiles follow recent behaviour rather
+ * than the whole life of the process.
+ */
+class LatencyHistogram {
+  // Constants
+  public static final long MIN_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  public static final long DECAY_THRESHOLD = 10000;
+
+  private static final double GROWTH = 1.25;
+  private static final int BUCKETS = 64;
+  private static final long[] UPPER_BOUNDS = new long[BUCKETS];
+
+  static {
+    double bound = MIN_LATENCY_NANOS;
+    for (int i = 0; i < BUCKETS; i++) {
+      UPPER_BOUNDS[i] = (long) bound;
+      bound *= GROWTH;
+    }
+  }
+
+  // Fields
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong total = new AtomicLong();
+
+  // Public methods
+
+  /**
+   * Records one latency sample.
+   *
+   * @param nanos The latency in nanoseconds.
+   */
+  public void record(long nanos) {
+    this.counts.incrementAndGet(bucketOf(nanos));
+    if (this.total.incrementAndGet() >= DECAY_THRESHOLD) {
+      this.decay();
+    }
+  }
+
+  /**
+   * Gets the number of samples currently held.
+   *
+   * @return The sample count, after decay.
+   */
+  public long count() {
+    return this.total.get();
+  }
+
+  /**
+   * Estimates a latency percentile.
+   *
+   * @param percentile The percentile, from 0 to 100.
+   * @return The upper bound of the bucket containing the percentile, in nanoseconds, or zero if no
+   *     samples have been recorded.
+   */
+  public long percentile(double percentile) {
+    long[] snapshot = new long[BUCKETS];
+    long samples = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = this.counts.get(i);
+      samples += snapshot[i];
+    }
+
+    if (samples == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(samples * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank && seen > 0) {
+        return UPPER_BOUNDS[i];
+      }
+    }
+
+    return UPPER_BOUNDS[BUCKETS - 1];
+  }
+
+  // Private methods
+  private static int bucketOf(long nanos) {
+    int bucket = 0;
+    while (bucket < BUCKETS - 1 && nanos > UPPER_BOUNDS[bucket]) {
+      bucket++;
+    }
+
+    return bucket;
+  }
+
+  private synchronized void decay() {
+    if (this.total.get() < DECAY_THRESHOLD) {
+      return;
+    }
+
+    long remaining = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      long count = this.counts.get(i);
+      long halved = count / 2;
+      // Subtract rather than set so samples recorded concurrently are not lost
+      remaining += this.counts.addAndGet(i, -(count - halved));
+    }
+    this.total.set(remaining);
+  }
+}
@@ -0,0 +1,87 @@
+package io.miscellanea.etcd;
+
+import com.ibm.etcd.api.LeaseTimeToLiveResponse;
+import com.ibm.etcd.client.lease.LeaseClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves the local expiry time of etcd leases. The remaining TTL of each lease is looked up once
+ * and remembered until it passes, so keys that share a lease cost a single lookup.
+ */
+class LeaseTracker {
+  // Constants
+
+  /** Returned when a lease has already expired and its keys should not be cached. */
+  public static final long EXPIRED = -1;
+
+  /** Returned when a key is not leased, or its lease could not be resolved. */
+  public static final long NEVER = 0;
+
+  private static final long LOOKUP_TIMEOUT_MILLIS = 5000;
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(LeaseTracker.class);
+
+  private final LeaseClient leaseClient;
+  private final Map<Long, Long> deadlines = new ConcurrentHashMap<>();
+
+  // Constructors
+  public LeaseTracker(LeaseClient leaseClient) {
+    if (leaseClient == null) {
+      throw new IllegalArgumentException("leaseClient must not be null.");
+    }
+
+    this.leaseClient = leaseClient;
+  }
+
+  // Public methods
+
+  /**
+   * Gets the {@link System#nanoTime()} at which a lease expires.
+   *
+   * @param leaseId The lease ID from a key's {@code KeyValue}; zero if the key is not leased.
+   * @return The lease's deadline, {@link #NEVER} if the key is not leased or the lease could not be
+   *     resolved, or {@link #EXPIRED} if the lease has already expired.
+   */
+  public long deadline(long leaseId) {
+    if (leaseId == 0) {
+      return NEVER;
+    }
+
+    long now = System.nanoTime();
+    Long deadline = this.deadlines.get(leaseId);
+    if (deadline != null && deadline - now > 0) {
+      return deadline;
+    }
+
+    try {
+      LeaseTimeToLiveResponse response =
+          this.leaseClient.ttl(leaseId).get(LOOKUP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+      if (response.getTTL() <= 0) {
+        LOGGER.debug("Lease {} has expired.", leaseId);
+        this.deadlines.remove(leaseId);
+        return EXPIRED;
+      }
+
+      deadline = now + TimeUnit.SECONDS.toNanos(response.getTTL());
+      this.deadlines.put(leaseId, deadline);
+      this.purgeExpired(now);
+      LOGGER.debug("Lease {} expires in {} second(s).", leaseId, response.getTTL());
+
+      return deadline;
+    } catch (Exception e) {
+      LOGGER.warn("Unable to resolve TTL for lease {}: {}", leaseId, e.getMessage());
+      return NEVER;
+    }
+  }
+
+  // Private methods
+  private void purgeExpired(long now) {
+    this.deadlines.values().removeIf(deadline -> deadline - now <= 0);
+  }
+}
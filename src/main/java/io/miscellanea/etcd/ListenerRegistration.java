@@ -0,0 +1,11 @@
+package io.miscellanea.etcd;
+
+/**
+ * A handle returned when a {@code ConfigChangeListener} is registered. Closing it stops further
+ * notifications and releases the underlying etcd watch.
+ */
+public interface ListenerRegistration extends AutoCloseable {
+  /** Removes the listener. Calling this method more than once has no effect. */
+  @Override
+  void close();
+}
@@ -0,0 +1,138 @@
+package io.miscellanea.etcd;
+
+/**
+ * Describes a single {@code getPropertyValue} call: the key, whether it was answered from the
+ * cache, and how long it and any etcd request it made took. Values are deliberately not recorded.
+ */
+public final class LookupEvent {
+  // Inner classes
+
+  /** The state of the cache when a lookup was made. */
+  public enum CacheState {
+    /** The key's value was cached. */
+    HIT,
+    /** The key was cached as absent from etcd. */
+    NEGATIVE_HIT,
+    /** The key was not cached, so etcd was called. */
+    MISS
+  }
+
+  // Fields
+  private final String key;
+  private final long startTimeMillis;
+  private final long startNanos;
+  private CacheState cacheState = CacheState.HIT;
+  private boolean found;
+  private boolean failed;
+  private long rpcNanos;
+  private long durationNanos;
+
+  // Constructors
+  LookupEvent(String key) {
+    this.key = key;
+    this.startTimeMillis = System.currentTimeMillis();
+    this.startNanos = System.nanoTime();
+  }
+
+  // Properties
+
+  /**
+   * Gets the key that was looked up.
+   *
+   * @return The key, without the configuration source's key prefix.
+   */
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the wall-clock time at which the lookup started.
+   *
+   * @return The start time in milliseconds since the epoch.
+   */
+  public long getStartTimeMillis() {
+    return startTimeMillis;
+  }
+
+  /**
+   * Gets the state of the cache when the lookup was made.
+   *
+   * @return The cache state.
+   */
+  public CacheState getCacheState() {
+    return cacheState;
+  }
+
+  /**
+   * Indicates whether the lookup returned a value.
+   *
+   * @return <code>true</code> if the key has a value, otherwise <code>false</code>.
+   */
+  public boolean isFound() {
+    return found;
+  }
+
+  /**
+   * Indicates whether the lookup failed with an error.
+   *
+   * @return <code>true</code> if an error occurred, otherwise <code>false</code>.
+   */
+  public boolean isFailed() {
+    return failed;
+  }
+
+  /**
+   * Gets the time spent waiting for etcd to answer the lookup's range request.
+   *
+   * @return The request's duration in nanoseconds, or zero if etcd was not called.
+   */
+  public long getRpcNanos() {
+    return rpcNanos;
+  }
+
+  /**
+   * Gets the total duration of the lookup.
+   *
+   * @return The duration in nanoseconds.
+   */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  // Recording
+  void miss() {
+    this.cacheState = CacheState.MISS;
+  }
+
+  void negativeHit() {
+    this.cacheState = CacheState.NEGATIVE_HIT;
+  }
+
+  void rpcCompleted(long rpcStartNanos) {
+    this.rpcNanos = System.nanoTime() - rpcStartNanos;
+  }
+
+  void complete(boolean found, boolean failed) {
+    this.found = found;
+    this.failed = failed;
+    this.durationNanos = System.nanoTime() - this.startNanos;
+  }
+
+  // Object
+  @Override
+  public String toString() {
+    return "LookupEvent{key='"
+        + key
+        + "', cacheState="
+        + cacheState
+        + ", found="
+        + found
+        + ", failed="
+        + failed
+        + ", rpcNanos="
+        + rpcNanos
+        + ", durationNanos="
+        + durationNanos
+        + '}';
+  }
+}
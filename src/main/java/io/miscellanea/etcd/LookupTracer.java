@@ -0,0 +1,19 @@
+package io.miscellanea.etcd;
+
+/**
+ * Receives a sample of the lookups made through an {@code EtcdConfigSource}, typically to forward
+ * them to an external tracing system.
+ *
+ * <p>Tracers are invoked synchronously on the thread that performed the lookup, after the lookup
+ * has completed, so they should return quickly. Exceptions thrown by a tracer are logged and
+ * otherwise ignored.
+ */
+@FunctionalInterface
+public interface LookupTracer {
+  /**
+   * Invoked after a sampled lookup completes.
+   *
+   * @param event The lookup's timing and outcome. It never includes the value that was read.
+   */
+  void onLookup(LookupEvent event);
+}
@@ -0,0 +1,403 @@
+package io.miscellanea.etcd;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable hash map implemented as a hash array mapped trie. Updates return a new map that
+ * shares all but the path to the changed entry with the original, so an update copies a handful of
+ * small arrays rather than the whole map, and any number of readers can use an old version while a
+ * new one is built. Keys must not be {@code null}.
+ *
+ * <p>Each node holds up to 32 slots, selected by five bits of the key's hash. Slots are stored as
+ * key/value pairs in a compact array indexed through a bitmap; a pair with a {@code null} key holds
+ * a child node. Keys whose hashes are fully equal share a collision node.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+final class PersistentHashMap<K, V> implements Iterable<Map.Entry<K, V>> {
+  // Inner classes
+  private abstract static class Node {
+    /** Key/value pairs; a {@code null} key marks a child node in the value position. */
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object find(int hash, int shift, Object key);
+
+    abstract Node put(int hash, int shift, Object key, Object value, int[] added);
+
+    /** Returns the node without {@code key}, {@code null} if that leaves it empty. */
+    abstract Node remove(int hash, int shift, Object key, int[] removed);
+  }
+
+  private static final class BitmapNode extends Node {
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    @Override
+    Object find(int hash, int shift, Object key) {
+      int bit = bit(hash, shift);
+      if ((this.bitmap & bit) == 0) {
+        return null;
+      }
+
+      int index = this.index(bit);
+      Object k = this.array[2 * index];
+      Object v = this.array[2 * index + 1];
+      if (k == null) {
+        return ((Node) v).find(hash, shift + SHIFT, key);
+      }
+      return key.equals(k) ? v : null;
+    }
+
+    @Override
+    Node put(int hash, int shift, Object key, Object value, int[] added) {
+      int bit = bit(hash, shift);
+      int index = this.index(bit);
+
+      if ((this.bitmap & bit) == 0) {
+        Object[] array = new Object[this.array.length + 2];
+        System.arraycopy(this.array, 0, array, 0, 2 * index);
+        array[2 * index] = key;
+        array[2 * index + 1] = value;
+        System.arraycopy(
+            this.array, 2 * index, array, 2 * index + 2, this.array.length - 2 * index);
+        added[0]++;
+        return new BitmapNode(this.bitmap | bit, array);
+      }
+
+      Object k = this.array[2 * index];
+      Object v = this.array[2 * index + 1];
+      if (k == null) {
+        Node child = ((Node) v).put(hash, shift + SHIFT, key, value, added);
+        return child == v ? this : this.with(2 * index + 1, child);
+      }
+
+      if (key.equals(k)) {
+        return v == value ? this : this.with(2 * index + 1, value);
+      }
+
+      added[0]++;
+      Node child = createNode(shift + SHIFT, k, v, hash, key, value);
+      Object[] array = this.array.clone();
+      array[2 * index] = null;
+      array[2 * index + 1] = child;
+      return new BitmapNode(this.bitmap, array);
+    }
+
+    @Override
+    Node remove(int hash, int shift, Object key, int[] removed) {
+      int bit = bit(hash, shift);
+      if ((this.bitmap & bit) == 0) {
+        return this;
+      }
+
+      int index = this.index(bit);
+      Object k = this.array[2 * index];
+      Object v = this.array[2 * index + 1];
+      if (k == null) {
+        Node child = ((Node) v).remove(hash, shift + SHIFT, key, removed);
+        if (child == v) {
+          return this;
+        }
+        if (child != null) {
+          return this.with(2 * index + 1, child);
+        }
+      } else if (!key.equals(k)) {
+        return this;
+      } else {
+        removed[0]++;
+      }
+
+      if (this.bitmap == bit) {
+        return null;
+      }
+
+      Object[] array = new Object[this.array.length - 2];
+      System.arraycopy(this.array, 0, array, 0, 2 * index);
+      System.arraycopy(
+          this.array, 2 * index + 2, array, 2 * index, this.array.length - 2 * index - 2);
+      return new BitmapNode(this.bitmap & ~bit, array);
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(this.bitmap & (bit - 1));
+    }
+
+    private BitmapNode with(int slot, Object value) {
+      Object[] array = this.array.clone();
+      array[slot] = value;
+      return new BitmapNode(this.bitmap, array);
+    }
+  }
+
+  private static final class CollisionNode extends Node {
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    @Override
+    Object find(int hash, int shift, Object key) {
+      int slot = this.slotOf(key);
+      return slot >= 0 ? this.array[slot + 1] : null;
+    }
+
+    @Override
+    Node put(int hash, int shift, Object key, Object value, int[] added) {
+      if (hash != this.hash) {
+        // Nest this node beneath a bitmap node, then add the new key beside it
+        return new BitmapNode(bit(this.hash, shift), new Object[] {null, this})
+            .put(hash, shift, key, value, added);
+      }
+
+      int slot = this.slotOf(key);
+      if (slot >= 0) {
+        if (this.array[slot + 1] == value) {
+          return this;
+        }
+        Object[] array = this.array.clone();
+        array[slot + 1] = value;
+        return new CollisionNode(hash, array);
+      }
+
+      Object[] array = new Object[this.array.length + 2];
+      System.arraycopy(this.array, 0, array, 0, this.array.length);
+      array[this.array.length] = key;
+      array[this.array.length + 1] = value;
+      added[0]++;
+      return new CollisionNode(hash, array);
+    }
+
+    @Override
+    Node remove(int hash, int shift, Object key, int[] removed) {
+      int slot = this.slotOf(key);
+      if (slot < 0) {
+        return this;
+      }
+
+      removed[0]++;
+      if (this.array.length == 2) {
+        return null;
+      }
+
+      Object[] array = new Object[this.array.length - 2];
+      System.arraycopy(this.array, 0, array, 0, slot);
+      System.arraycopy(this.array, slot + 2, array, slot, this.array.length - slot - 2);
+      return new CollisionNode(hash, array);
+    }
+
+    private int slotOf(Object key) {
+      for (int i = 0; i < this.array.length; i += 2) {
+        if (key.equals(this.array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
+
+  private static final class Entry<K, V> implements Map.Entry<K, V> {
+    private final K key;
+    private final V value;
+
+    private Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return this.key;
+    }
+
+    @Override
+    public V getValue() {
+      return this.value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException("Persistent map entries are immutable.");
+    }
+
+    @Override
+    public String toString() {
+      return this.key + "=" + this.value;
+    }
+  }
+
+  /** Walks the trie depth first, keeping one cursor per level. */
+  private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+    private final Deque<Object[]> arrays = new ArrayDeque<>();
+    private final Deque<Integer> positions = new ArrayDeque<>();
+    private Entry<K, V> next;
+
+    private EntryIterator(Node root) {
+      this.arrays.push(root.array);
+      this.positions.push(0);
+      this.advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (this.next == null) {
+        throw new NoSuchElementException();
+      }
+
+      Entry<K, V> current = this.next;
+      this.advance();
+      return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      this.next = null;
+
+      while (!this.arrays.isEmpty()) {
+        Object[] array = this.arrays.peek();
+        int position = this.positions.pop();
+        if (position >= array.length) {
+          this.arrays.pop();
+          continue;
+        }
+
+        this.positions.push(position + 2);
+        if (array[position] == null) {
+          this.arrays.push(((Node) array[position + 1]).array);
+          this.positions.push(0);
+        } else {
+          this.next = new Entry<>((K) array[position], (V) array[position + 1]);
+          return;
+        }
+      }
+    }
+  }
+
+  // Constants
+  private static final int SHIFT = 5;
+  private static final PersistentHashMap<?, ?> EMPTY =
+      new PersistentHashMap<>(new BitmapNode(0, new Object[0]), 0);
+
+  // Fields
+  private final Node root;
+  private final int size;
+
+  // Constructors
+  private PersistentHashMap(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  // Public methods
+
+  /**
+   * Gets the empty map.
+   *
+   * @param <K> The key type.
+   * @param <V> The value type.
+   * @return The shared empty map.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentHashMap<K, V> empty() {
+    return (PersistentHashMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Gets the value mapped to {@code key}.
+   *
+   * @param key The key.
+   * @return The value, or {@code null} if the key is not mapped.
+   */
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    return (V) this.root.find(hash(key), 0, key);
+  }
+
+  /**
+   * Maps {@code key} to {@code value}.
+   *
+   * @param key The key; must not be {@code null}.
+   * @param value The value.
+   * @return A map with the mapping, or this map if it already held it.
+   */
+  public PersistentHashMap<K, V> put(K key, V value) {
+    int[] added = new int[1];
+    Node root = this.root.put(hash(key), 0, key, value, added);
+    return root == this.root ? this : new PersistentHashMap<>(root, this.size + added[0]);
+  }
+
+  /**
+   * Removes the mapping for {@code key}.
+   *
+   * @param key The key.
+   * @return A map without the mapping, or this map if it held none.
+   */
+  public PersistentHashMap<K, V> remove(Object key) {
+    int[] removed = new int[1];
+    Node root = this.root.remove(hash(key), 0, key, removed);
+    if (root == this.root) {
+      return this;
+    }
+
+    return root != null
+        ? new PersistentHashMap<>(root, this.size - removed[0])
+        : PersistentHashMap.empty();
+  }
+
+  /**
+   * Gets the number of mappings.
+   *
+   * @return The map's size.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  // Iterable
+  @Override
+  public Iterator<Map.Entry<K, V>> iterator() {
+    return new EntryIterator<>(this.root);
+  }
+
+  // Private methods
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & 31);
+  }
+
+  private static Node createNode(
+      int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+    int hash1 = hash(key1);
+    if (hash1 == hash2) {
+      return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+    }
+
+    int[] added = new int[1];
+    return new BitmapNode(0, new Object[0])
+        .put(hash1, shift, key1, value1, added)
+        .put(hash2, shift, key2, value2, added);
+  }
+}
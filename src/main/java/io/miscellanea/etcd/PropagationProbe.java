@@ -0,0 +1,203 @@
+package io.miscellanea.etcd;
+
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.client.kv.KvClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures how long a change takes to travel from an etcd put to the configuration source's cache.
+ * At a fixed interval the probe writes a canary key, and the source reports each value its watch
+ * delivers for that key once the value is visible to lookups. The time from sending the put to
+ * that report is recorded in a {@link LatencyHistogram}.
+ *
+ * <p>Each probe writes values tagged with its own random ID and a sequence number, so several
+ * processes may share one canary key: each measures only its own writes. A write that is not
+ * delivered within {@link #DELIVERY_TIMEOUT_NANOS} is counted as lost.
+ */
+class PropagationProbe implements AutoCloseable {
+  // Constants
+  public static final long DELIVERY_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private static final char SEPARATOR = '#';
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(PropagationProbe.class);
+
+  private final KvClient client;
+  private final ByteString etcdKey;
+  private final BooleanSupplier watched;
+  private final long intervalMillis;
+  private final String id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+  private final LatencyHistogram histogram = new LatencyHistogram();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong lost = new AtomicLong();
+  private volatile ScheduledExecutorService scheduler;
+
+  // Constructors
+
+  /**
+   * Creates a probe.
+   *
+   * @param client The client used to write the canary.
+   * @param etcdKey The canary key, including the key prefix.
+   * @param watched Called before each write; reports whether the canary is currently cached and
+   *     watched. Writes made while it is not are not timed, since they cannot be delivered.
+   * @param intervalMillis The time between writes, in milliseconds.
+   */
+  public PropagationProbe(
+      KvClient client, ByteString etcdKey, BooleanSupplier watched, long intervalMillis) {
+    if (client == null) {
+      throw new IllegalArgumentException("client must not be null.");
+    }
+
+    if (etcdKey == null || etcdKey.isEmpty()) {
+      throw new IllegalArgumentException("etcdKey must not be null or empty.");
+    }
+
+    if (watched == null) {
+      throw new IllegalArgumentException("watched must not be null.");
+    }
+
+    if (intervalMillis < 1) {
+      throw new IllegalArgumentException("intervalMillis must be positive.");
+    }
+
+    this.client = client;
+    this.etcdKey = etcdKey;
+    this.watched = watched;
+    this.intervalMillis = intervalMillis;
+  }
+
+  // Public methods
+
+  /** Starts writing the canary at the probe's interval on a daemon thread owned by the probe. */
+  public synchronized void start() {
+    if (this.scheduler == null) {
+      this.scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "etcd-propagation-probe");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.scheduler.scheduleWithFixedDelay(
+          this::probe, 0, this.intervalMillis, TimeUnit.MILLISECONDS);
+      LOGGER.info(
+          "Probing change propagation through '{}' every {} ms.",
+          this.etcdKey.toStringUtf8(),
+          this.intervalMillis);
+    }
+  }
+
+  /**
+   * Reports a value delivered for the canary key. Values written by other probes are ignored.
+   *
+   * @param value The value now visible through the configuration source.
+   */
+  public void onDelivered(String value) {
+    long now = System.nanoTime();
+
+    int separator = value.indexOf(SEPARATOR);
+    if (separator < 0 || !this.id.equals(value.substring(0, separator))) {
+      return;
+    }
+
+    Long sentAt;
+    try {
+      sentAt = this.pending.remove(Long.parseLong(value.substring(separator + 1)));
+    } catch (NumberFormatException e) {
+      return;
+    }
+
+    if (sentAt != null) {
+      long latency = now - sentAt;
+      this.histogram.record(latency);
+      this.delivered.incrementAndGet();
+      LOGGER.debug("Canary delivered after {} us.", TimeUnit.NANOSECONDS.toMicros(latency));
+    }
+  }
+
+  /**
+   * Estimates a propagation latency percentile over recent deliveries.
+   *
+   * @param percentile The percentile, from 0 to 100.
+   * @return The latency in nanoseconds, or zero if nothing has been delivered.
+   */
+  public long percentile(double percentile) {
+    return this.histogram.percentile(percentile);
+  }
+
+  /**
+   * Gets the number of canary writes whose delivery was timed.
+   *
+   * @return The delivered count.
+   */
+  public long getDeliveredCount() {
+    return this.delivered.get();
+  }
+
+  /**
+   * Gets the number of canary writes that were not delivered in time.
+   *
+   * @return The lost count.
+   */
+  public long getLostCount() {
+    return this.lost.get();
+  }
+
+  // AutoCloseable
+  @Override
+  public synchronized void close() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+    }
+  }
+
+  // Package methods
+
+  /** Writes the canary once. Failures are logged rather than thrown, so probing continues. */
+  void probe() {
+    this.expirePending(System.nanoTime());
+
+    boolean timed = this.watched.getAsBoolean();
+    long seq = this.sequence.incrementAndGet();
+    if (timed) {
+      // Registered before the put, since the watch may deliver it before the put returns
+      this.pending.put(seq, System.nanoTime());
+    }
+
+    try {
+      this.client.put(this.etcdKey, ByteString.copyFromUtf8(this.id + SEPARATOR + seq)).sync();
+    } catch (RuntimeException e) {
+      this.pending.remove(seq);
+      LOGGER.warn("Unable to write canary '{}': {}", this.etcdKey.toStringUtf8(), e.getMessage());
+    }
+  }
+
+  // Private methods
+  private void expirePending(long now) {
+    for (Map.Entry<Long, Long> entry : this.pending.entrySet()) {
+      if (now - entry.getValue() > DELIVERY_TIMEOUT_NANOS
+          && this.pending.remove(entry.getKey(), entry.getValue())) {
+        this.lost.incrementAndGet();
+        LOGGER.warn(
+            "Canary {} was not delivered within {} s.",
+            entry.getKey(),
+            TimeUnit.NANOSECONDS.toSeconds(DELIVERY_TIMEOUT_NANOS));
+      }
+    }
+  }
+}
@@ -0,0 +1,257 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads every key under a prefix in pages, so that no single response has to hold the whole
+ * prefix. All pages are read at the revision current when the scan starts, giving a consistent
+ * snapshot. Large prefixes are split into sub-ranges on the first byte after the prefix, and the
+ * sub-ranges are paged concurrently, spread across the available clients.
+ *
+ * <p>Each page is handed to the sink and released before the next page of its sub-range is
+ * requested, so at most one page per sub-range is held in memory at a time. The sink runs on the
+ * configured executor or, without one, on a thread owned by the scan; never on the etcd client's
+ * callback threads, which a slow sink would stall.
+ *
+ * <p>The scan revision is taken from a linearizable read against the first client. A member that
+ * lags behind it answers with a "future revision" error, so a page that fails on any other client
+ * is retried against the first.
+ */
+class RangeScanner {
+  /**
+   * Receives the keys found by a scan. May be called concurrently for different sub-ranges when
+   * the scanner has an executor.
+   */
+  @FunctionalInterface
+  interface Sink {
+    void accept(KeyValue kv, long revision);
+  }
+
+  // Constants
+  // Sub-ranges divide the printable ASCII range, where configuration keys almost always start.
+  private static final int FIRST_SPLIT_BYTE = 0x21;
+  private static final int LAST_SPLIT_BYTE = 0x7f;
+  private static final ByteString ZERO = ByteString.copyFrom(new byte[] {0});
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(RangeScanner.class);
+
+  private final List<KvClient> clients;
+  private final Executor executor;
+  private final int pageSize;
+  private final int partitions;
+  private final boolean serializable;
+
+  // Constructors
+  public RangeScanner(
+      List<KvClient> clients,
+      Executor executor,
+      int pageSize,
+      int partitions,
+      boolean serializable) {
+    if (clients == null || clients.isEmpty()) {
+      throw new IllegalArgumentException("clients must contain at least one client.");
+    }
+
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("pageSize must be positive.");
+    }
+
+    if (partitions < 1 || partitions > LAST_SPLIT_BYTE - FIRST_SPLIT_BYTE) {
+      throw new IllegalArgumentException("partitions is out of range.");
+    }
+
+    this.clients = new ArrayList<>(clients);
+    this.executor = executor;
+    this.pageSize = pageSize;
+    this.partitions = partitions;
+    this.serializable = serializable;
+  }
+
+  // Public methods
+  /**
+   * Passes every key beginning with {@code prefix} to {@code sink}, returning once all of them
+   * have been delivered.
+   *
+   * @param prefix The prefix to scan; empty to scan the whole key space.
+   * @param sink Receives each key, along with the revision at which it was read.
+   * @return The revision at which the prefix was read.
+   * @throws IllegalStateException If a page cannot be read, for example because the scan's
+   *     revision was compacted while it was in progress.
+   */
+  public long scan(ByteString prefix, Sink sink) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("prefix must not be null.");
+    }
+
+    if (sink == null) {
+      throw new IllegalArgumentException("sink must not be null.");
+    }
+
+    ByteString start = prefix.isEmpty() ? ZERO : prefix;
+    ByteString end = prefixEnd(prefix);
+
+    ExecutorService owned = null;
+    Executor sinkExecutor = this.executor;
+    if (sinkExecutor == null) {
+      owned =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "etcd-range-scanner");
+                thread.setDaemon(true);
+                return thread;
+              });
+      sinkExecutor = owned;
+    }
+
+    try {
+      // Linearizable, so that no member can have committed a later revision than the scan's
+      RangeResponse count = this.clients.get(0).get(start).rangeEnd(end).countOnly().sync();
+      long revision = count.getHeader().getRevision();
+      if (count.getCount() == 0) {
+        return revision;
+      }
+
+      int parts = count.getCount() <= this.pageSize ? 1 : this.partitions;
+      List<ByteString> bounds = split(prefix, start, end, parts);
+      AtomicLong scanned = new AtomicLong();
+      List<ListenableFuture<Void>> ranges = new ArrayList<>();
+      for (int i = 0; i < parts; i++) {
+        KvClient client = this.clients.get(i % this.clients.size());
+        ranges.add(
+            this.scanRange(
+                client, bounds.get(i), bounds.get(i + 1), revision, sink, sinkExecutor, scanned));
+      }
+      Futures.allAsList(ranges).get();
+
+      LOGGER.debug(
+          "Scanned {} key(s) under prefix '{}' in {} sub-range(s) at revision {}.",
+          scanned.get(),
+          prefix.toStringUtf8(),
+          parts,
+          revision);
+      return revision;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while scanning prefix.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Unable to scan prefix: " + e.getCause().getMessage(), e);
+    } finally {
+      if (owned != null) {
+        owned.shutdown();
+      }
+    }
+  }
+
+  // Package methods
+  /**
+   * Computes the key immediately following every key that begins with {@code prefix}.
+   *
+   * @param prefix The prefix.
+   * @return The range end, or a single zero byte (meaning "no limit") if none exists.
+   */
+  static ByteString prefixEnd(ByteString prefix) {
+    byte[] bytes = prefix.toByteArray();
+
+    for (int i = bytes.length - 1; i >= 0; i--) {
+      if (bytes[i] != (byte) 0xff) {
+        bytes[i]++;
+        return ByteString.copyFrom(bytes, 0, i + 1);
+      }
+    }
+
+    return ZERO;
+  }
+
+  /**
+   * Divides the range from {@code start} to {@code end} into {@code parts} contiguous sub-ranges.
+   *
+   * @return The {@code parts + 1} boundaries of the sub-ranges, in ascending order.
+   */
+  static List<ByteString> split(ByteString prefix, ByteString start, ByteString end, int parts) {
+    List<ByteString> bounds = new ArrayList<>(parts + 1);
+
+    bounds.add(start);
+    for (int i = 1; i < parts; i++) {
+      int split = FIRST_SPLIT_BYTE + i * (LAST_SPLIT_BYTE - FIRST_SPLIT_BYTE) / parts;
+      bounds.add(prefix.concat(ByteString.copyFrom(new byte[] {(byte) split})));
+    }
+    bounds.add(end);
+
+    return bounds;
+  }
+
+  // Private methods
+  private ListenableFuture<Void> scanRange(
+      KvClient client,
+      ByteString from,
+      ByteString to,
+      long revision,
+      Sink sink,
+      Executor sinkExecutor,
+      AtomicLong scanned) {
+    ListenableFuture<RangeResponse> page = this.readPage(client, from, to, revision);
+
+    KvClient primary = this.clients.get(0);
+    if (client != primary) {
+      page =
+          Futures.catchingAsync(
+              page,
+              Exception.class,
+              e -> {
+                LOGGER.debug(
+                    "Unable to read page from cluster member ({}); retrying against the first "
+                        + "client.",
+                    e.getMessage());
+                return this.readPage(primary, from, to, revision);
+              },
+              MoreExecutors.directExecutor());
+    }
+
+    return Futures.transformAsync(
+        page,
+        response -> {
+          for (KeyValue kv : response.getKvsList()) {
+            sink.accept(kv, revision);
+          }
+          scanned.addAndGet(response.getKvsCount());
+
+          if (response.getMore() && response.getKvsCount() > 0) {
+            ByteString last = response.getKvs(response.getKvsCount() - 1).getKey();
+            return this.scanRange(
+                client, last.concat(ZERO), to, revision, sink, sinkExecutor, scanned);
+          }
+
+          return Futures.immediateFuture(null);
+        },
+        sinkExecutor);
+  }
+
+  private ListenableFuture<RangeResponse> readPage(
+      KvClient client, ByteString from, ByteString to, long revision) {
+    KvClient.FluentRangeRequest request =
+        this.withReadMode(client.get(from).rangeEnd(to)).revision(revision).limit(this.pageSize);
+
+    return this.executor != null ? request.async(this.executor) : request.async();
+  }
+
+  private KvClient.FluentRangeRequest withReadMode(KvClient.FluentRangeRequest request) {
+    return this.serializable ? request.serializable(true) : request;
+  }
+}
@@ -0,0 +1,59 @@
+package io.miscellanea.etcd;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket limiting the rate of etcd reads. The bucket refills at a fixed rate and holds at
+ * most a burst's worth of tokens; every read spends one, and a read that finds the bucket empty is
+ * refused rather than delayed. Rather than counting tokens, the bucket tracks the time at which it
+ * would next be full, so that acquiring a token is a single compare-and-set.
+ */
+class ReadRateLimiter {
+  // Fields
+  private final long intervalNanos;
+  private final long capacityNanos;
+  private final AtomicLong fullAt;
+
+  // Constructors
+  public ReadRateLimiter(int readsPerSecond, int burst) {
+    if (readsPerSecond < 1) {
+      throw new IllegalArgumentException("readsPerSecond must be positive.");
+    }
+
+    if (burst < 1) {
+      throw new IllegalArgumentException("burst must be positive.");
+    }
+
+    this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / readsPerSecond;
+    this.capacityNanos = this.intervalNanos * burst;
+    this.fullAt = new AtomicLong(System.nanoTime());
+  }
+
+  // Public methods
+
+  /**
+   * Spends a token, if one is available.
+   *
+   * @return {@code true} if the read may proceed.
+   */
+  public boolean tryAcquire() {
+    return this.tryAcquire(System.nanoTime());
+  }
+
+  // Package methods
+  boolean tryAcquire(long now) {
+    long current;
+    long next;
+    do {
+      current = this.fullAt.get();
+      // A bucket that filled in the past holds no more than its capacity
+      next = (current - now < 0 ? now : current) + this.intervalNanos;
+      if (next - now > this.capacityNanos) {
+        return false;
+      }
+    } while (!this.fullAt.compareAndSet(current, next));
+
+    return true;
+  }
+}
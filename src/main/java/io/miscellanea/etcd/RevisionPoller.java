@@ -0,0 +1,266 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.Event;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeRequest;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.api.RequestOp;
+import com.ibm.etcd.api.ResponseOp;
+import com.ibm.etcd.api.TxnRequest;
+import com.ibm.etcd.api.TxnResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Detects changes under a prefix by polling, for networks where long-lived watch streams cannot be
+ * kept open. Each poll is a single transaction holding two ranges over the prefix: a count of all
+ * its keys, and the keys modified since the previous poll. When nothing under the prefix has
+ * moved, the second range is empty, so a poll costs about as much as a count. Only keys that
+ * actually changed are ever transferred.
+ *
+ * <p>Deleted keys cannot be returned by a range, so deletions are inferred from the count: the
+ * prefix's new count is its previous count, plus the changed keys created since the previous
+ * poll, minus the keys deleted. Only when that shows a deletion are the tracked keys counted, at
+ * the poll's revision, to find which of them were removed.
+ *
+ * <p>Changes are reported as synthetic watch events, so they pass through the same path as events
+ * from a real watch.
+ */
+class RevisionPoller implements AutoCloseable {
+  /** Receives the changes found by a poll. */
+  @FunctionalInterface
+  interface Sink {
+    void accept(List<Event> events, long revision);
+  }
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(RevisionPoller.class);
+
+  private final KvClient client;
+  private final ByteString start;
+  private final ByteString end;
+  private final Supplier<Collection<ByteString>> tracked;
+  private final Sink sink;
+  private final AtomicLong polls = new AtomicLong();
+  private final AtomicLong fetched = new AtomicLong();
+  private long lastRevision;
+  private long lastCount;
+  private volatile ScheduledExecutorService scheduler;
+
+  // Constructors
+
+  /**
+   * Creates a poller.
+   *
+   * @param client The client used to poll.
+   * @param prefix The prefix to poll, including the key prefix; empty for the whole key space.
+   * @param tracked Supplies the keys whose deletion must be reported, including the key prefix.
+   * @param sink Receives the changes found by each poll.
+   */
+  public RevisionPoller(
+      KvClient client, ByteString prefix, Supplier<Collection<ByteString>> tracked, Sink sink) {
+    if (client == null) {
+      throw new IllegalArgumentException("client must not be null.");
+    }
+
+    if (prefix == null) {
+      throw new IllegalArgumentException("prefix must not be null.");
+    }
+
+    if (tracked == null) {
+      throw new IllegalArgumentException("tracked must not be null.");
+    }
+
+    if (sink == null) {
+      throw new IllegalArgumentException("sink must not be null.");
+    }
+
+    this.client = client;
+    this.start = prefix.isEmpty() ? KvClient.ALL_KEYS : prefix;
+    this.end = RangeScanner.prefixEnd(prefix);
+    this.tracked = tracked;
+    this.sink = sink;
+  }
+
+  // Public methods
+
+  /**
+   * Records the prefix's current revision and count, against which the first poll is compared.
+   * Values read after this returns are kept current by later polls.
+   *
+   * @return The revision at which the baseline was taken.
+   */
+  public synchronized long baseline() {
+    TxnResponse response = this.execute(this.range().setCountOnly(true));
+    this.lastRevision = response.getHeader().getRevision();
+    this.lastCount = response.getResponsesList().get(0).getResponseRange().getCount();
+
+    return this.lastRevision;
+  }
+
+  /**
+   * Polls every {@code intervalMillis} on a daemon thread owned by the poller.
+   *
+   * @param intervalMillis The time between polls, in milliseconds.
+   */
+  public synchronized void start(long intervalMillis) {
+    if (intervalMillis < 1) {
+      throw new IllegalArgumentException("intervalMillis must be positive.");
+    }
+
+    if (this.scheduler == null) {
+      this.scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "etcd-revision-poller");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.scheduler.scheduleWithFixedDelay(
+          this::pollQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+      LOGGER.info(
+          "Polling '{}' for changes every {} ms.", this.start.toStringUtf8(), intervalMillis);
+    }
+  }
+
+  /**
+   * Gets the number of polls completed.
+   *
+   * @return The poll count.
+   */
+  public long getPollCount() {
+    return this.polls.get();
+  }
+
+  /**
+   * Gets the number of changed keys transferred by polls.
+   *
+   * @return The fetched key count.
+   */
+  public long getFetchedCount() {
+    return this.fetched.get();
+  }
+
+  // AutoCloseable
+  @Override
+  public synchronized void close() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdownNow();
+      this.scheduler = null;
+    }
+  }
+
+  // Package methods
+
+  /**
+   * Polls once, reporting any changes to the sink.
+   *
+   * @return The revision at which the prefix was polled.
+   */
+  synchronized long poll() {
+    TxnResponse response =
+        this.execute(
+            this.range().setCountOnly(true),
+            this.range().setMinModRevision(this.lastRevision + 1));
+    long revision = response.getHeader().getRevision();
+    long count = response.getResponsesList().get(0).getResponseRange().getCount();
+    RangeResponse changed = response.getResponsesList().get(1).getResponseRange();
+
+    List<Event> events = new ArrayList<>(changed.getKvsCount());
+    long created = 0;
+    for (KeyValue kv : changed.getKvsList()) {
+      events.add(Event.newBuilder().setType(Event.EventType.PUT).setKv(kv).build());
+      if (kv.getCreateRevision() > this.lastRevision) {
+        created++;
+      }
+    }
+
+    long deleted = this.lastCount + created - count;
+    if (deleted > 0) {
+      events.addAll(this.findDeletions(revision));
+    }
+
+    this.lastRevision = revision;
+    this.lastCount = count;
+    this.polls.incrementAndGet();
+    this.fetched.addAndGet(changed.getKvsCount());
+
+    if (!events.isEmpty()) {
+      LOGGER.debug(
+          "Poll at revision {} found {} changed and {} deleted key(s).",
+          revision,
+          changed.getKvsCount(),
+          deleted);
+    }
+    this.sink.accept(events, revision);
+
+    return revision;
+  }
+
+  // Private methods
+  private void pollQuietly() {
+    try {
+      this.poll();
+    } catch (Exception e) {
+      LOGGER.warn("Unable to poll '{}' for changes: {}", this.start.toStringUtf8(), e.getMessage());
+    }
+  }
+
+  /**
+   * Counts each tracked key at the poll's revision and reports those that no longer exist. The
+   * keys are counted in batches of {@link Constants#MAX_TXN_OPS}, so the cost depends on the
+   * number of tracked keys rather than the size of the prefix. Pinning the counts to the poll's
+   * revision keeps keys created or deleted since the poll from hiding or misdating a deletion.
+   */
+  private List<Event> findDeletions(long revision) {
+    List<ByteString> keys = new ArrayList<>(this.tracked.get());
+    List<Event> deletions = new ArrayList<>();
+
+    for (int start = 0; start < keys.size(); start += Constants.MAX_TXN_OPS) {
+      List<ByteString> batch =
+          keys.subList(start, Math.min(keys.size(), start + Constants.MAX_TXN_OPS));
+      RangeRequest.Builder[] counts = new RangeRequest.Builder[batch.size()];
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] =
+            RangeRequest.newBuilder().setKey(batch.get(i)).setCountOnly(true).setRevision(revision);
+      }
+
+      List<ResponseOp> responses = this.execute(counts).getResponsesList();
+      for (int i = 0; i < batch.size(); i++) {
+        if (responses.get(i).getResponseRange().getCount() == 0) {
+          KeyValue deleted =
+              KeyValue.newBuilder().setKey(batch.get(i)).setModRevision(revision).build();
+          deletions.add(
+              Event.newBuilder().setType(Event.EventType.DELETE).setKv(deleted).build());
+        }
+      }
+    }
+
+    return deletions;
+  }
+
+  private RangeRequest.Builder range() {
+    return RangeRequest.newBuilder().setKey(this.start).setRangeEnd(this.end);
+  }
+
+  private TxnResponse execute(RangeRequest.Builder... ranges) {
+    TxnRequest.Builder txn = TxnRequest.newBuilder();
+    for (RangeRequest.Builder range : ranges) {
+      txn.addSuccess(RequestOp.newBuilder().setRequestRange(range.build()).build());
+    }
+
+    return Futures.getUnchecked(this.client.txn(txn.build()));
+  }
+}
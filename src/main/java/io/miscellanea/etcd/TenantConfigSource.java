@@ -0,0 +1,205 @@
+package io.miscellanea.etcd;
+
+import org.apache.deltaspike.core.spi.config.ConfigSource;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * A prefix-scoped view of a shared {@link EtcdConfigSource}. Lookups are delegated to the shared
+ * source with the view's prefix prepended, so every view uses the shared source's client, cache
+ * and watches. A view holds nothing but its prefix and, once DeltaSpike has registered one, its
+ * change callback.
+ *
+ * @author Jason Hallford
+ */
+public final class TenantConfigSource implements ConfigSource {
+  // Inner classes
+
+  /** The entries of a shared snapshot taken of a prefix, with the prefix removed. */
+  private static final class ScopedProperties extends AbstractMap<String, String> {
+    private final Map<String, String> shared;
+    private final String prefix;
+
+    private ScopedProperties(Map<String, String> shared, String prefix) {
+      this.shared = shared;
+      this.prefix = prefix;
+    }
+
+    @Override
+    public String get(Object key) {
+      return key instanceof String ? this.shared.get(this.prefix + key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return this.get(key) != null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+      return new AbstractSet<Map.Entry<String, String>>() {
+        @Override
+        public Iterator<Map.Entry<String, String>> iterator() {
+          return ScopedProperties.this.scopedEntries();
+        }
+
+        @Override
+        public int size() {
+          return ScopedProperties.this.shared.size();
+        }
+      };
+    }
+
+    private Iterator<Map.Entry<String, String>> scopedEntries() {
+      Iterator<Map.Entry<String, String>> entries = this.shared.entrySet().iterator();
+
+      return new Iterator<Map.Entry<String, String>>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+          Map.Entry<String, String> entry = entries.next();
+          return new SimpleImmutableEntry<>(
+              entry.getKey().substring(ScopedProperties.this.prefix.length()), entry.getValue());
+        }
+      };
+    }
+  }
+
+  // Fields
+  private final EtcdConfigSource shared;
+  private final String prefix;
+  private Consumer<Set<String>> onAttributeChange;
+
+  // Constructors
+  TenantConfigSource(EtcdConfigSource shared, String prefix) {
+    if (shared == null) {
+      throw new IllegalArgumentException("shared must not be null.");
+    }
+
+    if (prefix == null) {
+      throw new IllegalArgumentException("prefix must not be null.");
+    }
+
+    this.shared = shared;
+    this.prefix = prefix;
+  }
+
+  // Properties
+
+  /**
+   * Gets the prefix this view prepends to every key.
+   *
+   * @return The prefix, relative to the shared source's key prefix.
+   */
+  public String getPrefix() {
+    return this.prefix;
+  }
+
+  // Public methods
+
+  /**
+   * Gets a property's value, ensuring it is no staler than {@code maxStalenessMillis}.
+   *
+   * @param key The property's key, relative to this view's prefix.
+   * @param maxStalenessMillis The greatest acceptable age, in milliseconds, of the value.
+   * @return The value, or {@code null} if the key does not exist.
+   * @see EtcdConfigSource#getPropertyValue(String, long)
+   */
+  public String getPropertyValue(String key, long maxStalenessMillis) {
+    return this.shared.getPropertyValue(this.prefix + key, maxStalenessMillis);
+  }
+
+  /**
+   * Gets every property whose key begins with {@code prefix}, in key order.
+   *
+   * @param prefix The prefix, relative to this view's prefix.
+   * @return A read-only map of the matching properties, keyed relative to this view's prefix.
+   * @see EtcdConfigSource#getPropertiesWithPrefix(String)
+   */
+  public SortedMap<String, String> getPropertiesWithPrefix(String prefix) {
+    if (prefix == null) {
+      throw new IllegalArgumentException("prefix must not be null.");
+    }
+
+    SortedMap<String, String> scoped = new TreeMap<>();
+    for (Map.Entry<String, String> entry :
+        this.shared.getPropertiesWithPrefix(this.prefix + prefix).entrySet()) {
+      scoped.put(entry.getKey().substring(this.prefix.length()), entry.getValue());
+    }
+
+    return Collections.unmodifiableSortedMap(scoped);
+  }
+
+  // ConfigSource
+  @Override
+  public int getOrdinal() {
+    return this.shared.getOrdinal();
+  }
+
+  @Override
+  public Map<String, String> getProperties() {
+    return new ScopedProperties(this.shared.getProperties(this.prefix), this.prefix);
+  }
+
+  @Override
+  public String getPropertyValue(String key) {
+    return this.shared.getPropertyValue(this.prefix + key);
+  }
+
+  @Override
+  public String getConfigName() {
+    return this.shared.getConfigName() + " [" + this.prefix + "]";
+  }
+
+  @Override
+  public boolean isScannable() {
+    return false;
+  }
+
+  /**
+   * Receives DeltaSpike's change callback. Changes to the shared source are passed on for the keys
+   * beneath this view's prefix, with the prefix removed.
+   *
+   * @param reportAttributeChange The callback, or {@code null} to stop reporting changes.
+   * @see EtcdConfigSource#setOnAttributeChange(Consumer)
+   */
+  @Override
+  public synchronized void setOnAttributeChange(Consumer<Set<String>> reportAttributeChange) {
+    if (this.onAttributeChange != null) {
+      this.shared.removeAttributeChangeConsumer(this.onAttributeChange);
+      this.onAttributeChange = null;
+    }
+
+    if (reportAttributeChange != null) {
+      this.onAttributeChange = keys -> this.reportScoped(keys, reportAttributeChange);
+      this.shared.addAttributeChangeConsumer(this.onAttributeChange);
+    }
+  }
+
+  // Private methods
+  private void reportScoped(Set<String> keys, Consumer<Set<String>> reportAttributeChange) {
+    Set<String> scoped = new HashSet<>();
+    for (String key : keys) {
+      if (key.startsWith(this.prefix)) {
+        scoped.add(key.substring(this.prefix.length()));
+      }
+    }
+
+    if (!scoped.isEmpty()) {
+      reportAttributeChange.accept(scoped);
+    }
+  }
+}
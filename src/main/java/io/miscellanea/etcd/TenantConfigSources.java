@@ -0,0 +1,104 @@
+package io.miscellanea.etcd;
+
+import com.ibm.etcd.client.KvStoreClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates prefix-scoped configuration sources for many tenants over one shared {@link
+ * EtcdConfigSource}. The shared source is rooted at {@code etcd.cs.keyPrefix}; each tenant's view
+ * adds its own prefix beneath that root. All views share one etcd client, one cache and, when
+ * watching is enabled, one prefix watch over the root in place of a watch per key, so adding a
+ * tenant opens no connections or watches.
+ *
+ * <p>Views are not discovered by the Java Service Loader. Return them from a DeltaSpike {@code
+ * ConfigSourceProvider}, or query them directly.
+ *
+ * @author Jason Hallford
+ */
+public class TenantConfigSources implements AutoCloseable {
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(TenantConfigSources.class);
+
+  private final EtcdConfigSource shared;
+  private final ConcurrentMap<String, TenantConfigSource> views = new ConcurrentHashMap<>();
+
+  // Constructors
+
+  /**
+   * Creates a factory using the same system properties and configuration URL as the default
+   * {@code EtcdConfigSource}.
+   */
+  public TenantConfigSources() {
+    this(new CompositeEtcdConfig());
+  }
+
+  private TenantConfigSources(EtcdConfig etcdConfig) {
+    this(etcdConfig, Utils.buildKvStoreClient(etcdConfig), false);
+  }
+
+  /**
+   * Constructor for unit testing or non-framework usage.
+   *
+   * @param etcdConfig An initialized configuration loader; its key prefix is the tenants' root.
+   * @param kvClient An initialized <code>KvStoreClient</code> instance, closed with the factory.
+   */
+  public TenantConfigSources(EtcdConfig etcdConfig, KvStoreClient kvClient) {
+    this(etcdConfig, kvClient, true);
+  }
+
+  private TenantConfigSources(
+      EtcdConfig etcdConfig, KvStoreClient kvClient, boolean requireClient) {
+    this.shared = new EtcdConfigSource(etcdConfig, kvClient, null, requireClient, true);
+  }
+
+  // Properties
+
+  /**
+   * Gets the number of tenant views created.
+   *
+   * @return The view count.
+   */
+  public int getTenantCount() {
+    return this.views.size();
+  }
+
+  // Public methods
+
+  /**
+   * Gets the view for a tenant, creating it on first use. Repeated calls with the same prefix
+   * return the same view.
+   *
+   * @param tenantPrefix The tenant's prefix, relative to the root (e.g. "acme/").
+   * @return A configuration source that reads keys beneath {@code tenantPrefix}.
+   */
+  public TenantConfigSource forTenant(String tenantPrefix) {
+    if (tenantPrefix == null) {
+      throw new IllegalArgumentException("tenantPrefix must not be null.");
+    }
+
+    return this.views.computeIfAbsent(
+        tenantPrefix,
+        prefix -> {
+          LOGGER.debug("Creating configuration view for tenant prefix '{}'.", prefix);
+          return new TenantConfigSource(this.shared, prefix);
+        });
+  }
+
+  // AutoCloseable
+
+  /**
+   * Closes the shared configuration source, and with it every tenant view.
+   *
+   * @throws IOException If the client connection cannot be closed.
+   */
+  @Override
+  public void close() throws IOException {
+    this.views.clear();
+    this.shared.close();
+  }
+}
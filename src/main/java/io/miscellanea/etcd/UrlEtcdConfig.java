@@ -45,10 +45,26 @@ class UrlEtcdConfig implements EtcdConfig {
         });
   }
 
+  // Package methods
+  /**
+   * Reads a .properties document from {@code stream}, closing the stream when done.
+   *
+   * @param stream Supplies the stream to read.
+   * @return The loaded properties.
+   * @throws IOException If the stream cannot be opened or read.
+   */
+  static Properties loadProperties(InputStreamSupplier stream) throws IOException {
+    Properties loaded = new Properties();
+    try (InputStream in = stream.get()) {
+      loaded.load(in);
+    }
+    return loaded;
+  }
+
   // Private methods
   private void initializeProperties(InputStreamSupplier stream) {
-    try (InputStream in = stream.get()) {
-      this.props.load(in);
+    try {
+      this.props.putAll(loadProperties(stream));
       LOGGER.debug("Successfully loaded properties.");
     } catch (IOException e) {
       LOGGER.warn(
@@ -56,6 +72,43 @@ class UrlEtcdConfig implements EtcdConfig {
     }
   }
 
+  private Integer getIntegerProperty(String property) {
+    Long value = this.getLongProperty(property);
+
+    if (value != null && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)) {
+      LOGGER.warn("Value {} is out of range; {} == null.", value, property);
+      value = null;
+    }
+
+    return value != null ? Integer.valueOf(value.intValue()) : null;
+  }
+
+  private Long getLongProperty(String property) {
+    Long value = null;
+
+    if (!Strings.isNullOrEmpty(this.props.getProperty(property))) {
+      String strValue = this.props.getProperty(property);
+      try {
+        value = Long.parseLong(strValue);
+      } catch (Exception e) {
+        LOGGER.warn("Unable to convert ''{}'' to a number; {} == null.", strValue, property);
+      }
+    }
+
+    return value;
+  }
+
+  private Boolean getBooleanProperty(String property) {
+    Boolean value = null;
+
+    if (!Strings.isNullOrEmpty(this.props.getProperty(property))) {
+      value = Boolean.parseBoolean(this.props.getProperty(property));
+      LOGGER.debug("Converted ''{}'' to ''{}''.", this.props.getProperty(property), value);
+    }
+
+    return value;
+  }
+
   // EtcdConfig
   @Override
   public String getHost() {
@@ -134,4 +187,104 @@ class UrlEtcdConfig implements EtcdConfig {
 
     return prefix;
   }
+
+  @Override
+  public String getAccessProfile() {
+    return Strings.emptyToNull(this.props.getProperty(Constants.ACCESS_PROFILE_PROP));
+  }
+
+  @Override
+  public Boolean isSerializableReads() {
+    return this.getBooleanProperty(Constants.SERIALIZABLE_READS_PROP);
+  }
+
+  @Override
+  public Integer getCacheMaxSize() {
+    return this.getIntegerProperty(Constants.CACHE_MAX_SIZE_PROP);
+  }
+
+  @Override
+  public Long getCacheIdleTimeout() {
+    return this.getLongProperty(Constants.CACHE_IDLE_TIMEOUT_PROP);
+  }
+
+  @Override
+  public Boolean isCachingMisses() {
+    return this.getBooleanProperty(Constants.CACHE_MISSES_PROP);
+  }
+
+  @Override
+  public Boolean isJmxEnabled() {
+    return this.getBooleanProperty(Constants.JMX_PROP);
+  }
+
+  @Override
+  public Long getSlowLookupThreshold() {
+    return this.getLongProperty(Constants.SLOW_LOOKUP_THRESHOLD_PROP);
+  }
+
+  @Override
+  public String getExecutor() {
+    return Strings.emptyToNull(this.props.getProperty(Constants.EXECUTOR_PROP));
+  }
+
+  @Override
+  public Boolean isHedgingReads() {
+    return this.getBooleanProperty(Constants.HEDGE_READS_PROP);
+  }
+
+  @Override
+  public Integer getHedgePercentile() {
+    return this.getIntegerProperty(Constants.HEDGE_PERCENTILE_PROP);
+  }
+
+  @Override
+  public Integer getHedgeBudget() {
+    return this.getIntegerProperty(Constants.HEDGE_BUDGET_PROP);
+  }
+
+  @Override
+  public Boolean isPrefetchingVariants() {
+    return this.getBooleanProperty(Constants.PREFETCH_VARIANTS_PROP);
+  }
+
+  @Override
+  public String getEncryptionKeyFile() {
+    return Strings.emptyToNull(this.props.getProperty(Constants.ENCRYPTION_KEY_FILE_PROP));
+  }
+
+  @Override
+  public Boolean isInterpolating() {
+    return this.getBooleanProperty(Constants.INTERPOLATE_PROP);
+  }
+
+  @Override
+  public Integer getScanPageSize() {
+    return this.getIntegerProperty(Constants.SCAN_PAGE_SIZE_PROP);
+  }
+
+  @Override
+  public Integer getReadRateLimit() {
+    return this.getIntegerProperty(Constants.READ_RATE_LIMIT_PROP);
+  }
+
+  @Override
+  public Integer getReadBurst() {
+    return this.getIntegerProperty(Constants.READ_BURST_PROP);
+  }
+
+  @Override
+  public Long getPropagationProbeInterval() {
+    return this.getLongProperty(Constants.PROPAGATION_PROBE_INTERVAL_PROP);
+  }
+
+  @Override
+  public String getPropagationProbeKey() {
+    return Strings.emptyToNull(this.props.getProperty(Constants.PROPAGATION_PROBE_KEY_PROP));
+  }
+
+  @Override
+  public Long getPollInterval() {
+    return this.getLongProperty(Constants.POLL_INTERVAL_PROP);
+  }
 }
@@ -6,8 +6,13 @@ import com.ibm.etcd.client.KvStoreClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A collection of utility functions. This class should not be instantiated.
@@ -73,18 +78,100 @@ class Utils {
         builder = EtcdClient.forEndpoint(config.getHost(), config.getPort()).withPlainText();
       }
 
-      if (!Strings.isNullOrEmpty(config.getUser())
-          && !Strings.isNullOrEmpty(config.getPassword())) {
-        LOGGER.debug("Creating etcd KV store client with credentials.");
-        builder =
-            builder.withCredentials(config.getUser(), config.getPassword()).withImmediateAuth();
-      }
-
-      client = builder.build();
+      client = withCredentials(builder, config).build();
     } else {
       LOGGER.warn("Unable to load valid host and port configuration; config source is disabled.");
     }
 
     return client;
   }
+
+  /**
+   * Builds one {@code KvStoreClient} per cluster member listed in {@code config}, so that requests
+   * can be directed at a particular member.
+   *
+   * @param config The etcd configuration.
+   * @return The member clients, in the order the members are listed; empty if no members are
+   *     configured.
+   */
+  public static List<KvStoreClient> buildMemberClients(EtcdConfig config) {
+    List<KvStoreClient> clients = new ArrayList<>();
+
+    if (config.getClusterMembers() != null) {
+      for (String member : config.getClusterMembers()) {
+        LOGGER.debug("Building client for member {}.", member);
+        EtcdClient.Builder builder = EtcdClient.forEndpoints(Collections.singletonList(member));
+        if (member.contains("http:")) {
+          builder = builder.withPlainText();
+        }
+
+        clients.add(withCredentials(builder, config).build());
+      }
+    }
+
+    return clients;
+  }
+
+  /**
+   * Builds the executor described by {@code spec}: {@value Constants#VIRTUAL_EXECUTOR} for a
+   * virtual thread per task, or a positive thread count for a fixed pool of daemon threads. Virtual
+   * threads are created reflectively so the library still runs on JDKs that lack them.
+   *
+   * @param spec The executor specification; may be {@code null}.
+   * @return The executor, or {@code null} if {@code spec} is empty, invalid or unsupported by the
+   *     running JDK.
+   */
+  public static ExecutorService buildExecutor(String spec) {
+    ExecutorService executor = null;
+
+    if (!Strings.isNullOrEmpty(spec)) {
+      String trimmed = spec.trim();
+      if (Constants.VIRTUAL_EXECUTOR.equalsIgnoreCase(trimmed)) {
+        try {
+          Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+          executor = (ExecutorService) factory.invoke(null);
+          LOGGER.debug("Using a virtual thread per task executor.");
+        } catch (NoSuchMethodException e) {
+          LOGGER.warn("Virtual threads require JDK 21 or later; using the etcd client's threads.");
+        } catch (ReflectiveOperationException e) {
+          LOGGER.warn("Unable to create virtual thread executor: {}", e.getMessage());
+        }
+      } else {
+        try {
+          int threads = Integer.parseInt(trimmed);
+          if (threads > 0) {
+            AtomicInteger count = new AtomicInteger();
+            executor =
+                Executors.newFixedThreadPool(
+                    threads,
+                    runnable -> {
+                      Thread thread =
+                          new Thread(runnable, "etcd-config-worker-" + count.incrementAndGet());
+                      thread.setDaemon(true);
+                      return thread;
+                    });
+            LOGGER.debug("Using a fixed pool of {} thread(s).", threads);
+          }
+        } catch (NumberFormatException e) {
+          LOGGER.debug("Executor '{}' is not a thread count.", trimmed);
+        }
+
+        if (executor == null) {
+          LOGGER.warn("Ignoring invalid executor '{}'; using the etcd client's threads.", trimmed);
+        }
+      }
+    }
+
+    return executor;
+  }
+
+  // Private methods
+  private static EtcdClient.Builder withCredentials(EtcdClient.Builder builder, EtcdConfig config) {
+    if (!Strings.isNullOrEmpty(config.getUser()) && !Strings.isNullOrEmpty(config.getPassword())) {
+      LOGGER.debug("Creating etcd KV store client with credentials.");
+      builder = builder.withCredentials(config.getUser(), config.getPassword()).withImmediateAuth();
+    }
+
+    return builder;
+  }
 }
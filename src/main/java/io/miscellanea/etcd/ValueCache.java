@@ -0,0 +1,910 @@
+package io.miscellanea.etcd;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The configuration source's cache of etcd values.
+ *
+ * <p>Entries are stored compactly: keys are held relative to the configuration source's key
+ * prefix, exactly as callers ask for them, so the prefix is not repeated in every key and cache
+ * hits need not build the prefixed key at all. Values are held as UTF-8 bytes, with short values
+ * shared through a {@link ValuePool}, and are decoded when read.
+ *
+ * <p>Entries are held in an immutable {@link PersistentHashMap}, and every write builds a new
+ * version of it and installs it. Writers take a lock, so a large batch is never retried against a
+ * stream of smaller writes; readers never lock or wait, and simply read whichever version is
+ * current. Multi-key changes, such as the events in one watch
+ * update, are applied with {@link #applyChanges(Map, Set, Map, Set)} as one new version, so once
+ * any key of a batch has been observed, every later read observes the whole batch. Because old
+ * versions are never modified, {@link #snapshot()} can hand out a consistent view of every cached
+ * value without copying anything.
+ *
+ * <p>Alongside the map, the cached keys are kept in a sorted {@link ConcurrentSkipListSet}, so all
+ * the keys under a prefix can be found with a single range scan ({@link #getWithPrefix(String)}).
+ * The index is brought into line with the map after each write is installed, so it may briefly
+ * lag the map; every indexed key is checked against the map before it is read.
+ *
+ * <p>The cache may optionally be bounded. When it grows past its maximum size, the least recently
+ * read entries are evicted in bulk until it is back under 90% of the limit, which keeps the cost of
+ * eviction amortized across many inserts. Entries that have not been read for longer than the idle
+ * timeout are evicted as well; idle entries are swept opportunistically by the threads using the
+ * cache, so no background thread is needed. Every eviction is reported to the eviction listener.
+ *
+ * <p>The cache can also hold negative entries, recording that a key was confirmed absent from etcd.
+ * Reads of such keys return the {@link #ABSENT} sentinel, which callers must compare by identity.
+ *
+ * <p>Entries may also carry an absolute expiry time, such as the deadline of the etcd lease the key
+ * is attached to. Expired entries are treated as misses and evicted when next read.
+ *
+ * <p>Entries written with a revision are versioned: a write is applied only if it is newer than the
+ * entry it replaces, so a value read before a concurrent change cannot overwrite that change. The
+ * check is made under the write lock, against the entry the write replaces. Changes
+ * to keys that are not cached, and deletions, leave a tombstone recording their revision. A
+ * tombstone reads as a miss, but rejects any value older than the change it records. Tombstones
+ * are only needed while a read that may predate the change is in flight, so the caller removes
+ * them with {@link #removeTombstone(String)} once no such read remains. They are not counted by
+ * {@link #size()}.
+ *
+ * <p>Values written as secrets, such as decrypted values, are kept out of the value pool, which
+ * outlives the keys that use it, and out of snapshots, which callers may dump or log. They are
+ * only returned when their key is read directly.
+ */
+class ValueCache {
+  // Inner classes
+  private static class Entry {
+    /** The UTF-8 encoded value, {@code null} for a negative entry, or {@link #TOMBSTONE}. */
+    private final byte[] value;
+    /** The etcd revision the entry reflects, or zero if it is not versioned. */
+    private final long revision;
+    private final long expiresAt;
+    private volatile long lastAccess;
+
+    private Entry(byte[] value, long revision, long expiresAt, long lastAccess) {
+      this.value = value;
+      this.revision = revision;
+      this.expiresAt = expiresAt;
+      this.lastAccess = lastAccess;
+    }
+
+    private boolean isTombstone() {
+      return this.value == TOMBSTONE;
+    }
+
+    boolean isSecret() {
+      return false;
+    }
+
+    private String decode() {
+      return new String(this.value, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * An entry holding a secret. Secrets are rare, so they are marked by their class rather than by a
+   * field that every entry would have to carry.
+   */
+  private static final class SecretEntry extends Entry {
+    private SecretEntry(byte[] value, long revision, long expiresAt, long lastAccess) {
+      super(value, revision, expiresAt, lastAccess);
+    }
+
+    @Override
+    boolean isSecret() {
+      return true;
+    }
+  }
+
+  /**
+   * An immutable view of the values in one version of the cache, optionally limited to a sorted
+   * list of keys.
+   */
+  private static final class Snapshot extends AbstractMap<String, String> {
+    private final PersistentHashMap<String, ValueCache.Entry> values;
+    /** The keys in the view, in ascending order, or {@code null} for every key. */
+    private final List<String> keys;
+    private final long takenAt;
+    private Set<Map.Entry<String, String>> entrySet;
+
+    private Snapshot(
+        PersistentHashMap<String, ValueCache.Entry> values, List<String> keys, long takenAt) {
+      this.values = values;
+      this.keys = keys;
+      this.takenAt = takenAt;
+    }
+
+    @Override
+    public String get(Object key) {
+      if (!(key instanceof String) || !this.includes((String) key)) {
+        return null;
+      }
+
+      ValueCache.Entry entry = this.values.get(key);
+      return this.isVisible(entry) ? entry.decode() : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return this.get(key) != null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+      if (this.entrySet == null) {
+        this.entrySet = new SnapshotEntries(this);
+      }
+      return this.entrySet;
+    }
+
+    private boolean isVisible(ValueCache.Entry entry) {
+      return entry != null
+          && entry.value != null
+          && !entry.isTombstone()
+          && !entry.isSecret()
+          && (entry.expiresAt == 0 || this.takenAt - entry.expiresAt < 0);
+    }
+
+    private boolean includes(String key) {
+      return this.keys == null || Collections.binarySearch(this.keys, key) >= 0;
+    }
+
+    private Iterator<Map.Entry<String, ValueCache.Entry>> entries() {
+      if (this.keys == null) {
+        return this.values.iterator();
+      }
+
+      Iterator<String> keys = this.keys.iterator();
+      return new Iterator<Map.Entry<String, ValueCache.Entry>>() {
+        @Override
+        public boolean hasNext() {
+          return keys.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, ValueCache.Entry> next() {
+          String key = keys.next();
+          return new AbstractMap.SimpleImmutableEntry<>(key, Snapshot.this.values.get(key));
+        }
+      };
+    }
+  }
+
+  private static final class SnapshotEntries extends AbstractSet<Map.Entry<String, String>> {
+    private final Snapshot snapshot;
+    private int size = -1;
+
+    private SnapshotEntries(Snapshot snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+      Iterator<Map.Entry<String, Entry>> entries = this.snapshot.entries();
+
+      return new Iterator<Map.Entry<String, String>>() {
+        private Map.Entry<String, Entry> next = this.advance();
+
+        @Override
+        public boolean hasNext() {
+          return this.next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+          if (this.next == null) {
+            throw new NoSuchElementException();
+          }
+
+          Map.Entry<String, Entry> current = this.next;
+          this.next = this.advance();
+          return new AbstractMap.SimpleImmutableEntry<>(
+              current.getKey(), current.getValue().decode());
+        }
+
+        private Map.Entry<String, Entry> advance() {
+          while (entries.hasNext()) {
+            Map.Entry<String, Entry> candidate = entries.next();
+            if (SnapshotEntries.this.snapshot.isVisible(candidate.getValue())) {
+              return candidate;
+            }
+          }
+          return null;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      // The snapshot never changes, so its size need only be counted once
+      if (this.size < 0) {
+        int count = 0;
+        for (Iterator<Map.Entry<String, Entry>> i = this.snapshot.entries(); i.hasNext(); ) {
+          if (this.snapshot.isVisible(i.next().getValue())) {
+            count++;
+          }
+        }
+        this.size = count;
+      }
+      return this.size;
+    }
+  }
+
+  private static final class Candidate {
+    private final String key;
+    private final Entry entry;
+    private final long lastAccess;
+
+    private Candidate(String key, Entry entry) {
+      this.key = key;
+      this.entry = entry;
+      this.lastAccess = entry.lastAccess;
+    }
+  }
+
+  // Constants
+
+  /** Returned by {@link #get(String)} for keys known to be absent from etcd. */
+  @SuppressWarnings("StringOperationCanBeSimplified")
+  public static final String ABSENT = new String("<absent>");
+
+  // Marks an entry that records a change without caching a value; compared by identity
+  private static final byte[] TOMBSTONE = new byte[0];
+
+  // Approximate shallow sizes, in bytes, assuming a 64-bit JVM with compressed oops
+  // A trie slot costs two references; its share of the trie's node headers is about as much again
+  private static final int MAP_NODE_SIZE = 16;
+  private static final int ENTRY_SIZE = 40;
+  private static final int STRING_SIZE = 24;
+  private static final int ARRAY_HEADER_SIZE = 16;
+  // A skip list node, with its share of the index levels above it
+  private static final int INDEX_NODE_SIZE = 32;
+
+  // Fields
+  private final AtomicReference<PersistentHashMap<String, Entry>> values =
+      new AtomicReference<>(PersistentHashMap.empty());
+  private final ConcurrentSkipListSet<String> index = new ConcurrentSkipListSet<>();
+  private final Object writeLock = new Object();
+  private final AtomicInteger tombstones = new AtomicInteger();
+  private final ValuePool valuePool = new ValuePool();
+
+  private final int maxSize;
+  private final long idleTimeoutNanos;
+  private final boolean tracksAccess;
+  private final Consumer<String> evictionListener;
+
+  private final AtomicBoolean evicting = new AtomicBoolean(false);
+  private volatile long nextSweep;
+
+  // Constructors
+
+  /** Creates an unbounded cache. */
+  public ValueCache() {
+    this(0, 0, null);
+  }
+
+  /**
+   * Creates a cache that may be bounded by size, idle time, or both.
+   *
+   * @param maxSize The maximum number of entries, or zero for no limit.
+   * @param idleTimeoutMillis The time after which an unread entry is evicted, or zero to keep
+   *     entries until they are evicted for size.
+   * @param evictionListener Notified with the key of every evicted entry; may be {@code null}.
+   */
+  public ValueCache(int maxSize, long idleTimeoutMillis, Consumer<String> evictionListener) {
+    this.maxSize = Math.max(0, maxSize);
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleTimeoutMillis));
+    this.tracksAccess = this.maxSize > 0 || this.idleTimeoutNanos > 0;
+    this.evictionListener = evictionListener;
+    this.nextSweep = System.nanoTime() + this.idleTimeoutNanos;
+  }
+
+  // Public methods
+
+  /**
+   * Reads a cached value.
+   *
+   * @param key The key, relative to the key prefix.
+   * @return The cached value, {@link #ABSENT} if the key is cached as absent, or {@code null} if
+   *     the key is not cached.
+   */
+  public String get(String key) {
+    return this.read(this.values.get(), key);
+  }
+
+  /**
+   * Reads every cached value whose key begins with {@code prefix}, with one range scan of the
+   * sorted key index. All the values are read from the same version of the cache, and each counts
+   * as a read of its key. Keys cached as absent, tombstones, and expired values are left out.
+   *
+   * @param prefix The prefix, relative to the key prefix; empty for every key.
+   * @return A new map of the matching values, in key order.
+   */
+  public SortedMap<String, String> getWithPrefix(String prefix) {
+    PersistentHashMap<String, Entry> values = this.values.get();
+    SortedMap<String, String> matches = new TreeMap<>();
+
+    for (String key : this.index.tailSet(prefix)) {
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+
+      String value = this.read(values, key);
+      if (value != null && value != ABSENT) {
+        matches.put(key, value);
+      }
+    }
+
+    return matches;
+  }
+
+  /**
+   * Tests whether a key is cached, whether as a value, as absent, or as a tombstone. Unlike {@link
+   * #get(String)}, this does not count as a read of the key.
+   *
+   * @param key The key, relative to the key prefix.
+   * @return <code>true</code> if the cache holds an entry for the key, otherwise <code>false
+   *     </code>.
+   */
+  public boolean contains(String key) {
+    return this.values.get().get(key) != null;
+  }
+
+  /**
+   * Reads a cached value without counting as a read of the key, so it is never evicted as expired
+   * or idle along the way. Used to tell whether a write changed the value.
+   *
+   * @param key The key, relative to the key prefix.
+   * @return The cached value, {@link #ABSENT} if the key is cached as absent, or {@code null} if
+   *     the key is not cached or is a tombstone.
+   */
+  public String peek(String key) {
+    Entry entry = this.values.get().get(key);
+
+    if (entry == null || entry.isTombstone()) {
+      return null;
+    }
+
+    return entry.value != null ? entry.decode() : ABSENT;
+  }
+
+  /**
+   * Takes a snapshot of every cached value. Taking a snapshot is a single read of the current
+   * version of the cache: nothing is copied, and no lock is taken. Values are decoded as they are
+   * read from the snapshot, which never changes once taken. Keys cached as absent, tombstones,
+   * secrets, and values that had expired when the snapshot was taken are left out, and reading the
+   * snapshot does not count as reading its keys.
+   *
+   * @return A read-only map of cached values, keyed relative to the key prefix.
+   */
+  public Map<String, String> snapshot() {
+    return new Snapshot(this.values.get(), null, System.nanoTime());
+  }
+
+  /**
+   * Takes a snapshot of the cached values whose keys begin with {@code prefix}, as {@link
+   * #snapshot()} does. The matching keys are found with one range scan of the sorted key index, so
+   * the cost is proportional to the number of matches rather than the size of the cache.
+   *
+   * @param prefix The prefix, relative to the key prefix.
+   * @return A read-only map of the matching values, keyed relative to the key prefix.
+   */
+  public Map<String, String> snapshot(String prefix) {
+    PersistentHashMap<String, Entry> values = this.values.get();
+    List<String> keys = new ArrayList<>();
+
+    for (String key : this.index.tailSet(prefix)) {
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+      keys.add(key);
+    }
+
+    return new Snapshot(values, keys, System.nanoTime());
+  }
+
+  /**
+   * Caches a value read at a known revision, unless the cache already reflects a later one.
+   *
+   * @param key The key, relative to the key prefix.
+   * @param value The value; must not be {@code null}.
+   * @param expiresAt The {@link System#nanoTime()} after which the value is stale, or zero if it
+   *     does not expire.
+   * @param secret Whether the value is a secret, such as a decrypted value.
+   * @param revision The value's etcd mod revision, or zero to replace any cached entry.
+   * @return <code>true</code> if the value was cached, <code>false</code> if it was stale.
+   */
+  public boolean put(String key, String value, long expiresAt, boolean secret, long revision) {
+    return this.store(
+        key, entry(this.encode(value, secret), secret, revision, expiresAt, this.now()));
+  }
+
+  /**
+   * Records that a key was absent from etcd at a known revision, unless the cache already reflects
+   * a later one.
+   *
+   * @param key The key, relative to the key prefix.
+   * @param revision The revision at which the key was read, or zero to replace any cached entry.
+   * @return <code>true</code> if the entry was cached, <code>false</code> if it was stale.
+   */
+  public boolean putAbsent(String key, long revision) {
+    return this.store(key, new Entry(null, revision, 0, this.now()));
+  }
+
+  /**
+   * Removes every negative entry. Each one is reported to the eviction listener.
+   *
+   * @return The number of entries removed.
+   */
+  public int removeAbsent() {
+    int removed = 0;
+
+    for (Map.Entry<String, Entry> entry : this.values.get()) {
+      if (entry.getValue().value == null && this.evict(entry.getKey(), entry.getValue())) {
+        removed++;
+      }
+    }
+
+    return removed;
+  }
+
+  /**
+   * Gets the number of negative entries.
+   *
+   * @return The count of keys cached as absent.
+   */
+  public int absentCount() {
+    int count = 0;
+
+    for (Map.Entry<String, Entry> entry : this.values.get()) {
+      if (entry.getValue().value == null) {
+        count++;
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Tests whether a key's cached value carries an expiry time.
+   *
+   * @param key The key, relative to the key prefix.
+   * @return <code>true</code> if the key is cached with an expiry time, otherwise <code>false
+   *     </code>.
+   */
+  public boolean isExpiring(String key) {
+    Entry entry = this.values.get().get(key);
+    return entry != null && entry.expiresAt != 0;
+  }
+
+  /**
+   * Gets the cached keys, including those cached as absent and those holding tombstones.
+   *
+   * @return A live, read-only view of the cached keys. Each iteration walks the version of the
+   *     cache that was current when it began.
+   */
+  public Set<String> keys() {
+    return new AbstractSet<String>() {
+      @Override
+      public boolean contains(Object key) {
+        return key instanceof String && ValueCache.this.contains((String) key);
+      }
+
+      @Override
+      public Iterator<String> iterator() {
+        Iterator<Map.Entry<String, Entry>> entries = ValueCache.this.values.get().iterator();
+
+        return new Iterator<String>() {
+          @Override
+          public boolean hasNext() {
+            return entries.hasNext();
+          }
+
+          @Override
+          public String next() {
+            return entries.next().getKey();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return ValueCache.this.values.get().size();
+      }
+    };
+  }
+
+  /**
+   * Gets the keys cached with a value, secrets included. Keys cached as absent and tombstones are
+   * left out. No value is decoded, and listing the keys does not count as reading them.
+   *
+   * @return A new list of the keys, in no particular order.
+   */
+  public List<String> keysWithValues() {
+    List<String> keys = new ArrayList<>();
+
+    for (Map.Entry<String, Entry> entry : this.values.get()) {
+      Entry value = entry.getValue();
+      if (value.value != null && !value.isTombstone()) {
+        keys.add(entry.getKey());
+      }
+    }
+
+    return keys;
+  }
+
+  /**
+   * Removes a cached value. Removal is not reported to the eviction listener.
+   *
+   * @param key The key, relative to the key prefix.
+   */
+  public void remove(String key) {
+    while (true) {
+      Entry current = this.values.get().get(key);
+      if (current == null || this.removeIfSame(key, current)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes a key's tombstone. Other entries are left alone. Removal is not reported to the
+   * eviction listener.
+   *
+   * @param key The key, relative to the key prefix.
+   * @return <code>true</code> if a tombstone was removed, otherwise <code>false</code>.
+   */
+  public boolean removeTombstone(String key) {
+    Entry entry = this.values.get().get(key);
+    return entry != null && entry.isTombstone() && this.removeIfSame(key, entry);
+  }
+
+  /**
+   * Finds the keys beginning with {@code prefix} that hold tombstones, with one range scan of the
+   * sorted key index.
+   *
+   * @param prefix The prefix, relative to the key prefix.
+   * @return The matching keys, in key order.
+   */
+  public List<String> tombstonesWithPrefix(String prefix) {
+    PersistentHashMap<String, Entry> values = this.values.get();
+    List<String> keys = new ArrayList<>();
+
+    for (String key : this.index.tailSet(prefix)) {
+      if (!key.startsWith(prefix)) {
+        break;
+      }
+
+      Entry entry = values.get(key);
+      if (entry != null && entry.isTombstone()) {
+        keys.add(key);
+      }
+    }
+
+    return keys;
+  }
+
+  /**
+   * Applies a set of changes as one atomic transition. A {@code null} value removes the key; any
+   * other value replaces the cached value if, and only if, the key is currently cached or is
+   * admitted. Admitting keys keeps a range that is cached in full, such as a loaded prefix,
+   * complete as keys are created in it. A change with a revision is applied only if it is newer
+   * than the cached entry; versioned changes to keys that are not cached, and versioned removals,
+   * leave tombstones. The cost is proportional to the number of changes, not the size of the
+   * cache.
+   *
+   * @param changes The changes to apply, keyed relative to the key prefix.
+   * @param secrets The keys whose new values are secrets, such as decrypted values.
+   * @param revisions The etcd mod revision of each change; keys without one are not versioned.
+   * @param admitted The keys whose new values are cached whether or not the key is cached.
+   */
+  public void applyChanges(
+      Map<String, String> changes,
+      Set<String> secrets,
+      Map<String, Long> revisions,
+      Set<String> admitted) {
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    // Encode before taking the lock, so writers wait on each other for as short a time as possible
+    Map<String, byte[]> encoded = new HashMap<>(changes.size() * 2);
+    for (Map.Entry<String, String> change : changes.entrySet()) {
+      String value = change.getValue();
+      encoded.put(
+          change.getKey(),
+          value != null ? this.encode(value, secrets.contains(change.getKey())) : null);
+    }
+
+    long now = this.now();
+    synchronized (this.writeLock) {
+      PersistentHashMap<String, Entry> next = this.values.get();
+      int addedTombstones = 0;
+
+      for (Map.Entry<String, byte[]> change : encoded.entrySet()) {
+        String key = change.getKey();
+        byte[] value = change.getValue();
+        boolean secret = secrets.contains(key);
+        long revision = revisions.getOrDefault(key, 0L);
+        Entry entry = next.get(key);
+
+        if (entry == null && value != null && admitted.contains(key)) {
+          next = next.put(key, entry(value, secret, revision, 0, now));
+        } else if (revision != 0) {
+          next = applyVersioned(next, key, entry, value, secret, revision, now);
+        } else if (value == null) {
+          next = next.remove(key);
+        } else if (entry != null) {
+          next = next.put(key, entry(value, secret, 0, entry.expiresAt, entry.lastAccess));
+        }
+        addedTombstones += tombstoneDelta(entry, next.get(key));
+      }
+
+      this.values.set(next);
+      this.tombstones.addAndGet(addedTombstones);
+      for (String key : encoded.keySet()) {
+        this.reindex(key);
+      }
+    }
+
+    if (this.maxSize > 0 && this.size() > this.maxSize) {
+      this.evictLeastRecentlyUsed();
+    }
+  }
+
+  /**
+   * Gets the number of cached keys, including those cached as absent but not tombstones.
+   *
+   * @return The cache's size.
+   */
+  public int size() {
+    return Math.max(0, this.values.get().size() - this.tombstones.get());
+  }
+
+  /**
+   * Estimates the heap retained by the cache's entries. Shared values are counted once. The figure
+   * is an approximation based on typical object layouts, not a measurement.
+   *
+   * @return The estimated footprint in bytes.
+   */
+  public long footprint() {
+    long bytes = 0;
+    Set<byte[]> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    for (Map.Entry<String, Entry> entry : this.values.get()) {
+      bytes += MAP_NODE_SIZE + ENTRY_SIZE + INDEX_NODE_SIZE;
+      bytes += STRING_SIZE + ARRAY_HEADER_SIZE + entry.getKey().length();
+
+      byte[] value = entry.getValue().value;
+      if (value != null && value != TOMBSTONE && counted.add(value)) {
+        bytes += ARRAY_HEADER_SIZE + value.length;
+      }
+    }
+
+    return bytes;
+  }
+
+  // Private methods
+  private long now() {
+    return this.tracksAccess ? System.nanoTime() : 0;
+  }
+
+  /** Reads {@code key} from one version of the cache, evicting it if it has expired. */
+  private String read(PersistentHashMap<String, Entry> values, String key) {
+    Entry entry = values.get(key);
+
+    if (entry == null || entry.isTombstone()) {
+      return null;
+    }
+
+    if (entry.expiresAt != 0 && System.nanoTime() - entry.expiresAt >= 0) {
+      this.evict(key, entry);
+      return null;
+    }
+
+    if (this.tracksAccess) {
+      long now = System.nanoTime();
+      if (this.isIdle(entry, now)) {
+        this.evict(key, entry);
+        return null;
+      }
+
+      entry.lastAccess = now;
+      this.sweepIfDue(now);
+    }
+
+    return entry.value != null ? entry.decode() : ABSENT;
+  }
+
+  /**
+   * Adds {@code key} to, or removes it from, the sorted index to match the current map. Called with
+   * the write lock held, so no other write can change the map in between.
+   */
+  private void reindex(String key) {
+    if (this.contains(key)) {
+      this.index.add(key);
+    } else {
+      this.index.remove(key);
+    }
+  }
+
+  private boolean store(String key, Entry entry) {
+    if (!this.replaceIfNewer(key, entry)) {
+      return false;
+    }
+
+    if (this.tracksAccess) {
+      this.sweepIfDue(entry.lastAccess);
+      if (this.maxSize > 0 && this.size() > this.maxSize) {
+        this.evictLeastRecentlyUsed();
+      }
+    }
+    return true;
+  }
+
+  private boolean replaceIfNewer(String key, Entry entry) {
+    synchronized (this.writeLock) {
+      PersistentHashMap<String, Entry> values = this.values.get();
+      Entry current = values.get(key);
+      if (current != null && !supersedes(entry.revision, current)) {
+        return false;
+      }
+
+      this.values.set(values.put(key, entry));
+      this.tombstones.addAndGet(tombstoneDelta(current, entry));
+      if (current == null) {
+        this.reindex(key);
+      }
+      return true;
+    }
+  }
+
+  /** Removes {@code key} if, and only if, it still maps to {@code entry}. */
+  private boolean removeIfSame(String key, Entry entry) {
+    synchronized (this.writeLock) {
+      PersistentHashMap<String, Entry> values = this.values.get();
+      if (values.get(key) != entry) {
+        return false;
+      }
+
+      this.values.set(values.remove(key));
+      this.tombstones.addAndGet(tombstoneDelta(entry, null));
+      this.reindex(key);
+      return true;
+    }
+  }
+
+  private static PersistentHashMap<String, Entry> applyVersioned(
+      PersistentHashMap<String, Entry> values,
+      String key,
+      Entry current,
+      byte[] value,
+      boolean secret,
+      long revision,
+      long now) {
+    if (current != null && !supersedes(revision, current)) {
+      return values;
+    }
+
+    Entry next;
+    if (current == null) {
+      next = new Entry(TOMBSTONE, revision, 0, now);
+    } else if (value == null) {
+      next = new Entry(TOMBSTONE, revision, 0, current.lastAccess);
+    } else {
+      next = entry(value, secret, revision, current.expiresAt, current.lastAccess);
+    }
+
+    return values.put(key, next);
+  }
+
+  /** Gets how the tombstone count changes when {@code before} is replaced by {@code after}. */
+  private static int tombstoneDelta(Entry before, Entry after) {
+    return (after != null && after.isTombstone() ? 1 : 0)
+        - (before != null && before.isTombstone() ? 1 : 0);
+  }
+
+  /**
+   * Tests whether a write at {@code revision} may replace {@code current}. Unversioned writes
+   * always may. A tombstone yields to anything from its own revision on, since it records only
+   * that the key changed; other entries yield only to strictly later revisions.
+   */
+  private static boolean supersedes(long revision, Entry current) {
+    if (revision == 0 || current.revision == 0) {
+      return true;
+    }
+
+    return current.isTombstone() ? revision >= current.revision : revision > current.revision;
+  }
+
+  private static Entry entry(
+      byte[] value, boolean secret, long revision, long expiresAt, long lastAccess) {
+    return secret
+        ? new SecretEntry(value, revision, expiresAt, lastAccess)
+        : new Entry(value, revision, expiresAt, lastAccess);
+  }
+
+  private byte[] encode(String value, boolean secret) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    return secret ? bytes : this.valuePool.intern(bytes);
+  }
+
+  private boolean isIdle(Entry entry, long now) {
+    return this.idleTimeoutNanos > 0 && now - entry.lastAccess > this.idleTimeoutNanos;
+  }
+
+  private boolean evict(String key, Entry entry) {
+    if (!this.removeIfSame(key, entry)) {
+      return false;
+    }
+
+    if (this.evictionListener != null) {
+      this.evictionListener.accept(key);
+    }
+    return true;
+  }
+
+  private void sweepIfDue(long now) {
+    if (this.idleTimeoutNanos > 0
+        && now - this.nextSweep > 0
+        && this.evicting.compareAndSet(false, true)) {
+      try {
+        this.nextSweep = now + this.idleTimeoutNanos / 2;
+        for (Map.Entry<String, Entry> candidate : this.values.get()) {
+          if (this.isIdle(candidate.getValue(), now)) {
+            this.evict(candidate.getKey(), candidate.getValue());
+          }
+        }
+      } finally {
+        this.evicting.set(false);
+      }
+    }
+  }
+
+  private void evictLeastRecentlyUsed() {
+    if (!this.evicting.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      // Snapshot access times so concurrent reads can't reorder entries mid-sort. Tombstones hold
+      // no value, so they neither count towards the limit nor are evicted to meet it.
+      PersistentHashMap<String, Entry> values = this.values.get();
+      List<Candidate> candidates = new ArrayList<>(values.size());
+      for (Map.Entry<String, Entry> entry : values) {
+        if (!entry.getValue().isTombstone()) {
+          candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+        }
+      }
+
+      int excess = candidates.size() - (this.maxSize - this.maxSize / 10);
+      if (excess > 0) {
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+        for (int i = 0; i < excess && i < candidates.size(); i++) {
+          this.evict(candidates.get(i).key, candidates.get(i).entry);
+        }
+      }
+    } finally {
+      this.evicting.set(false);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package io.miscellanea.etcd;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Decrypts tagged etcd values with AES-GCM. An encrypted value has the form {@code
+ * {aes-gcm}<base64>}, where the base64 payload is a 12 byte IV followed by the ciphertext and its
+ * 16 byte authentication tag. Values without the tag are plain text and are never touched.
+ */
+class ValueCipher {
+  // Constants
+  public static final String TAG = "{aes-gcm}";
+
+  private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+  private static final int IV_LENGTH = 12;
+  private static final int TAG_BITS = 128;
+
+  // Fields
+  private static final Logger LOGGER = LoggerFactory.getLogger(ValueCipher.class);
+
+  private final SecretKeySpec key;
+
+  // Constructors
+  public ValueCipher(byte[] key) {
+    if (key == null) {
+      throw new IllegalArgumentException("key must not be null.");
+    }
+
+    if (key.length != 16 && key.length != 24 && key.length != 32) {
+      throw new IllegalArgumentException("key must be 128, 192 or 256 bits long.");
+    }
+
+    this.key = new SecretKeySpec(key, "AES");
+  }
+
+  // Public methods
+
+  /**
+   * Creates a cipher from a file containing a base64-encoded AES key.
+   *
+   * @param file The key file.
+   * @return The cipher.
+   * @throws IOException If the file cannot be read.
+   * @throws IllegalArgumentException If the file does not contain a valid key.
+   */
+  public static ValueCipher fromKeyFile(Path file) throws IOException {
+    String encoded = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+    LOGGER.debug("Loaded encryption key from {}.", file);
+
+    return new ValueCipher(Base64.getDecoder().decode(encoded));
+  }
+
+  /**
+   * Tests whether a value is tagged as encrypted.
+   *
+   * @param value The raw etcd value; may be {@code null}.
+   * @return <code>true</code> if the value carries the encryption tag, otherwise <code>false
+   *     </code>.
+   */
+  public static boolean isEncrypted(String value) {
+    return value != null && value.startsWith(TAG);
+  }
+
+  /**
+   * Decrypts a tagged value.
+   *
+   * @param value A value carrying the encryption tag.
+   * @return The plain text.
+   * @throws GeneralSecurityException If the value is malformed, was encrypted with another key, or
+   *     has been tampered with.
+   */
+  public String decrypt(String value) throws GeneralSecurityException {
+    byte[] payload;
+    try {
+      payload = Base64.getDecoder().decode(value.substring(TAG.length()));
+    } catch (IllegalArgumentException e) {
+      throw new GeneralSecurityException("Encrypted value is not valid base64.", e);
+    }
+
+    if (payload.length < IV_LENGTH + TAG_BITS / 8) {
+      throw new GeneralSecurityException("Encrypted value is too short.");
+    }
+
+    Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+    cipher.init(
+        Cipher.DECRYPT_MODE, this.key, new GCMParameterSpec(TAG_BITS, payload, 0, IV_LENGTH));
+    byte[] plain = cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+
+    return new String(plain, StandardCharsets.UTF_8);
+  }
+}
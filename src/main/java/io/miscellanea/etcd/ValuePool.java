@@ -0,0 +1,89 @@
+package io.miscellanea.etcd;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns short UTF-8 encoded values so that identical values, such as "true", "false" or a shared
+ * host name, are stored once no matter how many keys hold them. Only values up to {@link
+ * #MAX_POOLED_LENGTH} bytes are pooled, and the pool stops growing once it holds {@link
+ * #MAX_POOLED_VALUES} distinct values, which keeps it from retaining large or one-off values after
+ * the keys that used them are gone.
+ */
+class ValuePool {
+  // Inner classes
+  private static final class Bytes {
+    private final byte[] bytes;
+    private final int hash;
+
+    private Bytes(byte[] bytes) {
+      this.bytes = bytes;
+      this.hash = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Bytes && Arrays.equals(this.bytes, ((Bytes) other).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+  }
+
+  // Constants
+  public static final int MAX_POOLED_LENGTH = 64;
+  public static final int MAX_POOLED_VALUES = 16384;
+
+  // Fields
+  private final ConcurrentHashMap<Bytes, byte[]> pool = new ConcurrentHashMap<>();
+
+  // Public methods
+
+  /**
+   * Returns the canonical instance of {@code value}.
+   *
+   * @param value A UTF-8 encoded value.
+   * @return A previously pooled array with the same contents, or {@code value} itself.
+   */
+  public byte[] intern(byte[] value) {
+    if (value.length > MAX_POOLED_LENGTH) {
+      return value;
+    }
+
+    Bytes key = new Bytes(value);
+    byte[] pooled = this.pool.get(key);
+    if (pooled == null) {
+      if (this.pool.size() >= MAX_POOLED_VALUES) {
+        return value;
+      }
+
+      pooled = this.pool.putIfAbsent(key, value);
+      if (pooled == null) {
+        pooled = value;
+      }
+    }
+
+    return pooled;
+  }
+
+  /**
+   * Tests whether {@code value} is the pooled instance of its contents.
+   *
+   * @param value A UTF-8 encoded value.
+   * @return {@code true} if the array is shared through this pool.
+   */
+  public boolean isPooled(byte[] value) {
+    return value.length <= MAX_POOLED_LENGTH && this.pool.get(new Bytes(value)) == value;
+  }
+
+  /**
+   * Gets the number of distinct values in the pool.
+   *
+   * @return The pool's size.
+   */
+  public int size() {
+    return this.pool.size();
+  }
+}
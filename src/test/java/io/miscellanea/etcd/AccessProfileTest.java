@@ -0,0 +1,63 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test suite for {@code AccessProfile}.
+ */
+public class AccessProfileTest {
+
+    // Tests
+    @Test
+    @DisplayName("Profile Throws Exception with a Null Path")
+    void throwsWithANullPath() {
+        Throwable exception = assertThrows(IllegalArgumentException.class, () -> new AccessProfile(null));
+
+        assertThat(exception.getMessage()).contains("file")
+                .contains("must not")
+                .contains("null");
+    }
+
+    @Test
+    @DisplayName("Missing Profile Loads as Empty")
+    void missingProfileLoadsAsEmpty(@TempDir Path dir) {
+        AccessProfile profile = new AccessProfile(dir.resolve("missing.profile"));
+
+        assertThat(profile.load()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Served Keys Survive a Save and Load")
+    void servedKeysSurviveSaveAndLoad(@TempDir Path dir) {
+        Path file = dir.resolve("nested").resolve("keys.profile");
+
+        AccessProfile first = new AccessProfile(file);
+        first.record("b.key");
+        first.record("a.key");
+        first.record("b.key");
+        first.save();
+
+        AccessProfile second = new AccessProfile(file);
+        assertThat(second.load()).containsExactly("a.key", "b.key");
+    }
+
+    @Test
+    @DisplayName("Blank Lines and Comments are Ignored")
+    void blankLinesAndCommentsAreIgnored(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("keys.profile");
+        Files.write(file, Arrays.asList("# comment", "", "  first.key  ", "second.key"), StandardCharsets.UTF_8);
+
+        AccessProfile profile = new AccessProfile(file);
+        assertThat(profile.load()).containsExactly("first.key", "second.key");
+    }
+}
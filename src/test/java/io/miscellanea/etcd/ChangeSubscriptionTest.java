@@ -0,0 +1,115 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test suite for {@code ChangeSubscription}.
+ */
+public class ChangeSubscriptionTest {
+    // Fields
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final List<String> notifications = new ArrayList<>();
+    private ChangeSubscription pendingSubscription;
+
+    // Tests
+    @Test
+    @DisplayName("Subscription Throws Exception with a Null Listener")
+    void throwsWithANullListener() {
+        Throwable exception = assertThrows(IllegalArgumentException.class, () ->
+                new ChangeSubscription("key", false, null, tasks::add, null));
+
+        assertThat(exception.getMessage()).contains("listener")
+                .contains("must not")
+                .contains("null");
+    }
+
+    @Test
+    @DisplayName("Queued Changes to a Key are Coalesced")
+    void queuedChangesAreCoalesced() {
+        ChangeSubscription subscription = this.newSubscription();
+
+        subscription.offer("key", "a", "b");
+        subscription.offer("key", "b", "c");
+        subscription.offer("key", "c", "d");
+        this.runTasks();
+
+        assertThat(notifications).containsExactly("key:a->d");
+    }
+
+    @Test
+    @DisplayName("Changes that Cancel Out are Not Delivered")
+    void changesThatCancelOutAreNotDelivered() {
+        ChangeSubscription subscription = this.newSubscription();
+
+        subscription.offer("key", "a", "b");
+        subscription.offer("key", "b", "a");
+        this.runTasks();
+
+        assertThat(notifications).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Changes to a Key are Delivered in Order")
+    void changesAreDeliveredInOrder() {
+        ChangeSubscription subscription =
+                new ChangeSubscription("", true, (key, oldValue, newValue) -> {
+                    notifications.add(key + ":" + oldValue + "->" + newValue);
+                    if ("b".equals(newValue)) {
+                        // Arrives while the first notification is being delivered
+                        this.offerLater("key", "b", "c");
+                    }
+                }, tasks::add, null);
+        this.pendingSubscription = subscription;
+
+        subscription.offer("key", "a", "b");
+        subscription.offer("other", null, "x");
+        this.runTasks();
+
+        assertThat(notifications).containsExactly("key:a->b", "key:b->c", "other:null->x");
+        assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Closed Subscriptions Deliver Nothing")
+    void closedSubscriptionsDeliverNothing() {
+        List<ChangeSubscription> closed = new ArrayList<>();
+        ChangeSubscription subscription =
+                new ChangeSubscription("key", false, (key, oldValue, newValue) ->
+                        notifications.add(key), tasks::add, closed::add);
+
+        subscription.offer("key", "a", "b");
+        subscription.close();
+        subscription.close();
+        subscription.offer("key", "b", "c");
+        this.runTasks();
+
+        assertThat(notifications).isEmpty();
+        assertThat(closed).containsExactly(subscription);
+    }
+
+    // Utility methods
+    private ChangeSubscription newSubscription() {
+        return new ChangeSubscription("key", false, (key, oldValue, newValue) ->
+                notifications.add(key + ":" + oldValue + "->" + newValue), tasks::add, null);
+    }
+
+    private void offerLater(String key, String oldValue, String newValue) {
+        this.pendingSubscription.offer(key, oldValue, newValue);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -36,6 +36,28 @@ public class CompositeEtcdConfigTest {
         assertThat(testConfig.getOrdinal()).isEqualTo(Constants.DEFAULT_ORDINAL);
     }
 
+    @Test
+    @DisplayName("Serializable Reads are Disabled When Not Set")
+    void serializableReadsAreDisabledWhenNotSet(){
+        EtcdConfig config1 = mock(EtcdConfig.class);
+        when(config1.isSerializableReads()).thenReturn(null);
+
+        EtcdConfig testConfig = new CompositeEtcdConfig(config1);
+        assertThat(testConfig.isSerializableReads()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Cache is Unbounded When Not Set")
+    void cacheIsUnboundedWhenNotSet(){
+        EtcdConfig config1 = mock(EtcdConfig.class);
+        when(config1.getCacheMaxSize()).thenReturn(null);
+        when(config1.getCacheIdleTimeout()).thenReturn(null);
+
+        EtcdConfig testConfig = new CompositeEtcdConfig(config1);
+        assertThat(testConfig.getCacheMaxSize()).isEqualTo(Constants.DEFAULT_CACHE_MAX_SIZE);
+        assertThat(testConfig.getCacheIdleTimeout()).isEqualTo(Constants.DEFAULT_CACHE_IDLE_TIMEOUT);
+    }
+
     @Test
     @DisplayName("First Config Masks Second")
     void firstConfigMasksSecond() {
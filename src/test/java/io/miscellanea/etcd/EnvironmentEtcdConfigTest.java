@@ -72,4 +72,32 @@ public class EnvironmentEtcdConfigTest {
         configuration = new EnvironmentEtcdConfig();
         assertThat(configuration.isWatching()).isTrue();
     }
+
+    @Test
+    @DisplayName("Serializable Reads Can be Null and True")
+    void serializableReadsCanBeNullAndTrue(){
+        System.clearProperty(Constants.SERIALIZABLE_READS_PROP);
+        EtcdConfig configuration = new EnvironmentEtcdConfig();
+        assertThat(configuration.isSerializableReads()).isNull();
+
+        System.setProperty(Constants.SERIALIZABLE_READS_PROP,"true");
+        configuration = new EnvironmentEtcdConfig();
+        assertThat(configuration.isSerializableReads()).isTrue();
+
+        System.clearProperty(Constants.SERIALIZABLE_READS_PROP);
+    }
+
+    @Test
+    @DisplayName("Out of Range Integers are Ignored")
+    void outOfRangeIntegersAreIgnored(){
+        System.setProperty(Constants.CACHE_MAX_SIZE_PROP,"4294967297");
+        EtcdConfig configuration = new EnvironmentEtcdConfig();
+        assertThat(configuration.getCacheMaxSize()).isNull();
+
+        System.setProperty(Constants.CACHE_MAX_SIZE_PROP,"1000");
+        configuration = new EnvironmentEtcdConfig();
+        assertThat(configuration.getCacheMaxSize()).isEqualTo(1000);
+
+        System.clearProperty(Constants.CACHE_MAX_SIZE_PROP);
+    }
 }
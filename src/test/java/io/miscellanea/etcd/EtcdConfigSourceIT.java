@@ -11,6 +11,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Integration test suite for {@code EtcdConfigSource}.
  */
@@ -19,6 +21,9 @@ class EtcdConfigSourceIT {
     private static final String TEST_KEY = "test.key";
     private static final String TEST_VALUE = "IT Value";
     private static final String CHANGED_TEST_VALUE = "Changed IT Value";
+    private static final long PROPAGATION_TIMEOUT_MILLIS = 5000;
+    private static final long PROPAGATION_SLO_MILLIS = 1000;
+    private static final int PROBE_SAMPLES = 20;
 
     private static String etcdUser;
     private static String etcdPassword;
@@ -47,6 +52,7 @@ class EtcdConfigSourceIT {
         this.setProperty(Constants.MEMBERS_PROP, etcdMembers);
         this.setProperty(Constants.KEY_PREFIX,etcdKeyPrefix);
         this.setProperty(Constants.WATCHING_PROP, "");
+        this.setProperty(Constants.PROPAGATION_PROBE_INTERVAL_PROP, "");
     }
 
     // Tests
@@ -110,10 +116,15 @@ class EtcdConfigSourceIT {
             assertThat(value).isNotNull()
                     .isEqualTo(TEST_VALUE);
 
+            long start = System.nanoTime();
             this.setEtcdKeyValue(TEST_KEY, CHANGED_TEST_VALUE);
 
-            // Sleep for 5 seconds; watches are process asynchronously
-            Thread.sleep(1000);
+            // Watches are processed asynchronously; poll rather than guess at a delay
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(PROPAGATION_TIMEOUT_MILLIS);
+            while (!CHANGED_TEST_VALUE.equals(source.getPropertyValue(TEST_KEY))
+                    && System.nanoTime() - deadline < 0) {
+                Thread.sleep(5);
+            }
 
             value = source.getPropertyValue(TEST_KEY);
             assertThat(value).isNotNull()
@@ -121,6 +132,26 @@ class EtcdConfigSourceIT {
         }
     }
 
+    @Test
+    @DisplayName("Measure Change Propagation Latency")
+    void measureChangePropagationLatency() throws Exception {
+        System.setProperty(Constants.WATCHING_PROP, "true");
+        System.setProperty(Constants.PROPAGATION_PROBE_INTERVAL_PROP, "50");
+
+        try (EtcdConfigSource source = new EtcdConfigSource()) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (source.getPropagationProbeCount() < PROBE_SAMPLES
+                    && System.nanoTime() - deadline < 0) {
+                Thread.sleep(50);
+            }
+
+            assertThat(source.getPropagationProbeCount()).isGreaterThanOrEqualTo(PROBE_SAMPLES);
+            assertThat(source.getLostProbeCount()).isZero();
+            assertThat(source.getPropagationLatencyMillis(50)).isPositive();
+            assertThat(source.getPropagationLatencyMillis(99)).isLessThan(PROPAGATION_SLO_MILLIS);
+        }
+    }
+
     @Test
     @DisplayName("Ignore Changed Configuration Value")
     void ignoreChangedConfigurationValue() throws Exception {
@@ -1,16 +1,48 @@
 package io.miscellanea.etcd;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.Event;
 import com.ibm.etcd.api.KeyValue;
 import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.api.ResponseHeader;
+import com.ibm.etcd.api.ResponseOp;
+import com.ibm.etcd.api.TxnRequest;
+import com.ibm.etcd.api.TxnResponse;
 import com.ibm.etcd.client.KvStoreClient;
 import com.ibm.etcd.client.kv.KvClient;
+import com.ibm.etcd.client.kv.WatchUpdate;
+import io.grpc.stub.StreamObserver;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -108,4 +140,734 @@ class EtcdConfigSourceTest {
 
         assertThat(value).isNull();
     }
+
+    @Test
+    @DisplayName("ETCD3 Get Uses Serializable Reads When Enabled")
+    void testSerializableRead() {
+        // Train the client
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        KeyValue kv = KeyValue.newBuilder()
+                .setKey(TEST_KEY_AS_BYTES)
+                .setValue(ByteString.copyFromUtf8("TestValue"))
+                .build();
+        RangeResponse response = RangeResponse.newBuilder()
+                .addKvs(kv)
+                .setCount(1)
+                .build();
+        when(req.serializable(true)).thenReturn(req);
+        when(req.sync()).thenReturn(response);
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(TEST_KEY_AS_BYTES)).thenReturn(req);
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isSerializableReads()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader,storeClient);
+        String value = configSource.getPropertyValue(TEST_KEY);
+
+        assertThat(value).isEqualTo("TestValue");
+        verify(req).serializable(true);
+    }
+
+    @Test
+    @DisplayName("Access Profile Keys are Prefetched in a Batch")
+    void testAccessProfileKeysArePrefetched(@TempDir Path dir) throws Exception {
+        Path profile = dir.resolve("keys.profile");
+        Files.write(profile, Collections.singletonList(TEST_KEY), StandardCharsets.UTF_8);
+
+        // Train the client
+        KeyValue kv = KeyValue.newBuilder()
+                .setKey(TEST_KEY_AS_BYTES)
+                .setValue(ByteString.copyFromUtf8("PrefetchedValue"))
+                .build();
+        TxnResponse response = TxnResponse.newBuilder()
+                .addResponses(ResponseOp.newBuilder()
+                        .setResponseRange(RangeResponse.newBuilder().addKvs(kv).setCount(1)))
+                .build();
+
+        KvClient client = mock(KvClient.class);
+        when(client.txn(any(TxnRequest.class))).thenReturn(Futures.immediateFuture(response));
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.getAccessProfile()).thenReturn(profile.toString());
+
+        try (EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient)) {
+            assertThat(configSource.getPropertyValue(TEST_KEY)).isEqualTo("PrefetchedValue");
+            verify(client, never()).get(TEST_KEY_AS_BYTES);
+        }
+
+        assertThat(new AccessProfile(profile).load()).containsExactly(TEST_KEY);
+    }
+
+    @Test
+    @DisplayName("Missing Keys are Cached When Enabled")
+    void testMissingKeysAreCached() {
+        // Train the client
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        RangeResponse response = RangeResponse.newBuilder()
+                .setCount(0)
+                .build();
+        when(req.sync()).thenReturn(response);
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(TEST_KEY_AS_BYTES)).thenReturn(req);
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isCachingMisses()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader,storeClient);
+        assertThat(configSource.getPropertyValue(TEST_KEY)).isNull();
+        assertThat(configSource.getPropertyValue(TEST_KEY)).isNull();
+
+        verify(req, times(1)).sync();
+        assertThat(configSource.getHitCount()).isEqualTo(1);
+        assertThat(configSource.getMissCount()).isEqualTo(1);
+        assertThat(configSource.getNegativeEntryCount()).isEqualTo(1);
+
+        assertThat(configSource.resetNegativeEntries()).isEqualTo(1);
+        assertThat(configSource.getPropertyValue(TEST_KEY)).isNull();
+        verify(req, times(2)).sync();
+    }
+
+    @Test
+    @DisplayName("Management Bean is Registered and Removed on Close")
+    void testManagementBeanLifecycle() throws Exception {
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("app/");
+        when(loader.isJmxEnabled()).thenReturn(true);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName pattern = new ObjectName("io.miscellanea.etcd:type=EtcdConfigSource,*");
+        int before = server.queryNames(pattern, null).size();
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        Set<ObjectName> names = server.queryNames(pattern, null);
+        assertThat(names).hasSize(before + 1);
+
+        configSource.close();
+        assertThat(server.queryNames(pattern, null)).hasSize(before);
+    }
+
+    @Test
+    @DisplayName("Sampled Lookups are Reported to the Tracer")
+    void testLookupsAreTraced() {
+        // Train the client
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        KeyValue kv = KeyValue.newBuilder()
+                .setKey(TEST_KEY_AS_BYTES)
+                .setValue(ByteString.copyFromUtf8("TestValue"))
+                .build();
+        RangeResponse response = RangeResponse.newBuilder()
+                .addKvs(kv)
+                .setCount(1)
+                .build();
+        when(req.sync()).thenReturn(response);
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(TEST_KEY_AS_BYTES)).thenReturn(req);
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader,storeClient);
+        List<LookupEvent> events = new ArrayList<>();
+        configSource.setLookupTracer(events::add, 1.0);
+
+        configSource.getPropertyValue(TEST_KEY);
+        configSource.getPropertyValue(TEST_KEY);
+
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).getKey()).isEqualTo(TEST_KEY);
+        assertThat(events.get(0).getCacheState()).isEqualTo(LookupEvent.CacheState.MISS);
+        assertThat(events.get(0).isFound()).isTrue();
+        assertThat(events.get(0).getRpcNanos()).isPositive();
+        assertThat(events.get(1).getCacheState()).isEqualTo(LookupEvent.CacheState.HIT);
+        assertThat(events.get(1).getRpcNanos()).isZero();
+        assertThat(events.get(1).toString()).doesNotContain("TestValue");
+
+        configSource.setLookupTracer(null, 1.0);
+        configSource.getPropertyValue(TEST_KEY);
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Misses Complete on the Supplied Executor")
+    void testMissesCompleteOnSuppliedExecutor() {
+        // Train the client
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        KeyValue kv = KeyValue.newBuilder()
+                .setKey(TEST_KEY_AS_BYTES)
+                .setValue(ByteString.copyFromUtf8("TestValue"))
+                .build();
+        RangeResponse response = RangeResponse.newBuilder()
+                .addKvs(kv)
+                .setCount(1)
+                .build();
+        Executor executor = Runnable::run;
+        when(req.async(executor)).thenReturn(Futures.immediateFuture(response));
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(TEST_KEY_AS_BYTES)).thenReturn(req);
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient, executor);
+
+        assertThat(configSource.getPropertyValue(TEST_KEY)).isEqualTo("TestValue");
+        verify(req).async(executor);
+        verify(req, never()).sync();
+    }
+
+    @Test
+    @DisplayName("Project Stage Variants are Prefetched Together")
+    void testVariantsArePrefetched() {
+        // Train the client
+        KeyValue production = KeyValue.newBuilder()
+                .setKey(ByteString.copyFromUtf8("db.url.Production"))
+                .setValue(ByteString.copyFromUtf8("prod-url"))
+                .build();
+        TxnResponse response = TxnResponse.newBuilder()
+                .addResponses(ResponseOp.newBuilder()
+                        .setResponseRange(RangeResponse.newBuilder().setCount(0)))
+                .addResponses(ResponseOp.newBuilder()
+                        .setResponseRange(RangeResponse.newBuilder().addKvs(production).setCount(1)))
+                .build();
+
+        KvClient client = mock(KvClient.class);
+        when(client.txn(any(TxnRequest.class))).thenReturn(Futures.immediateFuture(response));
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isPrefetchingVariants()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        // DeltaSpike probes the project stage variant, then the base key
+        assertThat(configSource.getPropertyValue("db.url.UnitTest")).isNull();
+        assertThat(configSource.getPropertyValue("db.url.Production")).isEqualTo("prod-url");
+        assertThat(configSource.getPropertyValue("db.url")).isNull();
+
+        verify(client, times(1)).txn(any(TxnRequest.class));
+        verify(client, never()).get(any(ByteString.class));
+        assertThat(configSource.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Encrypted Values are Decrypted Once")
+    void testEncryptedValuesAreDecrypted(@TempDir Path dir) throws Exception {
+        byte[] secretKey = new byte[16];
+        Path keyFile = dir.resolve("etcd.key");
+        Files.write(keyFile, Base64.getEncoder().encode(secretKey));
+        String encrypted = ValueCipherTest.encrypt(secretKey, "TopSecret");
+
+        // Train the client
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        KeyValue kv = KeyValue.newBuilder()
+                .setKey(TEST_KEY_AS_BYTES)
+                .setValue(ByteString.copyFromUtf8(encrypted))
+                .build();
+        RangeResponse response = RangeResponse.newBuilder()
+                .addKvs(kv)
+                .setCount(1)
+                .build();
+        when(req.sync()).thenReturn(response);
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(TEST_KEY_AS_BYTES)).thenReturn(req);
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.getEncryptionKeyFile()).thenReturn(keyFile.toString());
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        assertThat(configSource.getPropertyValue(TEST_KEY)).isEqualTo("TopSecret");
+        assertThat(configSource.getPropertyValue(TEST_KEY)).isEqualTo("TopSecret");
+        assertThat(configSource.getProperties()).doesNotContainKey(TEST_KEY);
+        verify(req, times(1)).sync();
+    }
+
+    @Test
+    @DisplayName("Polls Find Deleted Encrypted Values")
+    void testPollsFindDeletedEncryptedValues(@TempDir Path dir) throws Exception {
+        byte[] secretKey = new byte[16];
+        Path keyFile = dir.resolve("etcd.key");
+        Files.write(keyFile, Base64.getEncoder().encode(secretKey));
+
+        // Train the client; polls see no change until the key is deleted
+        KvClient client = mock(KvClient.class);
+        trainKey(client, TEST_KEY, ValueCipherTest.encrypt(secretKey, "TopSecret"));
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(client.txn(any(TxnRequest.class))).thenAnswer(invocation ->
+                Futures.immediateFuture(deleted.get() ? pollTxn(11, 0) : pollTxn(10, 1)));
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.getEncryptionKeyFile()).thenReturn(keyFile.toString());
+        when(loader.getPollInterval()).thenReturn(1L);
+
+        try (EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient)) {
+            assertThat(configSource.getPropertyValue(TEST_KEY)).isEqualTo("TopSecret");
+            assertThat(configSource.getCacheSize()).isEqualTo(1);
+
+            deleted.set(true);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (configSource.getCacheSize() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+
+            assertThat(configSource.getCacheSize()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("References are Expanded Once")
+    void testReferencesAreExpanded() {
+        // Train the client
+        KvClient client = mock(KvClient.class);
+        KvClient.FluentRangeRequest url = trainKey(client, "db.url", "${db.host}:${db.port}");
+        KvClient.FluentRangeRequest host = trainKey(client, "db.host", "localhost");
+        KvClient.FluentRangeRequest port = trainKey(client, "db.port", "5432");
+
+        // Train the KvStore client
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isInterpolating()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("localhost:5432");
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("localhost:5432");
+        verify(url, times(1)).sync();
+        verify(host, times(1)).sync();
+        verify(port, times(1)).sync();
+    }
+
+    @Test
+    @DisplayName("Preloaded Prefix is Served From the Cache")
+    void preloadedPrefixIsServedFromTheCache() {
+        KvClient.FluentRangeRequest scan = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(scan.sync()).thenReturn(RangeResponse.newBuilder().setCount(2).build());
+        when(scan.async()).thenReturn(Futures.immediateFuture(RangeResponse.newBuilder()
+                .addKvs(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.host"))
+                        .setValue(ByteString.copyFromUtf8("localhost")))
+                .addKvs(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.port"))
+                        .setValue(ByteString.copyFromUtf8("5432")))
+                .build()));
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(ByteString.copyFromUtf8("db."))).thenReturn(scan);
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        assertThat(configSource.preloadPrefix("db.")).isEqualTo(2);
+        assertThat(configSource.getPropertyValue("db.port")).isEqualTo("5432");
+        assertThat(configSource.refreshPrefix("db.")).isEqualTo(2);
+        verify(client, never()).get(ByteString.copyFromUtf8("db.port"));
+    }
+
+    @Test
+    @DisplayName("Prefix Queries are Answered From the Cache")
+    void prefixQueriesAreAnsweredFromTheCache() {
+        KvClient.FluentRangeRequest scan = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(scan.sync()).thenReturn(RangeResponse.newBuilder().setCount(2).build());
+        when(scan.async()).thenReturn(Futures.immediateFuture(RangeResponse.newBuilder()
+                .addKvs(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.port"))
+                        .setValue(ByteString.copyFromUtf8("5432")))
+                .addKvs(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.host"))
+                        .setValue(ByteString.copyFromUtf8("localhost")))
+                .build()));
+        KvClient.FluentWatchRequest watchReq = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watchReq.start(any())).thenReturn(mock(KvClient.Watch.class));
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(ByteString.copyFromUtf8("db."))).thenReturn(scan);
+        when(client.watch(ByteString.copyFromUtf8("db."))).thenReturn(watchReq);
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isWatching()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        assertThat(configSource.getPropertiesWithPrefix("db."))
+                .containsExactly(entry("db.host", "localhost"), entry("db.port", "5432"));
+        assertThat(configSource.getPropertiesWithPrefix("db.p"))
+                .containsOnly(entry("db.port", "5432"));
+        verify(scan, times(1)).async();
+        verify(watchReq).asPrefix();
+
+        // Keys created under a loaded prefix reach the cache through the prefix watch
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<StreamObserver<WatchUpdate>> observer =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(watchReq).start(observer.capture());
+        WatchUpdate update = mock(WatchUpdate.class);
+        when(update.getEvents()).thenReturn(Collections.singletonList(Event.newBuilder()
+                .setType(Event.EventType.PUT)
+                .setKv(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.user"))
+                        .setValue(ByteString.copyFromUtf8("admin"))
+                        .setModRevision(5))
+                .build()));
+        observer.getValue().onNext(update);
+
+        assertThat(configSource.getPropertiesWithPrefix("db."))
+                .hasSize(3)
+                .containsEntry("db.user", "admin");
+        assertThat(configSource.getPropertyValue("db.user")).isEqualTo("admin");
+        verify(scan, times(1)).async();
+        verify(client, never()).get(ByteString.copyFromUtf8("db.user"));
+    }
+
+    @Test
+    @DisplayName("Watched Changes are Reported to DeltaSpike")
+    void watchedChangesAreReportedToDeltaSpike() {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "db.url", "jdbc://${db.host}");
+        trainKey(client, "db.host", "localhost");
+        KvClient.FluentWatchRequest watchReq = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watchReq.start(any())).thenReturn(mock(KvClient.Watch.class));
+        when(client.watch(any(ByteString.class))).thenReturn(watchReq);
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isWatching()).thenReturn(true);
+        when(loader.isInterpolating()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        List<Set<String>> reports = new ArrayList<>();
+        configSource.setOnAttributeChange(reports::add);
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("jdbc://localhost");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<StreamObserver<WatchUpdate>> observer =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(watchReq, times(2)).start(observer.capture());
+        WatchUpdate update = mock(WatchUpdate.class);
+        when(update.getEvents()).thenReturn(Collections.singletonList(Event.newBuilder()
+                .setType(Event.EventType.PUT)
+                .setKv(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.host"))
+                        .setValue(ByteString.copyFromUtf8("db.example.com"))
+                        .setModRevision(5))
+                .build()));
+        observer.getValue().onNext(update);
+
+        // The expansion that references the changed key is reported along with it
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0)).containsOnly("db.host", "db.url");
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("jdbc://db.example.com");
+    }
+
+    @Test
+    @DisplayName("Listener Watches Leave the Cache to Its Own Watch")
+    void listenerWatchesLeaveTheCacheToItsOwnWatch() {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "db.host", "localhost");
+        KvClient.FluentWatchRequest watchReq = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watchReq.start(any())).thenReturn(mock(KvClient.Watch.class));
+        when(client.watch(any(ByteString.class))).thenReturn(watchReq);
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isWatching()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        List<Set<String>> reports = new ArrayList<>();
+        configSource.setOnAttributeChange(reports::add);
+        List<String> changes = new ArrayList<>();
+        assertThat(configSource.getPropertyValue("db.host")).isEqualTo("localhost");
+        configSource.addChangeListener("db.host",
+                (key, oldValue, newValue) -> changes.add(oldValue + "->" + newValue), Runnable::run);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<StreamObserver<WatchUpdate>> observer =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(watchReq, times(2)).start(observer.capture());
+        WatchUpdate update = mock(WatchUpdate.class);
+        when(update.getEvents()).thenReturn(Collections.singletonList(Event.newBuilder()
+                .setType(Event.EventType.PUT)
+                .setKv(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.host"))
+                        .setValue(ByteString.copyFromUtf8("db.example.com"))
+                        .setModRevision(5))
+                .setPrevKv(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.host"))
+                        .setValue(ByteString.copyFromUtf8("localhost"))
+                        .setModRevision(4))
+                .build()));
+
+        // The listener's watch notifies the listener but leaves the cache alone
+        observer.getAllValues().get(1).onNext(update);
+        assertThat(changes).containsExactly("localhost->db.example.com");
+        assertThat(reports).isEmpty();
+
+        // The cache's watch applies the change, which is reported once
+        observer.getAllValues().get(0).onNext(update);
+        assertThat(reports).containsExactly(Collections.singleton("db.host"));
+        assertThat(configSource.getPropertyValue("db.host")).isEqualTo("db.example.com");
+    }
+
+    @Test
+    @DisplayName("Deleted Keys are Released Once No Read is in Flight")
+    void deletedKeysAreReleasedOnceNoReadIsInFlight() {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "db.url", "localhost");
+        KvClient.Watch watch = mock(KvClient.Watch.class);
+        KvClient.FluentWatchRequest watchReq = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watchReq.start(any())).thenReturn(watch);
+        when(client.watch(any(ByteString.class))).thenReturn(watchReq);
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isWatching()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("localhost");
+        assertThat(configSource.getCacheSize()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<StreamObserver<WatchUpdate>> observer =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(watchReq).start(observer.capture());
+        WatchUpdate update = mock(WatchUpdate.class);
+        when(update.getEvents()).thenReturn(Collections.singletonList(Event.newBuilder()
+                .setType(Event.EventType.DELETE)
+                .setKv(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8("db.url"))
+                        .setModRevision(5))
+                .build()));
+        observer.getValue().onNext(update);
+
+        assertThat(configSource.getCacheSize()).isZero();
+        assertThat(configSource.getActiveWatchCount()).isZero();
+        verify(watch).close();
+    }
+
+    @Test
+    @DisplayName("Refreshed Keys are Reported to DeltaSpike Only When Changed")
+    void refreshedKeysAreReportedOnlyWhenChanged() {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "db.url", "jdbc://${db.host}");
+        trainKey(client, "db.host", "localhost");
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isInterpolating()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        List<Set<String>> reports = new ArrayList<>();
+        configSource.setOnAttributeChange(reports::add);
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("jdbc://localhost");
+
+        // Re-reading an unchanged value reports nothing
+        assertThat(configSource.refreshKey("db.host")).isTrue();
+        assertThat(reports).isEmpty();
+
+        trainKey(client, "db.host", "db.example.com");
+        assertThat(configSource.refreshKey("db.host")).isTrue();
+        assertThat(reports).containsExactly(new HashSet<>(Arrays.asList("db.host", "db.url")));
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("jdbc://db.example.com");
+    }
+
+    @Test
+    @DisplayName("Properties are a Snapshot of Cached Values")
+    void propertiesAreASnapshotOfCachedValues() {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "db.url", "localhost");
+        trainKey(client, "db.user", "admin");
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        configSource.getPropertyValue("db.url");
+
+        Map<String, String> properties = configSource.getProperties();
+        configSource.getPropertyValue("db.user");
+
+        assertThat(properties).containsOnly(entry("db.url", "localhost"));
+        assertThat(configSource.getProperties())
+                .containsOnly(entry("db.url", "localhost"), entry("db.user", "admin"));
+    }
+
+    @Test
+    @DisplayName("Lookups Beyond the Read Rate Limit Fall Through")
+    void lookupsBeyondTheReadRateLimitFallThrough() {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "db.url", "localhost");
+        KvClient.FluentRangeRequest missing = trainKey(client, "db.user", "admin");
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.getReadRateLimit()).thenReturn(1);
+        when(loader.getReadBurst()).thenReturn(1);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("localhost");
+        assertThat(configSource.getPropertyValue("db.user")).isNull();
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("localhost");
+        assertThat(configSource.getThrottledReadCount()).isEqualTo(1);
+        verify(missing, never()).sync();
+    }
+
+    @Test
+    @DisplayName("Bounded Reads Revalidate Unconfirmed Values")
+    void boundedReadsRevalidateUnconfirmedValues() throws Exception {
+        KvClient client = mock(KvClient.class);
+        KvClient.FluentRangeRequest req = trainKey(client, "db.url", "localhost");
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+
+        assertThat(configSource.getPropertyValue("db.url", 60_000)).isEqualTo("localhost");
+        assertThat(configSource.getPropertyValue("db.url", 60_000)).isEqualTo("localhost");
+        verify(req, times(1)).sync();
+
+        Thread.sleep(5);
+        assertThat(configSource.getPropertyValue("db.url", 1)).isEqualTo("localhost");
+        verify(req, times(2)).sync();
+        assertThatThrownBy(() -> configSource.getPropertyValue("db.url", -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Progress Notifications Confirm Watched Values")
+    void progressNotificationsConfirmWatchedValues() throws Exception {
+        KvClient client = mock(KvClient.class);
+        KvClient.FluentRangeRequest req = trainKey(client, "db.url", "localhost");
+        KvClient.FluentWatchRequest watchReq = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watchReq.start(any())).thenReturn(mock(KvClient.Watch.class));
+        when(client.watch(any(ByteString.class))).thenReturn(watchReq);
+
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+
+        EtcdConfig loader = mock(EtcdConfig.class);
+        when(loader.getKeyPrefix()).thenReturn("");
+        when(loader.isWatching()).thenReturn(true);
+
+        EtcdConfigSource configSource = new EtcdConfigSource(loader, storeClient);
+        assertThat(configSource.getPropertyValue("db.url")).isEqualTo("localhost");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<StreamObserver<WatchUpdate>> observer =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(watchReq).progressNotify();
+        verify(watchReq).start(observer.capture());
+
+        Thread.sleep(20);
+        WatchUpdate progress = mock(WatchUpdate.class);
+        when(progress.getEvents()).thenReturn(Collections.emptyList());
+        observer.getValue().onNext(progress);
+
+        assertThat(configSource.getPropertyValue("db.url", 10)).isEqualTo("localhost");
+        verify(req, times(1)).sync();
+        assertThat(configSource.getOldestConfirmationAgeMillis()).isBetween(0L, 10_000L);
+    }
+
+    // Private methods
+    private static KvClient.FluentRangeRequest trainKey(KvClient client, String key, String value) {
+        ByteString etcdKey = ByteString.copyFromUtf8(key);
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        when(req.sync()).thenReturn(RangeResponse.newBuilder()
+                .addKvs(KeyValue.newBuilder().setKey(etcdKey).setValue(ByteString.copyFromUtf8(value)))
+                .setCount(1)
+                .build());
+        when(client.get(etcdKey)).thenReturn(req);
+
+        return req;
+    }
+
+    /**
+     * Builds a response that answers both a poll and its count of tracked keys: every range in it
+     * reports {@code count} keys and none changed.
+     */
+    private static TxnResponse pollTxn(long revision, long count) {
+        RangeResponse range = RangeResponse.newBuilder().setCount(count).build();
+        return TxnResponse.newBuilder()
+                .setHeader(ResponseHeader.newBuilder().setRevision(revision))
+                .addResponses(ResponseOp.newBuilder().setResponseRange(range))
+                .addResponses(ResponseOp.newBuilder().setResponseRange(range))
+                .build();
+    }
 }
@@ -0,0 +1,176 @@
+package io.miscellanea.etcd;
+
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.api.TxnRequest;
+import com.ibm.etcd.api.TxnResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code EtcdImport}.
+ */
+public class EtcdImportTest {
+    // Constants
+    private static final String PREFIX = "app/";
+
+    // Tests
+    @Test
+    @DisplayName("Only New and Changed Keys are Written")
+    void onlyNewAndChangedKeysAreWritten() {
+        KvClient client = trainClient(kv("same", "1"), kv("changed", "old"), kv("stale", "x"));
+        EtcdImport importer = new EtcdImport(client, PREFIX);
+
+        Properties props = new Properties();
+        props.setProperty("same", "1");
+        props.setProperty("changed", "new");
+        props.setProperty("added", "2");
+
+        EtcdImport.Plan plan = importer.plan(props, false, false);
+        assertThat(plan.getPuts()).containsOnlyKeys("changed", "added");
+        assertThat(plan.getDeletes()).isEmpty();
+        assertThat(plan.getUnchanged()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Delete Removes Keys Missing From the File")
+    void deleteRemovesKeysMissingFromTheFile() {
+        KvClient client = trainClient(kv("same", "1"), kv("stale", "x"));
+        EtcdImport importer = new EtcdImport(client, PREFIX);
+
+        Properties props = new Properties();
+        props.setProperty("same", "1");
+
+        EtcdImport.Plan plan = importer.plan(props, true, false);
+        assertThat(plan.getDeletes()).containsExactly("stale");
+        assertThat(plan.isEmpty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Delete Without a Key Prefix Must be Allowed")
+    void deleteWithoutAKeyPrefixMustBeAllowed() {
+        KvClient client = mock(KvClient.class);
+        EtcdImport importer = new EtcdImport(client, "");
+
+        Properties props = new Properties();
+        props.setProperty("same", "1");
+
+        assertThatThrownBy(() -> importer.plan(props, true, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("--allow-empty-prefix");
+        verify(client, never()).get(any(ByteString.class));
+    }
+
+    @Test
+    @DisplayName("Batches Respect the Operation Limit")
+    void batchesRespectTheOperationLimit() throws Exception {
+        KvClient client = trainClient();
+        when(client.txn(any(TxnRequest.class)))
+                .thenReturn(Futures.immediateFuture(TxnResponse.newBuilder().build()));
+        EtcdImport importer = new EtcdImport(client, PREFIX);
+
+        Properties props = new Properties();
+        for (int i = 0; i < Constants.MAX_TXN_OPS * 2 + 1; i++) {
+            props.setProperty("key" + i, "value" + i);
+        }
+
+        EtcdImport.Plan plan = importer.plan(props, false, false);
+        List<TxnRequest> batches = importer.batch(plan);
+        assertThat(batches).hasSize(3);
+        assertThat(batches.get(0).getSuccessCount()).isEqualTo(Constants.MAX_TXN_OPS);
+        assertThat(batches.get(2).getSuccessCount()).isEqualTo(1);
+
+        assertThat(importer.apply(plan)).isEqualTo(3);
+        verify(client, times(3)).txn(any(TxnRequest.class));
+    }
+
+    @Test
+    @DisplayName("Batches Respect the Size Limit")
+    void batchesRespectTheSizeLimit() {
+        EtcdImport importer = new EtcdImport(trainClient(), PREFIX);
+
+        Properties props = new Properties();
+        String large = Strings.repeat("x", Constants.MAX_TXN_BYTES / 3);
+        for (int i = 0; i < 4; i++) {
+            props.setProperty("key" + i, large);
+        }
+
+        List<TxnRequest> batches = importer.batch(importer.plan(props, false, false));
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0).getSerializedSize()).isLessThanOrEqualTo(Constants.MAX_TXN_BYTES);
+    }
+
+    @Test
+    @DisplayName("Nothing is Written When Nothing Changed")
+    void nothingIsWrittenWhenNothingChanged() throws Exception {
+        KvClient client = trainClient(kv("same", "1"));
+        EtcdImport importer = new EtcdImport(client, PREFIX);
+
+        Properties props = new Properties();
+        props.setProperty("same", "1");
+
+        EtcdImport.Plan plan = importer.plan(props, true, false);
+        assertThat(plan.isEmpty()).isTrue();
+        assertThat(importer.apply(plan)).isZero();
+        verify(client, never()).txn(any(TxnRequest.class));
+    }
+
+    @Test
+    @DisplayName("Failed Batch is Reported")
+    void failedBatchIsReported() {
+        KvClient client = trainClient();
+        when(client.txn(any(TxnRequest.class)))
+                .thenReturn(Futures.immediateFailedFuture(new IllegalStateException("boom")));
+        EtcdImport importer = new EtcdImport(client, PREFIX);
+
+        Properties props = new Properties();
+        props.setProperty("added", "1");
+
+        EtcdImport.Plan plan = importer.plan(props, false, false);
+        assertThatThrownBy(() -> importer.apply(plan))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("batch 1 of 1");
+    }
+
+    // Private methods
+    private static KeyValue kv(String key, String value) {
+        return KeyValue.newBuilder()
+                .setKey(ByteString.copyFromUtf8(PREFIX + key))
+                .setValue(ByteString.copyFromUtf8(value))
+                .build();
+    }
+
+    private static KvClient trainClient(KeyValue... kvs) {
+        RangeResponse.Builder page = RangeResponse.newBuilder();
+        for (KeyValue kv : kvs) {
+            page.addKvs(kv);
+        }
+        RangeResponse count = RangeResponse.newBuilder().setCount(kvs.length).build();
+
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(req.sync()).thenReturn(count);
+        when(req.async()).thenReturn(Futures.immediateFuture(page.build()));
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(ByteString.copyFromUtf8(PREFIX))).thenReturn(req);
+        return client;
+    }
+}
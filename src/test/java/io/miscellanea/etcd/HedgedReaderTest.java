@@ -0,0 +1,131 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code HedgedReader} and {@code HedgeBudget}.
+ */
+public class HedgedReaderTest {
+    // Constants
+    private static final ByteString KEY = ByteString.copyFromUtf8("some.key");
+    private static final RangeResponse FAST = RangeResponse.newBuilder().setCount(1).build();
+    private static final RangeResponse HEDGED = RangeResponse.newBuilder().setCount(2).build();
+
+    // Tests
+    @Test
+    @DisplayName("Reader Requires Two Members")
+    void readerRequiresTwoMembers() {
+        Throwable exception = assertThrows(IllegalArgumentException.class, () ->
+                new HedgedReader(Collections.singletonList(mock(KvClient.class)), 95, 5, null));
+
+        assertThat(exception.getMessage()).contains("members");
+    }
+
+    @Test
+    @DisplayName("Budget Limits Hedges to its Share of Reads")
+    void budgetLimitsHedges() {
+        HedgeBudget budget = new HedgeBudget(10);
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            budget.onRead();
+            if (budget.tryAcquire()) {
+                hedges++;
+            }
+        }
+
+        assertThat(hedges).isEqualTo(100);
+        assertThat(new HedgeBudget(0).tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Reads are not Hedged Until Latency is Known")
+    void readsAreNotHedgedUntilLatencyIsKnown() {
+        KvClient.FluentRangeRequest request = mock(KvClient.FluentRangeRequest.class);
+        when(request.async()).thenReturn(Futures.immediateFuture(FAST));
+        KvClient first = mock(KvClient.class);
+        KvClient second = mock(KvClient.class);
+        when(first.get(KEY)).thenReturn(request);
+        when(second.get(KEY)).thenReturn(request);
+
+        HedgedReader reader = new HedgedReader(Arrays.asList(first, second), 95, 100, null);
+        assertThat(reader.getHedgeDelayNanos()).isZero();
+
+        for (long i = 0; i < HedgedReader.MIN_SAMPLES; i++) {
+            assertThat(reader.read(KEY, false)).isSameAs(FAST);
+        }
+
+        assertThat(reader.getHedgeDelayNanos()).isPositive();
+        assertThat(reader.getHedgeCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Reads Complete on the Configured Executor")
+    void readsCompleteOnTheConfiguredExecutor() {
+        Executor executor = Runnable::run;
+        KvClient.FluentRangeRequest request = mock(KvClient.FluentRangeRequest.class);
+        when(request.async(executor)).thenReturn(Futures.immediateFuture(FAST));
+        KvClient first = mock(KvClient.class);
+        KvClient second = mock(KvClient.class);
+        when(first.get(KEY)).thenReturn(request);
+        when(second.get(KEY)).thenReturn(request);
+
+        HedgedReader reader = new HedgedReader(Arrays.asList(first, second), 95, 100, executor);
+
+        assertThat(reader.read(KEY, false)).isSameAs(FAST);
+        verify(request).async(executor);
+        verify(request, never()).async();
+    }
+
+    @Test
+    @DisplayName("Slow Read is Answered by the Hedge")
+    void slowReadIsAnsweredByTheHedge() {
+        KvClient.FluentRangeRequest fast = mock(KvClient.FluentRangeRequest.class);
+        when(fast.async()).thenReturn(Futures.immediateFuture(FAST));
+
+        KvClient.FluentRangeRequest hedge = mock(KvClient.FluentRangeRequest.class);
+        when(hedge.serializable(true)).thenReturn(hedge);
+        when(hedge.async()).thenReturn(Futures.immediateFuture(HEDGED));
+
+        KvClient.FluentRangeRequest stalled = mock(KvClient.FluentRangeRequest.class);
+        SettableFuture<RangeResponse> never = SettableFuture.create();
+        when(stalled.async()).thenReturn(never);
+
+        KvClient first = mock(KvClient.class);
+        KvClient second = mock(KvClient.class);
+        when(first.get(KEY)).thenReturn(fast);
+        when(second.get(KEY)).thenReturn(fast);
+
+        HedgedReader reader = new HedgedReader(Arrays.asList(first, second), 95, 100, null);
+        for (long i = 0; i < HedgedReader.MIN_SAMPLES; i++) {
+            reader.read(KEY, false);
+        }
+
+        // The next read goes to the first member, which stalls, and is hedged to the second
+        when(first.get(KEY)).thenReturn(stalled);
+        when(second.get(KEY)).thenReturn(hedge);
+
+        assertThat(reader.read(KEY, false)).isSameAs(HEDGED);
+        assertThat(reader.getHedgeCount()).isEqualTo(1);
+        assertThat(reader.getHedgeWinCount()).isEqualTo(1);
+        assertThat(never.isCancelled()).isFalse();
+        verify(stalled, never()).serializable(true);
+    }
+}
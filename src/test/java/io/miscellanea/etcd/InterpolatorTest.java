@@ -0,0 +1,115 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test suite for {@code Interpolator}.
+ */
+public class InterpolatorTest {
+
+    // Tests
+    @Test
+    @DisplayName("References are Expanded and Recorded")
+    void referencesAreExpandedAndRecorded() {
+        Map<String, String> values = new HashMap<>();
+        values.put("db.host", "localhost");
+        values.put("db.port", "5432");
+
+        Set<String> references = new LinkedHashSet<>();
+        String expanded = Interpolator.expand("${db.host}:${db.port}/${db.name}", values::get, references);
+
+        assertThat(expanded).isEqualTo("localhost:5432/${db.name}");
+        assertThat(references).containsExactly("db.host", "db.port", "db.name");
+    }
+
+    @Test
+    @DisplayName("Malformed References are Left Alone")
+    void malformedReferencesAreLeftAlone() {
+        Set<String> references = new LinkedHashSet<>();
+
+        assertThat(Interpolator.expand("cost: ${} and ${open", key -> "x", references))
+                .isEqualTo("cost: ${} and ${open");
+        assertThat(references).isEmpty();
+        assertThat(Interpolator.hasReferences("plain")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalidation Follows Dependencies Transitively")
+    void invalidationFollowsDependencies() {
+        Interpolator interpolator = new Interpolator();
+        long generation = interpolator.generation();
+        interpolator.put("url", "jdbc://localhost:5432", new LinkedHashSet<>(Arrays.asList("host", "port")), generation);
+        interpolator.put("banner", "db at jdbc://localhost:5432", Collections.singleton("url"), generation);
+        interpolator.put("other", "unrelated", Collections.singleton("name"), generation);
+
+        assertThat(interpolator.invalidate(Collections.singleton("port"))).isEqualTo(2);
+
+        assertThat(interpolator.get("url")).isNull();
+        assertThat(interpolator.get("banner")).isNull();
+        assertThat(interpolator.get("other")).isEqualTo("unrelated");
+    }
+
+    @Test
+    @DisplayName("Invalidation Collects Affected Keys")
+    void invalidationCollectsAffectedKeys() {
+        Interpolator interpolator = new Interpolator();
+        long generation = interpolator.generation();
+        interpolator.put("url", "jdbc://localhost:5432", Collections.singleton("port"), generation);
+        interpolator.put("banner", "db at jdbc://localhost:5432", Collections.singleton("url"), generation);
+
+        Set<String> affected = new HashSet<>();
+        interpolator.invalidate(Collections.singleton("port"), affected);
+
+        assertThat(affected).containsOnly("port", "url", "banner");
+    }
+
+    @Test
+    @DisplayName("Expansions Raced by an Invalidation are Not Remembered")
+    void racedExpansionsAreNotRemembered() {
+        Interpolator interpolator = new Interpolator();
+        long generation = interpolator.generation();
+
+        interpolator.invalidate(Collections.singleton("host"));
+        interpolator.put("url", "stale", Collections.singleton("host"), generation);
+
+        assertThat(interpolator.get("url")).isNull();
+        assertThat(interpolator.size()).isZero();
+
+        // Nor are the references of the rejected expansion
+        Set<String> affected = new HashSet<>();
+        interpolator.invalidate(Collections.singleton("host"), affected);
+        assertThat(affected).containsOnly("host");
+    }
+
+    @Test
+    @DisplayName("Discarded Expansions Drop Their Dependencies")
+    void discardedExpansionsDropTheirDependencies() {
+        Interpolator interpolator = new Interpolator();
+        long generation = interpolator.generation();
+        interpolator.put("url", "jdbc://localhost:5432", new LinkedHashSet<>(Arrays.asList("host", "port")), generation);
+
+        // The expansion of url is discarded, so changes to what it referenced no longer reach it
+        interpolator.invalidate(Collections.singleton("url"));
+        Set<String> affected = new HashSet<>();
+        interpolator.invalidate(Arrays.asList("host", "port"), affected);
+        assertThat(affected).containsOnly("host", "port");
+
+        // Expanding url again records its current references only
+        interpolator.put("url", "jdbc://localhost", Collections.singleton("host"), interpolator.generation());
+        affected.clear();
+        interpolator.invalidate(Collections.singleton("port"), affected);
+        assertThat(affected).containsOnly("port");
+        assertThat(interpolator.get("url")).isEqualTo("jdbc://localhost");
+    }
+}
@@ -0,0 +1,47 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test suite for {@code LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    // Tests
+    @Test
+    @DisplayName("Empty Histogram Reports Zero")
+    void emptyHistogramReportsZero() {
+        assertThat(new LatencyHistogram().percentile(95)).isZero();
+    }
+
+    @Test
+    @DisplayName("Percentiles are Within One Bucket")
+    void percentilesAreWithinOneBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertThat(histogram.percentile(50))
+                .isBetween(TimeUnit.MILLISECONDS.toNanos(50), TimeUnit.MILLISECONDS.toNanos(63));
+        assertThat(histogram.percentile(95))
+                .isBetween(TimeUnit.MILLISECONDS.toNanos(95), TimeUnit.MILLISECONDS.toNanos(119));
+    }
+
+    @Test
+    @DisplayName("Old Samples Decay")
+    void oldSamplesDecay() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 0; i < LatencyHistogram.DECAY_THRESHOLD; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        assertThat(histogram.count()).isLessThan(LatencyHistogram.DECAY_THRESHOLD);
+        assertThat(histogram.percentile(99)).isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
+    }
+}
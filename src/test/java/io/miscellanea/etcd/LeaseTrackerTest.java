@@ -0,0 +1,71 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.Futures;
+import com.ibm.etcd.api.LeaseTimeToLiveResponse;
+import com.ibm.etcd.client.lease.LeaseClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code LeaseTracker}.
+ */
+public class LeaseTrackerTest {
+    // Constants
+    private static final long LEASE_ID = 42;
+
+    // Tests
+    @Test
+    @DisplayName("Tracker Throws Exception with a Null Lease Client")
+    void throwsWithANullLeaseClient() {
+        Throwable exception = assertThrows(IllegalArgumentException.class, () -> new LeaseTracker(null));
+
+        assertThat(exception.getMessage()).contains("leaseClient")
+                .contains("must not")
+                .contains("null");
+    }
+
+    @Test
+    @DisplayName("Unleased Keys Never Expire")
+    void unleasedKeysNeverExpire() {
+        LeaseClient client = mock(LeaseClient.class);
+
+        assertThat(new LeaseTracker(client).deadline(0)).isEqualTo(LeaseTracker.NEVER);
+        verifyZeroInteractions(client);
+    }
+
+    @Test
+    @DisplayName("Lease Deadline is Looked Up Once")
+    void leaseDeadlineIsLookedUpOnce() {
+        LeaseClient client = mock(LeaseClient.class);
+        when(client.ttl(LEASE_ID)).thenReturn(Futures.immediateFuture(
+                LeaseTimeToLiveResponse.newBuilder().setID(LEASE_ID).setTTL(30).build()));
+
+        LeaseTracker tracker = new LeaseTracker(client);
+        long before = System.nanoTime();
+        long deadline = tracker.deadline(LEASE_ID);
+
+        assertThat(deadline - before).isGreaterThan(TimeUnit.SECONDS.toNanos(29));
+        assertThat(tracker.deadline(LEASE_ID)).isEqualTo(deadline);
+        verify(client, times(1)).ttl(LEASE_ID);
+    }
+
+    @Test
+    @DisplayName("Expired Leases are Reported")
+    void expiredLeasesAreReported() {
+        LeaseClient client = mock(LeaseClient.class);
+        when(client.ttl(LEASE_ID)).thenReturn(Futures.immediateFuture(
+                LeaseTimeToLiveResponse.newBuilder().setID(LEASE_ID).setTTL(-1).build()));
+
+        assertThat(new LeaseTracker(client).deadline(LEASE_ID)).isEqualTo(LeaseTracker.EXPIRED);
+    }
+}
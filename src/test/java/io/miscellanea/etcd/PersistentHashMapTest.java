@@ -0,0 +1,91 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test suite for {@code PersistentHashMap}.
+ */
+public class PersistentHashMapTest {
+
+    // Tests
+    @Test
+    @DisplayName("Updates Leave Earlier Versions Unchanged")
+    void updatesLeaveEarlierVersionsUnchanged() {
+        PersistentHashMap<String, String> empty = PersistentHashMap.empty();
+        PersistentHashMap<String, String> one = empty.put("a", "1");
+        PersistentHashMap<String, String> two = one.put("a", "2").put("b", "3");
+
+        assertThat(empty.size()).isZero();
+        assertThat(one.get("a")).isEqualTo("1");
+        assertThat(one.get("b")).isNull();
+        assertThat(two.get("a")).isEqualTo("2");
+        assertThat(two.size()).isEqualTo(2);
+        assertThat(two.remove("a").get("a")).isNull();
+        assertThat(two.get("a")).isEqualTo("2");
+    }
+
+    @Test
+    @DisplayName("Unchanged Updates Return the Same Map")
+    void unchangedUpdatesReturnTheSameMap() {
+        String value = "1";
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().put("a", value);
+
+        assertThat(map.put("a", value)).isSameAs(map);
+        assertThat(map.remove("missing")).isSameAs(map);
+    }
+
+    @Test
+    @DisplayName("Colliding Hashes are Kept Apart")
+    void collidingHashesAreKeptApart() {
+        // "Aa" and "BB" share a hash code
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty()
+                .put("Aa", 1)
+                .put("BB", 2)
+                .put("C", 3);
+
+        assertThat(map.get("Aa")).isEqualTo(1);
+        assertThat(map.get("BB")).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(3);
+
+        map = map.remove("Aa");
+        assertThat(map.get("Aa")).isNull();
+        assertThat(map.get("BB")).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Random Updates Match a Hash Map")
+    void randomUpdatesMatchAHashMap() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<>();
+        PersistentHashMap<Integer, Integer> actual = PersistentHashMap.empty();
+
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.remove(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.put(key, i);
+            }
+        }
+
+        Map<Integer, Integer> iterated = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : actual) {
+            iterated.put(entry.getKey(), entry.getValue());
+        }
+        assertThat(actual.size()).isEqualTo(expected.size());
+        assertThat(iterated).isEqualTo(expected);
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+            assertThat(actual.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.miscellanea.etcd;
+
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.PutResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code PropagationProbe}.
+ */
+public class PropagationProbeTest {
+    // Constants
+    private static final ByteString CANARY = ByteString.copyFromUtf8("app/canary");
+
+    // Tests
+    @Test
+    @DisplayName("Delivered Canaries are Timed")
+    void deliveredCanariesAreTimed() {
+        KvClient client = trainClient();
+        PropagationProbe probe = new PropagationProbe(client, CANARY, () -> true, 1000);
+
+        probe.probe();
+        probe.onDelivered(writtenValue(client));
+
+        assertThat(probe.getDeliveredCount()).isEqualTo(1);
+        assertThat(probe.percentile(50)).isPositive();
+        assertThat(probe.getLostCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Values Written by Other Probes are Ignored")
+    void valuesWrittenByOtherProbesAreIgnored() {
+        KvClient client = trainClient();
+        PropagationProbe probe = new PropagationProbe(client, CANARY, () -> true, 1000);
+
+        probe.probe();
+        probe.onDelivered("someone-else#1");
+        probe.onDelivered("not a canary");
+
+        assertThat(probe.getDeliveredCount()).isZero();
+        assertThat(probe.percentile(50)).isZero();
+    }
+
+    @Test
+    @DisplayName("Writes are Not Timed While the Canary is Not Watched")
+    void writesAreNotTimedWhileTheCanaryIsNotWatched() {
+        KvClient client = trainClient();
+        PropagationProbe probe = new PropagationProbe(client, CANARY, () -> false, 1000);
+
+        probe.probe();
+        probe.onDelivered(writtenValue(client));
+
+        assertThat(probe.getDeliveredCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Failed Writes are Not Timed")
+    void failedWritesAreNotTimed() {
+        KvClient.FluentPutRequest put = mock(KvClient.FluentPutRequest.class);
+        when(put.sync()).thenThrow(new IllegalStateException("unavailable"));
+        KvClient client = mock(KvClient.class);
+        when(client.put(eq(CANARY), any(ByteString.class))).thenReturn(put);
+        PropagationProbe probe = new PropagationProbe(client, CANARY, () -> true, 1000);
+
+        probe.probe();
+        probe.onDelivered(writtenValue(client));
+
+        assertThat(probe.getDeliveredCount()).isZero();
+        assertThat(probe.getLostCount()).isZero();
+    }
+
+    // Private methods
+    private static KvClient trainClient() {
+        KvClient.FluentPutRequest put = mock(KvClient.FluentPutRequest.class);
+        when(put.sync()).thenReturn(PutResponse.newBuilder().build());
+
+        KvClient client = mock(KvClient.class);
+        when(client.put(eq(CANARY), any(ByteString.class))).thenReturn(put);
+        return client;
+    }
+
+    private static String writtenValue(KvClient client) {
+        ArgumentCaptor<ByteString> value = ArgumentCaptor.forClass(ByteString.class);
+        verify(client).put(eq(CANARY), value.capture());
+        return value.getValue().toStringUtf8();
+    }
+}
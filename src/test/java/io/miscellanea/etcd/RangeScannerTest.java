@@ -0,0 +1,165 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.api.ResponseHeader;
+import com.ibm.etcd.client.kv.KvClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code RangeScanner}.
+ */
+public class RangeScannerTest {
+    // Constants
+    private static final ByteString PREFIX = ByteString.copyFromUtf8("app/");
+
+    // Tests
+    @Test
+    @DisplayName("Prefix End Increments the Last Byte")
+    void prefixEndIncrementsTheLastByte() {
+        assertThat(RangeScanner.prefixEnd(PREFIX).toStringUtf8()).isEqualTo("app0");
+        assertThat(RangeScanner.prefixEnd(ByteString.copyFrom(new byte[] {'a', (byte) 0xff})))
+                .isEqualTo(ByteString.copyFromUtf8("b"));
+        assertThat(RangeScanner.prefixEnd(ByteString.EMPTY))
+                .isEqualTo(ByteString.copyFrom(new byte[] {0}));
+    }
+
+    @Test
+    @DisplayName("Split Produces Ordered Bounds Within the Prefix")
+    void splitProducesOrderedBoundsWithinThePrefix() {
+        ByteString end = RangeScanner.prefixEnd(PREFIX);
+        List<ByteString> bounds = RangeScanner.split(PREFIX, PREFIX, end, 4);
+
+        assertThat(bounds).hasSize(5);
+        assertThat(bounds.get(0)).isEqualTo(PREFIX);
+        assertThat(bounds.get(4)).isEqualTo(end);
+        for (int i = 1; i < bounds.size(); i++) {
+            assertThat(ByteString.unsignedLexicographicalComparator()
+                    .compare(bounds.get(i - 1), bounds.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    @DisplayName("Pages are Followed at the Scan Revision")
+    void pagesAreFollowedAtTheScanRevision() {
+        RangeResponse count = RangeResponse.newBuilder()
+                .setHeader(ResponseHeader.newBuilder().setRevision(42))
+                .setCount(3)
+                .build();
+        RangeResponse first = RangeResponse.newBuilder()
+                .addKvs(kv("a"))
+                .addKvs(kv("b"))
+                .setMore(true)
+                .build();
+        RangeResponse second = RangeResponse.newBuilder().addKvs(kv("c")).build();
+
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(req.sync()).thenReturn(count);
+        when(req.async()).thenReturn(Futures.immediateFuture(first), Futures.immediateFuture(second));
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(any(ByteString.class))).thenReturn(req);
+
+        RangeScanner scanner = new RangeScanner(Collections.singletonList(client), null, 100, 4, false);
+        List<String> keys = new ArrayList<>();
+        long revision = scanner.scan(PREFIX, (kv, rev) -> {
+            assertThat(rev).isEqualTo(42);
+            keys.add(kv.getKey().toStringUtf8());
+        });
+
+        assertThat(revision).isEqualTo(42);
+        assertThat(keys).containsExactly("app/a", "app/b", "app/c");
+        verify(client).get(ByteString.copyFromUtf8("app/b\0"));
+        verify(req, atLeastOnce()).revision(42);
+    }
+
+    @Test
+    @DisplayName("Prefix Without Keys Skips the Page Requests")
+    void prefixWithoutKeysSkipsThePageRequests() {
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(req.sync()).thenReturn(RangeResponse.newBuilder().setCount(0).build());
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(any(ByteString.class))).thenReturn(req);
+
+        RangeScanner scanner = new RangeScanner(Collections.singletonList(client), null, 100, 4, false);
+        List<KeyValue> found = new ArrayList<>();
+        scanner.scan(PREFIX, (kv, rev) -> found.add(kv));
+
+        assertThat(found).isEmpty();
+        verify(req, never()).async();
+    }
+
+    @Test
+    @DisplayName("Failed Page Fails the Scan")
+    void failedPageFailsTheScan() {
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(req.sync()).thenReturn(RangeResponse.newBuilder().setCount(1).build());
+        when(req.async()).thenReturn(
+                Futures.immediateFailedFuture(new IllegalStateException("compacted")));
+
+        KvClient client = mock(KvClient.class);
+        when(client.get(any(ByteString.class))).thenReturn(req);
+
+        RangeScanner scanner = new RangeScanner(Collections.singletonList(client), null, 100, 4, false);
+        assertThatThrownBy(() -> scanner.scan(PREFIX, (kv, rev) -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("compacted");
+    }
+
+    @Test
+    @DisplayName("Page Failed by a Member is Retried Against the First Client")
+    void pageFailedByAMemberIsRetriedAgainstTheFirstClient() {
+        RangeResponse count = RangeResponse.newBuilder()
+                .setHeader(ResponseHeader.newBuilder().setRevision(42))
+                .setCount(2)
+                .build();
+
+        KvClient.FluentRangeRequest main = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(main.sync()).thenReturn(count);
+        when(main.async()).thenReturn(
+                Futures.immediateFuture(RangeResponse.newBuilder().addKvs(kv("a")).build()),
+                Futures.immediateFuture(RangeResponse.newBuilder().addKvs(kv("z")).build()));
+        KvClient first = mock(KvClient.class);
+        when(first.get(any(ByteString.class))).thenReturn(main);
+
+        KvClient.FluentRangeRequest lagging = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(lagging.async()).thenReturn(Futures.immediateFailedFuture(
+                new IllegalStateException("required revision is a future revision")));
+        KvClient second = mock(KvClient.class);
+        when(second.get(any(ByteString.class))).thenReturn(lagging);
+
+        RangeScanner scanner = new RangeScanner(Arrays.asList(first, second), null, 1, 2, true);
+        List<String> keys = Collections.synchronizedList(new ArrayList<>());
+        scanner.scan(PREFIX, (kv, rev) -> keys.add(kv.getKey().toStringUtf8()));
+
+        assertThat(keys).containsExactlyInAnyOrder("app/a", "app/z");
+        verify(lagging).async();
+    }
+
+    // Private methods
+    private static KeyValue kv(String key) {
+        return KeyValue.newBuilder()
+                .setKey(PREFIX.concat(ByteString.copyFromUtf8(key)))
+                .setValue(ByteString.copyFromUtf8("value"))
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit test suite for {@code ReadRateLimiter}.
+ */
+public class ReadRateLimiterTest {
+
+    // Tests
+    @Test
+    @DisplayName("Burst is Allowed Then Refused")
+    void burstIsAllowedThenRefused() {
+        ReadRateLimiter limiter = new ReadRateLimiter(10, 3);
+        long now = System.nanoTime();
+
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Tokens Refill at the Configured Rate")
+    void tokensRefillAtTheConfiguredRate() {
+        ReadRateLimiter limiter = new ReadRateLimiter(10, 1);
+        long now = System.nanoTime();
+
+        assertThat(limiter.tryAcquire(now)).isTrue();
+        assertThat(limiter.tryAcquire(now + TimeUnit.MILLISECONDS.toNanos(50))).isFalse();
+        assertThat(limiter.tryAcquire(now + TimeUnit.MILLISECONDS.toNanos(100))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Quiet Periods Bank No More Than the Burst")
+    void quietPeriodsBankNoMoreThanTheBurst() {
+        ReadRateLimiter limiter = new ReadRateLimiter(10, 2);
+        long later = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+
+        assertThat(limiter.tryAcquire(later)).isTrue();
+        assertThat(limiter.tryAcquire(later)).isTrue();
+        assertThat(limiter.tryAcquire(later)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Invalid Limits are Rejected")
+    void invalidLimitsAreRejected() {
+        assertThatThrownBy(() -> new ReadRateLimiter(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ReadRateLimiter(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
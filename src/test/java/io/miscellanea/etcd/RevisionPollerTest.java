@@ -0,0 +1,168 @@
+package io.miscellanea.etcd;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.Event;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.api.ResponseHeader;
+import com.ibm.etcd.api.ResponseOp;
+import com.ibm.etcd.api.TxnRequest;
+import com.ibm.etcd.api.TxnResponse;
+import com.ibm.etcd.client.kv.KvClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.stubbing.OngoingStubbing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code RevisionPoller}.
+ */
+public class RevisionPollerTest {
+    // Constants
+    private static final ByteString PREFIX = ByteString.copyFromUtf8("app/");
+
+    // Tests
+    @Test
+    @DisplayName("Quiet Polls Report No Changes")
+    void quietPollsReportNoChanges() {
+        KvClient client = trainClient(
+                txn(10, count(2)),
+                txn(12, count(2), range()));
+        List<Event> events = new ArrayList<>();
+        RevisionPoller poller = new RevisionPoller(client, PREFIX, Collections::emptyList,
+                (found, revision) -> events.addAll(found));
+
+        assertThat(poller.baseline()).isEqualTo(10);
+        assertThat(poller.poll()).isEqualTo(12);
+
+        assertThat(events).isEmpty();
+        assertThat(poller.getPollCount()).isEqualTo(1);
+        assertThat(poller.getFetchedCount()).isZero();
+        verify(client, times(2)).txn(any(TxnRequest.class));
+    }
+
+    @Test
+    @DisplayName("Changed Keys are Reported as Puts")
+    void changedKeysAreReportedAsPuts() {
+        KvClient client = trainClient(
+                txn(10, count(2)),
+                txn(11, count(2), range(kv("a", 5, 11))));
+        List<Event> events = new ArrayList<>();
+        RevisionPoller poller = new RevisionPoller(client, PREFIX, Collections::emptyList,
+                (found, revision) -> events.addAll(found));
+
+        poller.baseline();
+        poller.poll();
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getType()).isEqualTo(Event.EventType.PUT);
+        assertThat(events.get(0).getKv().getKey()).isEqualTo(PREFIX.concat(ByteString.copyFromUtf8("a")));
+        assertThat(poller.getFetchedCount()).isEqualTo(1);
+        verify(client, times(2)).txn(any(TxnRequest.class));
+    }
+
+    @Test
+    @DisplayName("Deletions are Inferred From the Count")
+    void deletionsAreInferredFromTheCount() {
+        KvClient client = trainClient(
+                txn(10, count(2)),
+                txn(11, count(1), range()),
+                txn(11, count(1), count(0)));
+        List<Event> events = new ArrayList<>();
+        List<ByteString> tracked = Arrays.asList(key("a"), key("b"));
+        RevisionPoller poller = new RevisionPoller(client, PREFIX, () -> tracked,
+                (found, revision) -> events.addAll(found));
+
+        poller.baseline();
+        poller.poll();
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getType()).isEqualTo(Event.EventType.DELETE);
+        assertThat(events.get(0).getKv().getKey()).isEqualTo(key("b"));
+        assertThat(events.get(0).getKv().getModRevision()).isEqualTo(11);
+
+        // Tracked keys are counted at the poll's revision
+        ArgumentCaptor<TxnRequest> requests = ArgumentCaptor.forClass(TxnRequest.class);
+        verify(client, times(3)).txn(requests.capture());
+        assertThat(requests.getValue().getSuccessList()).extracting(op -> op.getRequestRange())
+                .allMatch(range -> range.getCountOnly() && range.getRevision() == 11)
+                .extracting(range -> range.getKey())
+                .containsExactly(key("a"), key("b"));
+    }
+
+    @Test
+    @DisplayName("Deletions Hidden by Creations are Found")
+    void deletionsHiddenByCreationsAreFound() {
+        KvClient client = trainClient(
+                txn(10, count(2)),
+                txn(12, count(2), range(kv("c", 12, 12))),
+                txn(12, count(1), count(0)));
+        List<Event> events = new ArrayList<>();
+        List<ByteString> tracked = Arrays.asList(key("a"), key("b"));
+        RevisionPoller poller = new RevisionPoller(client, PREFIX, () -> tracked,
+                (found, revision) -> events.addAll(found));
+
+        poller.baseline();
+        poller.poll();
+
+        assertThat(events).extracting(Event::getType)
+                .containsExactly(Event.EventType.PUT, Event.EventType.DELETE);
+        assertThat(events.get(1).getKv().getKey()).isEqualTo(key("b"));
+        verify(client, times(3)).txn(any(TxnRequest.class));
+    }
+
+    // Private methods
+    private static ByteString key(String key) {
+        return PREFIX.concat(ByteString.copyFromUtf8(key));
+    }
+
+    private static KeyValue kv(String key, long createRevision, long modRevision) {
+        return KeyValue.newBuilder()
+                .setKey(key(key))
+                .setValue(ByteString.copyFromUtf8("value"))
+                .setCreateRevision(createRevision)
+                .setModRevision(modRevision)
+                .build();
+    }
+
+    private static RangeResponse count(long count) {
+        return RangeResponse.newBuilder().setCount(count).build();
+    }
+
+    private static RangeResponse range(KeyValue... kvs) {
+        return RangeResponse.newBuilder().addAllKvs(Arrays.asList(kvs)).setCount(kvs.length).build();
+    }
+
+    private static TxnResponse txn(long revision, RangeResponse... ranges) {
+        TxnResponse.Builder response = TxnResponse.newBuilder()
+                .setHeader(ResponseHeader.newBuilder().setRevision(revision))
+                .setSucceeded(true);
+        for (RangeResponse range : ranges) {
+            response.addResponses(ResponseOp.newBuilder().setResponseRange(range));
+        }
+        return response.build();
+    }
+
+    private static KvClient trainClient(TxnResponse... responses) {
+        KvClient client = mock(KvClient.class);
+        OngoingStubbing<ListenableFuture<TxnResponse>> txn = when(client.txn(any(TxnRequest.class)));
+        for (TxnResponse response : responses) {
+            txn = txn.thenReturn(Futures.immediateFuture(response));
+        }
+        return client;
+    }
+}
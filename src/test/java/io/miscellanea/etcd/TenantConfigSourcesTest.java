@@ -0,0 +1,153 @@
+package io.miscellanea.etcd;
+
+import com.google.protobuf.ByteString;
+import com.ibm.etcd.api.Event;
+import com.ibm.etcd.api.KeyValue;
+import com.ibm.etcd.api.RangeResponse;
+import com.ibm.etcd.client.KvStoreClient;
+import com.ibm.etcd.client.kv.KvClient;
+import com.ibm.etcd.client.kv.WatchUpdate;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test suite for {@code TenantConfigSources}.
+ */
+public class TenantConfigSourcesTest {
+
+    // Tests
+    @Test
+    @DisplayName("Views Read Keys Beneath Their Tenant Prefix")
+    void viewsReadKeysBeneathTheirTenantPrefix() throws Exception {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "tenants/acme/db.url", "acme-db");
+        trainKey(client, "tenants/globex/db.url", "globex-db");
+
+        TenantConfigSources tenants = new TenantConfigSources(config(false), storeClient(client));
+
+        assertThat(tenants.forTenant("acme/").getPropertyValue("db.url")).isEqualTo("acme-db");
+        assertThat(tenants.forTenant("globex/").getPropertyValue("db.url")).isEqualTo("globex-db");
+        assertThat(tenants.forTenant("acme/")).isSameAs(tenants.forTenant("acme/"));
+        assertThat(tenants.forTenant("acme/").getConfigName()).endsWith("[acme/]");
+        assertThat(tenants.getTenantCount()).isEqualTo(2);
+
+        tenants.close();
+    }
+
+    @Test
+    @DisplayName("Tenants Share One Root Watch")
+    void tenantsShareOneRootWatch() throws Exception {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "tenants/acme/db.url", "acme-db");
+        trainKey(client, "tenants/globex/db.url", "globex-db");
+
+        KvClient.FluentRangeRequest root = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(root.sync()).thenReturn(RangeResponse.newBuilder().build());
+        when(client.get(ByteString.copyFromUtf8("tenants/"))).thenReturn(root);
+
+        KvClient.FluentWatchRequest watch = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watch.start(any())).thenReturn(mock(KvClient.Watch.class));
+        when(client.watch(any(ByteString.class))).thenReturn(watch);
+
+        TenantConfigSources tenants = new TenantConfigSources(config(true), storeClient(client));
+        tenants.forTenant("acme/").getPropertyValue("db.url");
+        tenants.forTenant("globex/").getPropertyValue("db.url");
+
+        verify(client, times(1)).watch(any(ByteString.class));
+        verify(client).watch(ByteString.copyFromUtf8("tenants/"));
+        verify(watch).asPrefix();
+
+        tenants.close();
+    }
+
+    @Test
+    @DisplayName("Views Report Changes Beneath Their Prefix")
+    void viewsReportChangesBeneathTheirPrefix() throws Exception {
+        KvClient client = mock(KvClient.class);
+        trainKey(client, "tenants/acme/db.url", "acme-db");
+        trainKey(client, "tenants/globex/db.url", "globex-db");
+
+        KvClient.FluentRangeRequest root = mock(KvClient.FluentRangeRequest.class, RETURNS_SELF);
+        when(root.sync()).thenReturn(RangeResponse.newBuilder().build());
+        when(client.get(ByteString.copyFromUtf8("tenants/"))).thenReturn(root);
+
+        KvClient.FluentWatchRequest watch = mock(KvClient.FluentWatchRequest.class, RETURNS_SELF);
+        when(watch.start(any())).thenReturn(mock(KvClient.Watch.class));
+        when(client.watch(any(ByteString.class))).thenReturn(watch);
+
+        TenantConfigSources tenants = new TenantConfigSources(config(true), storeClient(client));
+        List<Set<String>> reports = new ArrayList<>();
+        tenants.forTenant("acme/").setOnAttributeChange(reports::add);
+        tenants.forTenant("acme/").getPropertyValue("db.url");
+        tenants.forTenant("globex/").getPropertyValue("db.url");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<StreamObserver<WatchUpdate>> observer =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(watch).start(observer.capture());
+        WatchUpdate update = mock(WatchUpdate.class);
+        when(update.getEvents()).thenReturn(Arrays.asList(
+                put("tenants/globex/db.url", "globex-db2"),
+                put("tenants/acme/db.url", "acme-db2")));
+        observer.getValue().onNext(update);
+
+        assertThat(reports).hasSize(1);
+        assertThat(reports.get(0)).containsOnly("db.url");
+        assertThat(tenants.forTenant("acme/").getPropertyValue("db.url")).isEqualTo("acme-db2");
+
+        tenants.forTenant("acme/").setOnAttributeChange(null);
+        when(update.getEvents()).thenReturn(Arrays.asList(put("tenants/acme/db.url", "acme-db3")));
+        observer.getValue().onNext(update);
+        assertThat(reports).hasSize(1);
+
+        tenants.close();
+    }
+
+    // Private methods
+    private static Event put(String key, String value) {
+        return Event.newBuilder()
+                .setType(Event.EventType.PUT)
+                .setKv(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8(key))
+                        .setValue(ByteString.copyFromUtf8(value)))
+                .build();
+    }
+
+    private static EtcdConfig config(boolean watching) {
+        EtcdConfig config = mock(EtcdConfig.class);
+        when(config.getKeyPrefix()).thenReturn("tenants/");
+        when(config.isWatching()).thenReturn(watching);
+        return config;
+    }
+
+    private static KvStoreClient storeClient(KvClient client) {
+        KvStoreClient storeClient = mock(KvStoreClient.class);
+        when(storeClient.getKvClient()).thenReturn(client);
+        return storeClient;
+    }
+
+    private static void trainKey(KvClient client, String key, String value) {
+        ByteString etcdKey = ByteString.copyFromUtf8(key);
+        KvClient.FluentRangeRequest req = mock(KvClient.FluentRangeRequest.class);
+        when(req.sync()).thenReturn(RangeResponse.newBuilder()
+                .addKvs(KeyValue.newBuilder().setKey(etcdKey).setValue(ByteString.copyFromUtf8(value)))
+                .setCount(1)
+                .build());
+        when(client.get(etcdKey)).thenReturn(req);
+    }
+}
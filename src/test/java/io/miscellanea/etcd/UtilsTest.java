@@ -0,0 +1,66 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test suite for {@code Utils}.
+ */
+public class UtilsTest {
+
+    // Tests
+    @Test
+    @DisplayName("Members are Split on Commas")
+    void membersAreSplitOnCommas() {
+        assertThat(Utils.parseMembers("http://a:2379,http://b:2379"))
+                .containsExactly("http://a:2379", "http://b:2379");
+        assertThat(Utils.parseMembers(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("No Executor is Built Without a Valid Specification")
+    void noExecutorWithoutAValidSpecification() {
+        assertThat(Utils.buildExecutor(null)).isNull();
+        assertThat(Utils.buildExecutor("")).isNull();
+        assertThat(Utils.buildExecutor("0")).isNull();
+        assertThat(Utils.buildExecutor("lots")).isNull();
+    }
+
+    @Test
+    @DisplayName("Thread Count Builds a Daemon Pool")
+    void threadCountBuildsADaemonPool() throws Exception {
+        ExecutorService executor = Utils.buildExecutor(" 2 ");
+        try {
+            assertThat(executor).isNotNull();
+            assertThat(executor.submit(() -> Thread.currentThread().isDaemon()).get(5, TimeUnit.SECONDS))
+                    .isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Virtual Executor Depends on the Running JDK")
+    void virtualExecutorDependsOnTheRunningJdk() throws Exception {
+        boolean supported;
+        try {
+            Thread.class.getMethod("isVirtual");
+            supported = true;
+        } catch (NoSuchMethodException e) {
+            supported = false;
+        }
+
+        ExecutorService executor = Utils.buildExecutor("virtual");
+        if (supported) {
+            assertThat(executor).isNotNull();
+            executor.shutdown();
+        } else {
+            assertThat(executor).isNull();
+        }
+    }
+}
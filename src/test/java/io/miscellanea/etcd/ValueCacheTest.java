@@ -0,0 +1,434 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Unit test suite for {@code ValueCache}.
+ */
+public class ValueCacheTest {
+    // Constants
+    private static final int BATCH_SIZE = 100;
+    private static final int BATCH_COUNT = 2000;
+
+    // Tests
+    @Test
+    @DisplayName("Changes Replace Cached Values and Remove Deleted Keys")
+    void changesReplaceCachedValuesAndRemoveDeletedKeys() {
+        ValueCache cache = new ValueCache();
+        put(cache, "a", "1");
+        put(cache, "b", "2");
+
+        Map<String, String> changes = new HashMap<>();
+        changes.put("a", "10");
+        changes.put("b", null);
+        changes.put("c", "30");
+        applyChanges(cache, changes);
+
+        assertThat(cache.get("a")).isEqualTo("10");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Readers Never Observe a Partially Applied Batch")
+    void readersNeverObserveAPartiallyAppliedBatch() throws Exception {
+        ValueCache cache = new ValueCache();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            put(cache, "key" + i, "0");
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicInteger violations = new AtomicInteger();
+
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                int previous = 0;
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    int current = Integer.parseInt(cache.get("key" + i));
+                    if (current < previous) {
+                        violations.incrementAndGet();
+                    }
+                    previous = current;
+                }
+            }
+        });
+        reader.start();
+
+        for (int batch = 1; batch <= BATCH_COUNT; batch++) {
+            Map<String, String> changes = new LinkedHashMap<>();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                changes.put("key" + i, Integer.toString(batch));
+            }
+            applyChanges(cache, changes);
+        }
+
+        done.set(true);
+        reader.join();
+
+        assertThat(violations.get()).isZero();
+        assertThat(cache.get("key0")).isEqualTo(Integer.toString(BATCH_COUNT));
+    }
+
+    @Test
+    @DisplayName("Batches Complete Alongside a Stream of Single Writes")
+    void batchesCompleteAlongsideAStreamOfSingleWrites() throws Exception {
+        ValueCache cache = new ValueCache();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            put(cache, "key" + i, "0");
+        }
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !done.get(); i++) {
+                put(cache, "other" + (i % BATCH_SIZE), Integer.toString(i));
+            }
+        });
+        writer.start();
+
+        for (int batch = 1; batch <= BATCH_COUNT; batch++) {
+            Map<String, String> changes = new LinkedHashMap<>();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                changes.put("key" + i, Integer.toString(batch));
+            }
+            applyChanges(cache, changes);
+        }
+
+        done.set(true);
+        writer.join();
+
+        assertThat(cache.get("key" + (BATCH_SIZE - 1))).isEqualTo(Integer.toString(BATCH_COUNT));
+    }
+
+    @Test
+    @DisplayName("Least Recently Read Entries are Evicted When Full")
+    void leastRecentlyReadEntriesAreEvictedWhenFull() throws Exception {
+        List<String> evicted = new ArrayList<>();
+        ValueCache cache = new ValueCache(10, 0, evicted::add);
+
+        for (int i = 0; i < 10; i++) {
+            put(cache, "key" + i, "value" + i);
+            Thread.sleep(1);
+        }
+        cache.get("key0");
+        put(cache, "key10", "value10");
+
+        assertThat(cache.size()).isEqualTo(9);
+        assertThat(evicted).containsExactly("key1", "key2");
+        assertThat(cache.get("key0")).isEqualTo("value0");
+    }
+
+    @Test
+    @DisplayName("Tombstones Do Not Count Towards the Size Limit")
+    void tombstonesDoNotCountTowardsTheSizeLimit() {
+        List<String> evicted = new ArrayList<>();
+        ValueCache cache = new ValueCache(4, 0, evicted::add);
+
+        put(cache, "a", "1");
+        put(cache, "b", "2");
+        Map<String, String> deletes = new HashMap<>();
+        Map<String, Long> revisions = new HashMap<>();
+        for (String key : Arrays.asList("x", "y", "z")) {
+            deletes.put(key, null);
+            revisions.put(key, 5L);
+        }
+        applyVersioned(cache, deletes, revisions);
+        put(cache, "c", "3");
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(evicted).isEmpty();
+        assertThat(cache.tombstonesWithPrefix("")).containsExactly("x", "y", "z");
+    }
+
+    @Test
+    @DisplayName("Idle Entries are Evicted")
+    void idleEntriesAreEvicted() throws Exception {
+        List<String> evicted = new ArrayList<>();
+        ValueCache cache = new ValueCache(0, 50, evicted::add);
+
+        put(cache, "idle", "value");
+        Thread.sleep(100);
+
+        assertThat(cache.get("idle")).isNull();
+        assertThat(evicted).containsExactly("idle");
+    }
+
+    @Test
+    @DisplayName("Removed Entries are Not Reported as Evicted")
+    void removedEntriesAreNotReportedAsEvicted() {
+        List<String> evicted = new ArrayList<>();
+        ValueCache cache = new ValueCache(1, 0, evicted::add);
+
+        put(cache, "key", "value");
+        cache.remove("key");
+
+        assertThat(cache.get("key")).isNull();
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Entries Expire at Their Deadline")
+    void entriesExpireAtTheirDeadline() throws Exception {
+        ValueCache cache = new ValueCache();
+
+        cache.put("leased", "value", System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50), false, 0);
+        put(cache, "permanent", "value");
+        assertThat(cache.get("leased")).isEqualTo("value");
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("leased")).isNull();
+        assertThat(cache.get("permanent")).isEqualTo("value");
+    }
+
+    @Test
+    @DisplayName("Identical Values are Stored Once")
+    void identicalValuesAreStoredOnce() {
+        ValueCache cache = new ValueCache();
+
+        put(cache, "a", "true");
+        long oneValue = cache.footprint();
+        put(cache, "b", "true");
+        put(cache, "c", "true");
+
+        assertThat(cache.get("c")).isEqualTo("true");
+        // Each additional key costs its entry and key, but not another copy of the value
+        assertThat(cache.footprint() - oneValue).isLessThan(2 * oneValue);
+    }
+
+    @Test
+    @DisplayName("Non-ASCII Values Survive Encoding")
+    void nonAsciiValuesSurviveEncoding() {
+        ValueCache cache = new ValueCache();
+
+        put(cache, "greeting", "gr\u00fc\u00df dich \u2603");
+
+        assertThat(cache.get("greeting")).isEqualTo("gr\u00fc\u00df dich \u2603");
+    }
+
+    @Test
+    @DisplayName("Negative Entries are Replaced by Watched Values and Reset on Demand")
+    void negativeEntriesAreReplacedAndReset() {
+        List<String> evicted = new ArrayList<>();
+        ValueCache cache = new ValueCache(0, 0, evicted::add);
+        cache.putAbsent("missing", 0);
+        cache.putAbsent("created", 0);
+
+        assertThat(cache.get("missing")).isSameAs(ValueCache.ABSENT);
+        assertThat(cache.absentCount()).isEqualTo(2);
+
+        applyChanges(cache, Collections.singletonMap("created", "now"));
+        assertThat(cache.get("created")).isEqualTo("now");
+
+        assertThat(cache.removeAbsent()).isEqualTo(1);
+        assertThat(cache.get("missing")).isNull();
+        assertThat(cache.get("created")).isEqualTo("now");
+        assertThat(evicted).containsExactly("missing");
+    }
+
+    @Test
+    @DisplayName("Stale Writes Do Not Replace Newer Entries")
+    void staleWritesDoNotReplaceNewerEntries() {
+        ValueCache cache = new ValueCache();
+
+        assertThat(cache.put("key", "v5", 0, false, 5)).isTrue();
+        assertThat(cache.put("key", "v4", 0, false, 4)).isFalse();
+        assertThat(cache.get("key")).isEqualTo("v5");
+
+        applyVersioned(cache, Collections.singletonMap("key", "v7"), Collections.singletonMap("key", 7L));
+        assertThat(cache.put("key", "v6", 0, false, 6)).isFalse();
+        assertThat(cache.get("key")).isEqualTo("v7");
+    }
+
+    @Test
+    @DisplayName("Deletes Leave Tombstones That Reject Older Loads")
+    void deletesLeaveTombstonesThatRejectOlderLoads() {
+        ValueCache cache = new ValueCache();
+        cache.put("key", "v5", 0, false, 5);
+
+        applyVersioned(cache, Collections.singletonMap("key", null), Collections.singletonMap("key", 8L));
+        assertThat(cache.get("key")).isNull();
+        assertThat(cache.tombstonesWithPrefix("")).containsExactly("key");
+
+        assertThat(cache.put("key", "v5", 0, false, 5)).isFalse();
+        assertThat(cache.putAbsent("key", 7)).isFalse();
+        assertThat(cache.get("key")).isNull();
+
+        assertThat(cache.putAbsent("key", 8)).isTrue();
+        assertThat(cache.get("key")).isSameAs(ValueCache.ABSENT);
+    }
+
+    @Test
+    @DisplayName("Tombstones are Not Counted and May be Removed")
+    void tombstonesAreNotCountedAndMayBeRemoved() {
+        ValueCache cache = new ValueCache();
+        cache.put("key", "v5", 0, false, 5);
+        cache.put("other", "v6", 0, false, 6);
+
+        applyVersioned(cache, Collections.singletonMap("key", null), Collections.singletonMap("key", 8L));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.contains("key")).isTrue();
+        assertThat(cache.tombstonesWithPrefix("")).containsExactly("key");
+        assertThat(cache.peek("key")).isNull();
+        assertThat(cache.peek("other")).isEqualTo("v6");
+        assertThat(cache.removeTombstone("other")).isFalse();
+        assertThat(cache.removeTombstone("key")).isTrue();
+        assertThat(cache.contains("key")).isFalse();
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("other")).isEqualTo("v6");
+    }
+
+    @Test
+    @DisplayName("Changes to Uncached Keys Fence Out Loads Read Before Them")
+    void changesToUncachedKeysFenceOutLoadsReadBeforeThem() {
+        ValueCache cache = new ValueCache();
+
+        applyVersioned(cache, Collections.singletonMap("key", "v9"), Collections.singletonMap("key", 9L));
+        assertThat(cache.get("key")).isNull();
+
+        assertThat(cache.put("key", "v3", 0, false, 3)).isFalse();
+        assertThat(cache.put("key", "v9", 0, false, 9)).isTrue();
+        assertThat(cache.get("key")).isEqualTo("v9");
+        assertThat(cache.tombstonesWithPrefix("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Unversioned Writes Always Apply")
+    void unversionedWritesAlwaysApply() {
+        ValueCache cache = new ValueCache();
+        cache.put("key", "v5", 0, false, 5);
+
+        put(cache, "key", "manual");
+        assertThat(cache.get("key")).isEqualTo("manual");
+
+        applyChanges(cache, Collections.singletonMap("other", "ignored"));
+        assertThat(cache.get("other")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Snapshots are Unaffected by Later Writes")
+    void snapshotsAreUnaffectedByLaterWrites() {
+        ValueCache cache = new ValueCache();
+        put(cache, "a", "1");
+        put(cache, "b", "2");
+        cache.putAbsent("missing", 0);
+        cache.put("expired", "gone", System.nanoTime() - 1, false, 0);
+
+        Map<String, String> snapshot = cache.snapshot();
+        put(cache, "a", "10");
+        put(cache, "c", "3");
+        cache.remove("b");
+
+        assertThat(snapshot).containsOnly(entry("a", "1"), entry("b", "2"));
+        assertThat(snapshot.get("missing")).isNull();
+        assertThat(cache.snapshot()).containsOnly(entry("a", "10"), entry("c", "3"));
+    }
+
+    @Test
+    @DisplayName("Secrets are Left Out of Snapshots")
+    void secretsAreLeftOutOfSnapshots() {
+        ValueCache cache = new ValueCache();
+        put(cache, "db.user", "admin");
+        cache.put("db.password", "s3cret", 0, true, 0);
+        cache.applyChanges(Collections.singletonMap("db.user", "root"), Collections.singleton("db.user"),
+                Collections.emptyMap(), Collections.emptySet());
+
+        assertThat(cache.get("db.password")).isEqualTo("s3cret");
+        assertThat(cache.get("db.user")).isEqualTo("root");
+        assertThat(cache.snapshot()).isEmpty();
+        assertThat(cache.snapshot("db.")).isEmpty();
+        assertThat(cache.getWithPrefix("db.")).containsOnlyKeys("db.password", "db.user");
+    }
+
+    @Test
+    @DisplayName("Prefix Snapshots Hold Only Matching Keys")
+    void prefixSnapshotsHoldOnlyMatchingKeys() {
+        ValueCache cache = new ValueCache();
+        put(cache, "tenant1.db.url", "url1");
+        put(cache, "tenant1.db.user", "user1");
+        put(cache, "tenant10.db.url", "url10");
+        put(cache, "tenant2.db.url", "url2");
+        cache.putAbsent("tenant1.missing", 0);
+
+        Map<String, String> snapshot = cache.snapshot("tenant1.");
+        put(cache, "tenant1.db.url", "changed");
+        put(cache, "tenant1.new", "later");
+
+        assertThat(snapshot).hasSize(2);
+        assertThat(snapshot).containsExactly(entry("tenant1.db.url", "url1"), entry("tenant1.db.user", "user1"));
+        assertThat(snapshot.get("tenant2.db.url")).isNull();
+        assertThat(snapshot.get("tenant1.new")).isNull();
+    }
+
+    @Test
+    @DisplayName("Prefix Reads Return Cached Values in Key Order")
+    void prefixReadsReturnCachedValuesInKeyOrder() {
+        ValueCache cache = new ValueCache();
+        put(cache, "pool.db2.size", "20");
+        put(cache, "pool.db1.size", "10");
+        put(cache, "pool.db1.host", "db1");
+        put(cache, "pool.db10.size", "100");
+        put(cache, "poolSize", "5");
+        cache.putAbsent("pool.db1.user", 0);
+        applyVersioned(cache, Collections.singletonMap("pool.db1.port", null), Collections.singletonMap("pool.db1.port", 7L));
+
+        assertThat(cache.getWithPrefix("pool.db1."))
+                .containsExactly(entry("pool.db1.host", "db1"), entry("pool.db1.size", "10"));
+        assertThat(cache.getWithPrefix("pool.").keySet())
+                .containsExactly(
+                        "pool.db1.host", "pool.db1.size", "pool.db10.size", "pool.db2.size");
+
+        cache.remove("pool.db1.host");
+        assertThat(cache.getWithPrefix("pool.db1.")).containsOnly(entry("pool.db1.size", "10"));
+    }
+
+    @Test
+    @DisplayName("Admitted Changes Cache Uncached Keys")
+    void admittedChangesCacheUncachedKeys() {
+        ValueCache cache = new ValueCache();
+        Map<String, String> changes = new HashMap<>();
+        changes.put("feature.a", "on");
+        changes.put("feature.b", "off");
+        Map<String, Long> revisions = new HashMap<>();
+        revisions.put("feature.a", 5L);
+        revisions.put("feature.b", 5L);
+
+        cache.applyChanges(changes, Collections.emptySet(), revisions,
+                Collections.singleton("feature.a"));
+
+        assertThat(cache.getWithPrefix("feature."))
+                .containsOnly(entry("feature.a", "on"));
+        assertThat(cache.put("feature.a", "stale", 0, false, 4)).isFalse();
+        assertThat(cache.put("feature.b", "stale", 0, false, 4)).isFalse();
+    }
+
+    // Private methods
+    private static void put(ValueCache cache, String key, String value) {
+        cache.put(key, value, 0, false, 0);
+    }
+
+    private static void applyChanges(ValueCache cache, Map<String, String> changes) {
+        cache.applyChanges(changes, Collections.emptySet(), Collections.emptyMap(), Collections.emptySet());
+    }
+
+    private static void applyVersioned(ValueCache cache, Map<String, String> changes, Map<String, Long> revisions) {
+        cache.applyChanges(changes, Collections.emptySet(), revisions, Collections.emptySet());
+    }
+}
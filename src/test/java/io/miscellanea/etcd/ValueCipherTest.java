@@ -0,0 +1,93 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit test suite for {@code ValueCipher}.
+ */
+public class ValueCipherTest {
+    // Constants
+    private static final byte[] KEY = new byte[32];
+    private static final byte[] OTHER_KEY = new byte[16];
+
+    static {
+        for (int i = 0; i < KEY.length; i++) {
+            KEY[i] = (byte) i;
+        }
+    }
+
+    // Tests
+    @Test
+    @DisplayName("Cipher Rejects Keys of the Wrong Length")
+    void rejectsKeysOfTheWrongLength() {
+        Throwable exception = assertThrows(IllegalArgumentException.class, () -> new ValueCipher(new byte[10]));
+
+        assertThat(exception.getMessage()).contains("key");
+    }
+
+    @Test
+    @DisplayName("Encrypted Values Round Trip")
+    void encryptedValuesRoundTrip() throws Exception {
+        ValueCipher cipher = new ValueCipher(KEY);
+
+        String encrypted = encrypt(KEY, "s3crét");
+
+        assertThat(ValueCipher.isEncrypted(encrypted)).isTrue();
+        assertThat(encrypted).doesNotContain("s3cr");
+        assertThat(cipher.decrypt(encrypted)).isEqualTo("s3crét");
+        assertThat(ValueCipher.isEncrypted("plain")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Values Encrypted with Another Key are Rejected")
+    void valuesEncryptedWithAnotherKeyAreRejected() throws Exception {
+        String encrypted = encrypt(OTHER_KEY, "value");
+
+        assertThrows(GeneralSecurityException.class, () -> new ValueCipher(KEY).decrypt(encrypted));
+        assertThrows(GeneralSecurityException.class, () -> new ValueCipher(KEY).decrypt(ValueCipher.TAG + "AAAA"));
+    }
+
+    @Test
+    @DisplayName("Key is Loaded from a File")
+    void keyIsLoadedFromAFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("etcd.key");
+        Files.write(file, Collections.singletonList(Base64.getEncoder().encodeToString(KEY)), StandardCharsets.US_ASCII);
+
+        String encrypted = encrypt(KEY, "value");
+
+        assertThat(ValueCipher.fromKeyFile(file).decrypt(encrypted)).isEqualTo("value");
+    }
+
+    // Package methods
+    /**
+     * Encrypts a value the way the configuration source expects to find it in etcd.
+     */
+    static String encrypt(byte[] key, String value) throws GeneralSecurityException {
+        byte[] iv = new byte[12];
+        new SecureRandom().nextBytes(iv);
+
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"), new GCMParameterSpec(128, iv));
+        byte[] sealed = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+
+        ByteBuffer payload = ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed);
+        return ValueCipher.TAG + Base64.getEncoder().encodeToString(payload.array());
+    }
+}
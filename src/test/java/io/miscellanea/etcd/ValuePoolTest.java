@@ -0,0 +1,41 @@
+package io.miscellanea.etcd;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit test suite for {@code ValuePool}.
+ */
+public class ValuePoolTest {
+
+    // Tests
+    @Test
+    @DisplayName("Identical Short Values Share an Instance")
+    void identicalShortValuesShareAnInstance() {
+        ValuePool pool = new ValuePool();
+
+        byte[] first = pool.intern("true".getBytes(StandardCharsets.UTF_8));
+        byte[] second = pool.intern("true".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(second).isSameAs(first);
+        assertThat(pool.isPooled(first)).isTrue();
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Long Values are Not Pooled")
+    void longValuesAreNotPooled() {
+        ValuePool pool = new ValuePool();
+        byte[] value = new byte[ValuePool.MAX_POOLED_LENGTH + 1];
+        Arrays.fill(value, (byte) 'x');
+
+        assertThat(pool.intern(value)).isSameAs(value);
+        assertThat(pool.intern(value.clone())).isNotSameAs(value);
+        assertThat(pool.size()).isZero();
+    }
+}